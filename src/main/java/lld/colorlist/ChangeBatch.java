@@ -0,0 +1,44 @@
+package lld.colorlist;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consecutive deltas of one list delivered to a subscriber in a single message.
+ * A resync batch carries no deltas: the subscriber fell behind the retained log and has to
+ * reload the list ({@link ColorListChangeFeed#snapshot}) and subscribe again from its version.
+ */
+public class ChangeBatch {
+    public final String subscriberId;
+    public final String listId;
+    public final long fromVersion; // exclusive
+    public final long toVersion;   // inclusive
+    public final List<ColorListDelta> deltas;
+    public final boolean resync;
+
+    private ChangeBatch(String subscriberId, String listId, long fromVersion, long toVersion,
+                        List<ColorListDelta> deltas, boolean resync) {
+        this.subscriberId = subscriberId;
+        this.listId = listId;
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.deltas = deltas;
+        this.resync = resync;
+    }
+
+    static ChangeBatch of(String subscriberId, String listId, long fromVersion, List<ColorListDelta> deltas) {
+        long toVersion = deltas.get(deltas.size() - 1).version;
+        return new ChangeBatch(subscriberId, listId, fromVersion, toVersion,
+                Collections.unmodifiableList(deltas), false);
+    }
+
+    static ChangeBatch resync(String subscriberId, String listId, long fromVersion, long latestVersion) {
+        return new ChangeBatch(subscriberId, listId, fromVersion, latestVersion, Collections.emptyList(), true);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeBatch{subscriber='%s', list='%s', versions=(%d, %d], deltas=%d%s}",
+                subscriberId, listId, fromVersion, toVersion, deltas.size(), resync ? ", resync" : "");
+    }
+}
@@ -0,0 +1,17 @@
+package lld.colorlist;
+
+/**
+ * Delivers change batches to subscribers (websocket, message queue, in-process queue, ...).
+ * Called from the feed's flush thread, one batch at a time per subscriber.
+ */
+public interface ChangeFeedTransport {
+    /**
+     * @return false if the subscriber could not be reached; the batch is retried on the next flush
+     */
+    boolean send(ChangeBatch batch);
+
+    /**
+     * The feed dropped a subscription (unsubscribed, access lost or list deleted)
+     */
+    default void onSubscriptionClosed(String subscriberId) {}
+}
@@ -88,16 +88,8 @@ public class Color {
      * Calculate luminance for accessibility checks
      */
     public double getLuminance() {
-        double r = red / 255.0;
-        double g = green / 255.0;
-        double b = blue / 255.0;
-        
-        // Apply gamma correction
-        r = r <= 0.03928 ? r / 12.92 : Math.pow((r + 0.055) / 1.055, 2.4);
-        g = g <= 0.03928 ? g / 12.92 : Math.pow((g + 0.055) / 1.055, 2.4);
-        b = b <= 0.03928 ? b / 12.92 : Math.pow((b + 0.055) / 1.055, 2.4);
-        
-        return 0.2126 * r + 0.7152 * g + 0.0722 * b;
+        // Gamma correction comes from a precomputed per-channel table
+        return ColorSpaceConverter.luminance(red, green, blue);
     }
     
     /**
@@ -0,0 +1,232 @@
+package lld.colorlist;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Compares the original pow-per-channel conversions (kept here as the reference)
+ * with the table-driven {@link ColorSpaceConverter}, with and without the packed LAB cache.
+ * Also reports the maximum deviation from the reference over the sampled colors.
+ *
+ * Usage: ColorConversionBenchmark [colors] [rounds]
+ */
+public class ColorConversionBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int colors = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(42);
+        int[] rgb = new int[colors];
+        for (int i = 0; i < colors; i++) {
+            rgb[i] = random.nextInt(1 << 24);
+        }
+
+        System.out.println("🎨 Color conversion benchmark: " + colors + " colors, " + rounds + " rounds");
+        report("rgbToLab  reference", rgb, rounds, ColorConversionBenchmark::referenceLab);
+        report("rgbToLab  tables", rgb, rounds, ColorConversionBenchmark::tableLab);
+        report("rgbToHsv  reference", rgb, rounds, ColorConversionBenchmark::referenceHsv);
+        report("rgbToHsv  tables", rgb, rounds, ColorConversionBenchmark::tableHsv);
+        report("luminance reference", rgb, rounds, ColorConversionBenchmark::referenceLuminance);
+        report("luminance tables", rgb, rounds, ColorConversionBenchmark::tableLuminance);
+        report("deltaE    reference", rgb, rounds, ColorConversionBenchmark::referenceDeltaE);
+        report("deltaE    tables", rgb, rounds, ColorConversionBenchmark::tableDeltaE);
+
+        Path file = Files.createTempFile("lab-cache", ".bin");
+        try {
+            PackedLabCache cache = PackedLabCache.open(file);
+            long start = System.nanoTime();
+            cache.warmUp();
+            System.out.printf("Packed LAB cache built in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            ColorSpaceConverter.installLabCache(cache);
+            report("rgbToLab  packed cache", rgb, rounds, ColorConversionBenchmark::tableLab);
+            report("deltaE    packed cache", rgb, rounds, ColorConversionBenchmark::tableDeltaE);
+            System.out.printf("Max LAB error (packed cache): %.4f%n", maxLabError(rgb));
+        } finally {
+            ColorSpaceConverter.installLabCache(null);
+            Files.deleteIfExists(file);
+        }
+        System.out.printf("Max LAB error (tables): %.2e%n", maxLabError(rgb));
+        System.out.printf("Max HSV error (tables): %.2e%n", maxHsvError(rgb));
+    }
+
+    private interface Workload {
+        double run(int[] rgb);
+    }
+
+    private static void report(String name, int[] rgb, int rounds, Workload workload) {
+        double sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += workload.run(rgb);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            sink += workload.run(rgb);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-24s %8.1f ns/op   (checksum %.3e)%n", name, (double) best / rgb.length, sink);
+    }
+
+    private static double referenceLab(int[] rgb) {
+        double sum = 0;
+        for (int c : rgb) {
+            sum += referenceRgbToLab(c >> 16, (c >> 8) & 0xFF, c & 0xFF)[0];
+        }
+        return sum;
+    }
+
+    private static double tableLab(int[] rgb) {
+        double[] lab = new double[3];
+        double sum = 0;
+        for (int c : rgb) {
+            ColorSpaceConverter.rgbToLabInto(c >> 16, (c >> 8) & 0xFF, c & 0xFF, lab, 0);
+            sum += lab[0];
+        }
+        return sum;
+    }
+
+    private static double referenceHsv(int[] rgb) {
+        double sum = 0;
+        for (int c : rgb) {
+            sum += referenceRgbToHsv(c >> 16, (c >> 8) & 0xFF, c & 0xFF)[0];
+        }
+        return sum;
+    }
+
+    private static double tableHsv(int[] rgb) {
+        double[] hsv = new double[3];
+        double sum = 0;
+        for (int c : rgb) {
+            ColorSpaceConverter.rgbToHsvInto(c >> 16, (c >> 8) & 0xFF, c & 0xFF, hsv, 0);
+            sum += hsv[0];
+        }
+        return sum;
+    }
+
+    private static double referenceLuminance(int[] rgb) {
+        double sum = 0;
+        for (int c : rgb) {
+            sum += referenceLuminance(c >> 16, (c >> 8) & 0xFF, c & 0xFF);
+        }
+        return sum;
+    }
+
+    private static double tableLuminance(int[] rgb) {
+        double sum = 0;
+        for (int c : rgb) {
+            sum += ColorSpaceConverter.luminance(c >> 16, (c >> 8) & 0xFF, c & 0xFF);
+        }
+        return sum;
+    }
+
+    // Distance between neighbouring samples
+    private static double referenceDeltaE(int[] rgb) {
+        double sum = 0;
+        for (int i = 1; i < rgb.length; i++) {
+            double[] lab1 = referenceRgbToLab(rgb[i - 1] >> 16, (rgb[i - 1] >> 8) & 0xFF, rgb[i - 1] & 0xFF);
+            double[] lab2 = referenceRgbToLab(rgb[i] >> 16, (rgb[i] >> 8) & 0xFF, rgb[i] & 0xFF);
+            double deltaL = lab1[0] - lab2[0];
+            double deltaA = lab1[1] - lab2[1];
+            double deltaB = lab1[2] - lab2[2];
+            sum += Math.sqrt(deltaL * deltaL + deltaA * deltaA + deltaB * deltaB);
+        }
+        return sum;
+    }
+
+    private static double tableDeltaE(int[] rgb) {
+        double[] scratch = new double[6];
+        double sum = 0;
+        for (int i = 1; i < rgb.length; i++) {
+            sum += ColorSpaceConverter.deltaE(rgb[i - 1] >> 16, (rgb[i - 1] >> 8) & 0xFF, rgb[i - 1] & 0xFF,
+                                              rgb[i] >> 16, (rgb[i] >> 8) & 0xFF, rgb[i] & 0xFF, scratch);
+        }
+        return sum;
+    }
+
+    private static double maxLabError(int[] rgb) {
+        double[] lab = new double[3];
+        double maxError = 0;
+        for (int c : rgb) {
+            int r = c >> 16, g = (c >> 8) & 0xFF, b = c & 0xFF;
+            double[] expected = referenceRgbToLab(r, g, b);
+            ColorSpaceConverter.rgbToLabInto(r, g, b, lab, 0);
+            for (int d = 0; d < 3; d++) {
+                maxError = Math.max(maxError, Math.abs(expected[d] - lab[d]));
+            }
+        }
+        return maxError;
+    }
+
+    private static double maxHsvError(int[] rgb) {
+        double[] hsv = new double[3];
+        double maxError = 0;
+        for (int c : rgb) {
+            int r = c >> 16, g = (c >> 8) & 0xFF, b = c & 0xFF;
+            double[] expected = referenceRgbToHsv(r, g, b);
+            ColorSpaceConverter.rgbToHsvInto(r, g, b, hsv, 0);
+            for (int d = 0; d < 3; d++) {
+                maxError = Math.max(maxError, Math.abs(expected[d] - hsv[d]));
+            }
+        }
+        return maxError;
+    }
+
+    // Reference implementations: the conversions as they were before the lookup tables
+
+    private static double[] referenceRgbToLab(int r, int g, int b) {
+        double rNorm = r / 255.0;
+        double gNorm = g / 255.0;
+        double bNorm = b / 255.0;
+        rNorm = rNorm > 0.04045 ? Math.pow((rNorm + 0.055) / 1.055, 2.4) : rNorm / 12.92;
+        gNorm = gNorm > 0.04045 ? Math.pow((gNorm + 0.055) / 1.055, 2.4) : gNorm / 12.92;
+        bNorm = bNorm > 0.04045 ? Math.pow((bNorm + 0.055) / 1.055, 2.4) : bNorm / 12.92;
+        double[] xyz = {
+            (rNorm * 0.4124 + gNorm * 0.3576 + bNorm * 0.1805) * 100,
+            (rNorm * 0.2126 + gNorm * 0.7152 + bNorm * 0.0722) * 100,
+            (rNorm * 0.0193 + gNorm * 0.1192 + bNorm * 0.9505) * 100
+        };
+
+        double x = xyz[0] / 95.047;
+        double y = xyz[1] / 100.000;
+        double z = xyz[2] / 108.883;
+        x = x > 0.008856 ? Math.cbrt(x) : (7.787 * x) + (16.0 / 116.0);
+        y = y > 0.008856 ? Math.cbrt(y) : (7.787 * y) + (16.0 / 116.0);
+        z = z > 0.008856 ? Math.cbrt(z) : (7.787 * z) + (16.0 / 116.0);
+        return new double[]{(116 * y) - 16, 500 * (x - y), 200 * (y - z)};
+    }
+
+    private static double[] referenceRgbToHsv(int r, int g, int b) {
+        double rNorm = r / 255.0;
+        double gNorm = g / 255.0;
+        double bNorm = b / 255.0;
+        double max = Math.max(Math.max(rNorm, gNorm), bNorm);
+        double min = Math.min(Math.min(rNorm, gNorm), bNorm);
+        double delta = max - min;
+
+        double h = 0;
+        if (delta != 0) {
+            if (max == rNorm) {
+                h = 60 * (((gNorm - bNorm) / delta) % 6);
+            } else if (max == gNorm) {
+                h = 60 * (((bNorm - rNorm) / delta) + 2);
+            } else {
+                h = 60 * (((rNorm - gNorm) / delta) + 4);
+            }
+        }
+        return new double[]{h, max == 0 ? 0 : delta / max, max};
+    }
+
+    private static double referenceLuminance(int red, int green, int blue) {
+        double r = red / 255.0;
+        double g = green / 255.0;
+        double b = blue / 255.0;
+        r = r <= 0.03928 ? r / 12.92 : Math.pow((r + 0.055) / 1.055, 2.4);
+        g = g <= 0.03928 ? g / 12.92 : Math.pow((g + 0.055) / 1.055, 2.4);
+        b = b <= 0.03928 ? b / 12.92 : Math.pow((b + 0.055) / 1.055, 2.4);
+        return 0.2126 * r + 0.7152 * g + 0.0722 * b;
+    }
+}
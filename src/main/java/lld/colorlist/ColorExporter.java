@@ -1,145 +1,243 @@
 package lld.colorlist;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for exporting color lists to various formats
  * Supports multiple export formats for different use cases
+ *
+ * Every format is written incrementally through a pooled buffer ({@link ExportSink}),
+ * so the streaming overloads use constant memory however many colors are exported.
+ * The String overload renders the same bytes into memory for small lists.
  */
 public class ColorExporter {
-    
+    // Compiled once; String.replaceAll would recompile them for every color
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+    private static final Pattern DASH_RUNS = Pattern.compile("-+");
+    private static final Pattern EDGE_DASHES = Pattern.compile("^-|-$");
+
     public static String export(List<Color> colors, ExportFormat format) {
-        switch (format) {
-            case JSON:
-                return exportToJson(colors);
-            case CSV:
-                return exportToCsv(colors);
-            case XML:
-                return exportToXml(colors);
-            case HEX_LIST:
-                return exportToHexList(colors);
-            case RGB_LIST:
-                return exportToRgbList(colors);
-            case ADOBE_ASE:
-                return exportToAdobeAse(colors);
-            case GIMP_GPL:
-                return exportToGimpGpl(colors);
-            case CSS:
-                return exportToCss(colors);
-            case SCSS:
-                return exportToScss(colors);
-            default:
-                throw new IllegalArgumentException("Unsupported format: " + format);
-        }
-    }
-    
+        if (format == ExportFormat.ADOBE_ASE) {
+            // Binary ASE is not representable as a String; keep the readable summary here
+            return exportToAdobeAseText(colors);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            export(colors, format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory stream never fails
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stream the export to a stream; the stream is flushed but not closed
+     */
+    public static long export(Collection<Color> colors, ExportFormat format, OutputStream out) throws IOException {
+        long written = export(colors, format, Channels.newChannel(out), ByteBufferPool.shared());
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Stream the export to a channel (file, socket, ...); the channel is not closed
+     *
+     * @return number of bytes written
+     */
+    public static long export(Collection<Color> colors, ExportFormat format, WritableByteChannel channel)
+            throws IOException {
+        return export(colors, format, channel, ByteBufferPool.shared());
+    }
+
+    public static long export(Collection<Color> colors, ExportFormat format, WritableByteChannel channel,
+                              ByteBufferPool pool) throws IOException {
+        ExportSink sink = new ExportSink(channel, pool);
+        try {
+            switch (format) {
+                case JSON:
+                    writeJson(colors, sink);
+                    break;
+                case CSV:
+                    writeCsv(colors, sink);
+                    break;
+                case XML:
+                    writeXml(colors, sink);
+                    break;
+                case HEX_LIST:
+                    writeHexList(colors, sink);
+                    break;
+                case RGB_LIST:
+                    writeRgbList(colors, sink);
+                    break;
+                case ADOBE_ASE:
+                    writeAdobeAse(colors, sink);
+                    break;
+                case GIMP_GPL:
+                    writeGimpGpl(colors, sink);
+                    break;
+                case CSS:
+                    writeCss(colors, sink);
+                    break;
+                case SCSS:
+                    writeScss(colors, sink);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported format: " + format);
+            }
+        } finally {
+            sink.close();
+        }
+        return sink.getBytesWritten();
+    }
+
     /**
      * Export to JSON format
      */
-    private static String exportToJson(List<Color> colors) {
-        StringBuilder json = new StringBuilder();
-        json.append("{\n");
-        json.append("  \"colors\": [\n");
-        
-        for (int i = 0; i < colors.size(); i++) {
-            Color color = colors.get(i);
-            json.append("    {\n");
-            json.append(String.format("      \"name\": \"%s\",\n", color.getName()));
-            json.append(String.format("      \"hex\": \"%s\",\n", color.getHexCode()));
-            json.append(String.format("      \"rgb\": {\n"));
-            json.append(String.format("        \"r\": %d,\n", color.getRed()));
-            json.append(String.format("        \"g\": %d,\n", color.getGreen()));
-            json.append(String.format("        \"b\": %d\n", color.getBlue()));
-            json.append("      }\n");
-            json.append("    }");
-            
-            if (i < colors.size() - 1) {
-                json.append(",");
+    private static void writeJson(Collection<Color> colors, ExportSink out) throws IOException {
+        out.text("{\n");
+        out.text("  \"colors\": [\n");
+
+        boolean first = true;
+        for (Color color : colors) {
+            if (!first) {
+                out.text(",\n");
             }
-            json.append("\n");
+            first = false;
+            out.text("    {\n");
+            out.text("      \"name\": \"").text(color.getName()).text("\",\n");
+            out.text("      \"hex\": \"").text(color.getHexCode()).text("\",\n");
+            out.text("      \"rgb\": {\n");
+            out.text("        \"r\": ").text(color.getRed()).text(",\n");
+            out.text("        \"g\": ").text(color.getGreen()).text(",\n");
+            out.text("        \"b\": ").text(color.getBlue()).text("\n");
+            out.text("      }\n");
+            out.text("    }");
         }
-        
-        json.append("  ]\n");
-        json.append("}");
-        
-        return json.toString();
+        if (!first) {
+            out.text("\n");
+        }
+
+        out.text("  ]\n");
+        out.text("}");
     }
-    
+
     /**
      * Export to CSV format
      */
-    private static String exportToCsv(List<Color> colors) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Name,Hex,Red,Green,Blue,Luminance\n");
-        
+    private static void writeCsv(Collection<Color> colors, ExportSink out) throws IOException {
+        out.text("Name,Hex,Red,Green,Blue,Luminance\n");
+
         for (Color color : colors) {
-            csv.append(String.format("\"%s\",%s,%d,%d,%d,%.3f\n",
-                color.getName(),
-                color.getHexCode(),
-                color.getRed(),
-                color.getGreen(),
-                color.getBlue(),
-                color.getLuminance()
-            ));
+            out.text("\"").text(color.getName()).text("\",")
+               .text(color.getHexCode()).text(",")
+               .text(color.getRed()).text(",")
+               .text(color.getGreen()).text(",")
+               .text(color.getBlue()).text(",")
+               .text(String.format("%.3f", color.getLuminance())).text("\n");
         }
-        
-        return csv.toString();
     }
-    
+
     /**
      * Export to XML format
      */
-    private static String exportToXml(List<Color> colors) {
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<colors>\n");
-        
+    private static void writeXml(Collection<Color> colors, ExportSink out) throws IOException {
+        out.text("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.text("<colors>\n");
+
         for (Color color : colors) {
-            xml.append("  <color>\n");
-            xml.append(String.format("    <name>%s</name>\n", escapeXml(color.getName())));
-            xml.append(String.format("    <hex>%s</hex>\n", color.getHexCode()));
-            xml.append("    <rgb>\n");
-            xml.append(String.format("      <r>%d</r>\n", color.getRed()));
-            xml.append(String.format("      <g>%d</g>\n", color.getGreen()));
-            xml.append(String.format("      <b>%d</b>\n", color.getBlue()));
-            xml.append("    </rgb>\n");
-            xml.append(String.format("    <luminance>%.3f</luminance>\n", color.getLuminance()));
-            xml.append("  </color>\n");
-        }
-        
-        xml.append("</colors>");
-        return xml.toString();
-    }
-    
+            out.text("  <color>\n");
+            out.text("    <name>").text(escapeXml(color.getName())).text("</name>\n");
+            out.text("    <hex>").text(color.getHexCode()).text("</hex>\n");
+            out.text("    <rgb>\n");
+            out.text("      <r>").text(color.getRed()).text("</r>\n");
+            out.text("      <g>").text(color.getGreen()).text("</g>\n");
+            out.text("      <b>").text(color.getBlue()).text("</b>\n");
+            out.text("    </rgb>\n");
+            out.text("    <luminance>").text(String.format("%.3f", color.getLuminance())).text("</luminance>\n");
+            out.text("  </color>\n");
+        }
+
+        out.text("</colors>");
+    }
+
     /**
      * Export to simple hex list
      */
-    private static String exportToHexList(List<Color> colors) {
-        return colors.stream()
-                    .map(Color::getHexCode)
-                    .collect(Collectors.joining("\n"));
+    private static void writeHexList(Collection<Color> colors, ExportSink out) throws IOException {
+        boolean first = true;
+        for (Color color : colors) {
+            if (!first) {
+                out.text("\n");
+            }
+            first = false;
+            out.text(color.getHexCode());
+        }
     }
-    
+
     /**
      * Export to simple RGB list
      */
-    private static String exportToRgbList(List<Color> colors) {
-        return colors.stream()
-                    .map(color -> String.format("rgb(%d, %d, %d)", 
-                                               color.getRed(), color.getGreen(), color.getBlue()))
-                    .collect(Collectors.joining("\n"));
+    private static void writeRgbList(Collection<Color> colors, ExportSink out) throws IOException {
+        boolean first = true;
+        for (Color color : colors) {
+            if (!first) {
+                out.text("\n");
+            }
+            first = false;
+            out.text("rgb(").text(color.getRed()).text(", ")
+               .text(color.getGreen()).text(", ")
+               .text(color.getBlue()).text(")");
+        }
     }
-    
+
     /**
-     * Export to Adobe Swatch Exchange format (simplified)
+     * Export to Adobe Swatch Exchange (binary, big-endian):
+     * "ASEF", version 1.0, block count, then one color entry block per color
+     * (UTF-16 name with terminator, "RGB " model, three floats, color type)
      */
-    private static String exportToAdobeAse(List<Color> colors) {
+    private static void writeAdobeAse(Collection<Color> colors, ExportSink out) throws IOException {
+        // The header carries the block count, so take one consistent snapshot of references
+        Color[] snapshot = colors.toArray(new Color[0]);
+        out.putAscii("ASEF");
+        out.putShort(1).putShort(0);
+        out.putInt(snapshot.length);
+
+        for (Color color : snapshot) {
+            String name = color.getName();
+            int nameUnits = name.length() + 1; // UTF-16 code units including the terminator
+            out.putShort(0x0001); // color entry
+            out.putInt(2 + nameUnits * 2 + 4 + 3 * 4 + 2);
+            out.putShort(nameUnits);
+            for (int i = 0; i < name.length(); i++) {
+                out.putShort(name.charAt(i));
+            }
+            out.putShort(0);
+            out.putAscii("RGB ");
+            out.putFloat(color.getRed() / 255f)
+               .putFloat(color.getGreen() / 255f)
+               .putFloat(color.getBlue() / 255f);
+            out.putShort(2); // normal (not global or spot)
+        }
+    }
+
+    /**
+     * Readable ASE summary used by the String export
+     */
+    private static String exportToAdobeAseText(List<Color> colors) {
         StringBuilder ase = new StringBuilder();
         ase.append("ASEF\n");
         ase.append("1.0\n");
         ase.append(colors.size()).append("\n");
-        
+
         for (Color color : colors) {
             ase.append(String.format("%s %s RGB %d %d %d\n",
                 color.getName().replaceAll("\\s+", "_"),
@@ -149,92 +247,91 @@ public class ColorExporter {
                 color.getBlue()
             ));
         }
-        
+
         return ase.toString();
     }
-    
+
     /**
      * Export to GIMP Palette format
      */
-    private static String exportToGimpGpl(List<Color> colors) {
-        StringBuilder gpl = new StringBuilder();
-        gpl.append("GIMP Palette\n");
-        gpl.append("Name: Exported Color List\n");
-        gpl.append("Columns: 4\n");
-        gpl.append("#\n");
-        
+    private static void writeGimpGpl(Collection<Color> colors, ExportSink out) throws IOException {
+        out.text("GIMP Palette\n");
+        out.text("Name: Exported Color List\n");
+        out.text("Columns: 4\n");
+        out.text("#\n");
+
         for (Color color : colors) {
-            gpl.append(String.format("%3d %3d %3d %s\n",
-                color.getRed(),
-                color.getGreen(),
-                color.getBlue(),
-                color.getName()
-            ));
+            out.text(pad3(color.getRed())).text(" ")
+               .text(pad3(color.getGreen())).text(" ")
+               .text(pad3(color.getBlue())).text(" ")
+               .text(color.getName()).text("\n");
         }
-        
-        return gpl.toString();
     }
-    
+
     /**
      * Export to CSS variables format
      */
-    private static String exportToCss(List<Color> colors) {
-        StringBuilder css = new StringBuilder();
-        css.append(":root {\n");
-        
-        for (int i = 0; i < colors.size(); i++) {
-            Color color = colors.get(i);
+    private static void writeCss(Collection<Color> colors, ExportSink out) throws IOException {
+        out.text(":root {\n");
+
+        for (Color color : colors) {
             String variableName = sanitizeCssVariableName(color.getName());
-            
-            css.append(String.format("  --color-%s: %s;\n", variableName, color.getHexCode()));
-            css.append(String.format("  --color-%s-rgb: %d, %d, %d;\n", 
-                variableName, color.getRed(), color.getGreen(), color.getBlue()));
+            out.text("  --color-").text(variableName).text(": ").text(color.getHexCode()).text(";\n");
+            out.text("  --color-").text(variableName).text("-rgb: ")
+               .text(color.getRed()).text(", ")
+               .text(color.getGreen()).text(", ")
+               .text(color.getBlue()).text(";\n");
         }
-        
-        css.append("}");
-        return css.toString();
+
+        out.text("}");
     }
-    
+
     /**
      * Export to SCSS variables format
      */
-    private static String exportToScss(List<Color> colors) {
-        StringBuilder scss = new StringBuilder();
-        scss.append("// Color Variables\n");
-        
+    private static void writeScss(Collection<Color> colors, ExportSink out) throws IOException {
+        out.text("// Color Variables\n");
+
         for (Color color : colors) {
             String variableName = sanitizeCssVariableName(color.getName());
-            scss.append(String.format("$color-%s: %s;\n", variableName, color.getHexCode()));
-        }
-        
-        scss.append("\n// Color Map\n");
-        scss.append("$colors: (\n");
-        
-        for (int i = 0; i < colors.size(); i++) {
-            Color color = colors.get(i);
-            String variableName = sanitizeCssVariableName(color.getName());
-            scss.append(String.format("  '%s': %s", variableName, color.getHexCode()));
-            
-            if (i < colors.size() - 1) {
-                scss.append(",");
+            out.text("$color-").text(variableName).text(": ").text(color.getHexCode()).text(";\n");
+        }
+
+        out.text("\n// Color Map\n");
+        out.text("$colors: (\n");
+
+        boolean first = true;
+        for (Color color : colors) {
+            if (!first) {
+                out.text(",\n");
             }
-            scss.append("\n");
+            first = false;
+            String variableName = sanitizeCssVariableName(color.getName());
+            out.text("  '").text(variableName).text("': ").text(color.getHexCode());
+        }
+        if (!first) {
+            out.text("\n");
         }
-        
-        scss.append(");");
-        return scss.toString();
+
+        out.text(");");
     }
-    
+
+    // Same as %3d
+    private static String pad3(int value) {
+        if (value >= 100) {
+            return Integer.toString(value);
+        }
+        return value >= 10 ? " " + value : "  " + value;
+    }
+
     /**
      * Sanitize color name for CSS variable usage
      */
     private static String sanitizeCssVariableName(String name) {
-        return name.toLowerCase()
-                  .replaceAll("[^a-z0-9]", "-")
-                  .replaceAll("-+", "-")
-                  .replaceAll("^-|-$", "");
+        String dashed = NON_ALPHANUMERIC.matcher(name.toLowerCase()).replaceAll("-");
+        return EDGE_DASHES.matcher(DASH_RUNS.matcher(dashed).replaceAll("-")).replaceAll("");
     }
-    
+
     /**
      * Escape XML special characters
      */
@@ -245,4 +342,4 @@ public class ColorExporter {
                   .replace("\"", "&quot;")
                   .replace("'", "&apos;");
     }
-}
\ No newline at end of file
+}
@@ -18,9 +18,11 @@ public class ColorList {
     private AccessLevel accessLevel;
     
     // Thread-safe collections
-    private final List<Color> colors;
+    private final ColorStorage colors;
     private final Set<String> sharedUsers;
     private final Map<String, Permission> userPermissions;
+    private final LabColorIndex<Color> similarityIndex;
+    private final List<ColorListObserver> observers;
     
     public enum AccessLevel {
         PRIVATE,    // Only owner can access
@@ -35,6 +37,13 @@ public class ColorList {
     }
     
     public ColorList(String listId, String name, String ownerId) {
+        this(listId, name, ownerId, new InMemoryColorStorage());
+    }
+    
+    /**
+     * Create a list over a given storage; colors already in the storage are indexed
+     */
+    public ColorList(String listId, String name, String ownerId, ColorStorage storage) {
         this.listId = listId;
         this.name = name;
         this.ownerId = ownerId;
@@ -43,9 +52,22 @@ public class ColorList {
         this.description = "";
         this.accessLevel = AccessLevel.PRIVATE;
         
-        this.colors = new CopyOnWriteArrayList<>();
+        this.colors = storage;
         this.sharedUsers = new HashSet<>();
         this.userPermissions = new HashMap<>();
+        this.similarityIndex = new LabColorIndex<>();
+        for (Color color : storage.snapshot()) {
+            similarityIndex.add(color, color);
+        }
+        this.observers = new CopyOnWriteArrayList<>();
+    }
+    
+    public void addObserver(ColorListObserver observer) {
+        observers.add(observer);
+    }
+    
+    public void removeObserver(ColorListObserver observer) {
+        observers.remove(observer);
     }
     
     /**
@@ -56,12 +78,13 @@ public class ColorList {
             return false;
         }
         
-        if (colors.contains(color)) {
+        if (!colors.add(color)) {
             return false; // Color already exists
         }
         
-        colors.add(color);
+        similarityIndex.add(color, color);
         updateTimestamp();
+        notifyColorAdded(color);
         return true;
     }
     
@@ -75,7 +98,9 @@ public class ColorList {
         
         boolean removed = colors.remove(color);
         if (removed) {
+            similarityIndex.remove(color, color);
             updateTimestamp();
+            notifyColorRemoved(color);
         }
         return removed;
     }
@@ -92,8 +117,10 @@ public class ColorList {
             return false;
         }
         
-        colors.remove(index);
+        Color removed = colors.remove(index);
+        similarityIndex.remove(removed, removed);
         updateTimestamp();
+        notifyColorRemoved(removed);
         return true;
     }
     
@@ -105,7 +132,7 @@ public class ColorList {
             return Collections.emptyList();
         }
         
-        return new ArrayList<>(colors);
+        return colors.snapshot();
     }
     
     /**
@@ -121,9 +148,11 @@ public class ColorList {
         
         if (accessLevel == AccessLevel.PRIVATE && !sharedUsers.isEmpty()) {
             accessLevel = AccessLevel.SHARED;
+            notifyAccessLevelChanged(AccessLevel.PRIVATE);
         }
         
         updateTimestamp();
+        notifyPermissionChanged(userId, permission);
         return true;
     }
     
@@ -140,7 +169,9 @@ public class ColorList {
         }
         
         sharedUsers.remove(userId);
-        userPermissions.remove(userId);
+        if (userPermissions.remove(userId) != null) {
+            notifyPermissionChanged(userId, null);
+        }
         updateTimestamp();
         return true;
     }
@@ -153,8 +184,12 @@ public class ColorList {
             return false;
         }
         
+        AccessLevel previousLevel = this.accessLevel;
         this.accessLevel = newLevel;
         updateTimestamp();
+        if (previousLevel != newLevel) {
+            notifyAccessLevelChanged(previousLevel);
+        }
         return true;
     }
     
@@ -168,6 +203,7 @@ public class ColorList {
         
         this.description = newDescription;
         updateTimestamp();
+        notifyDescriptionChanged();
         return true;
     }
     
@@ -212,7 +248,7 @@ public class ColorList {
             return null;
         }
         
-        return new ColorStatistics(colors);
+        return new ColorStatistics(colors.snapshot());
     }
     
     /**
@@ -223,25 +259,41 @@ public class ColorList {
             return Collections.emptyList();
         }
         
-        Color baseColor = colors.get(0); // Use first color as base
+        Color baseColor = colors.first(); // Use first color as base
+        if (baseColor == null) {
+            return Collections.emptyList();
+        }
         return PaletteGenerator.generatePalette(baseColor, type);
     }
     
     /**
-     * Find similar colors
+     * Find colors within a perceptual distance (Delta E) of the target, closest first
      */
     public List<Color> findSimilarColors(Color targetColor, String userId, double threshold) {
         if (!hasPermission(userId, Permission.VIEW)) {
             return Collections.emptyList();
         }
         
-        return colors.stream()
-                    .filter(color -> ColorUtils.calculateColorDistance(color, targetColor) <= threshold)
-                    .sorted((c1, c2) -> Double.compare(
-                        ColorUtils.calculateColorDistance(c1, targetColor),
-                        ColorUtils.calculateColorDistance(c2, targetColor)
-                    ))
-                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        List<Color> similar = new ArrayList<>();
+        for (LabColorIndex.Match<Color> match : similarityIndex.withinRadius(targetColor, threshold)) {
+            similar.add(match.value);
+        }
+        return similar;
+    }
+    
+    /**
+     * Find the k perceptually closest colors to the target
+     */
+    public List<Color> findNearestColors(Color targetColor, String userId, int k) {
+        if (!hasPermission(userId, Permission.VIEW)) {
+            return Collections.emptyList();
+        }
+        
+        List<Color> nearest = new ArrayList<>();
+        for (LabColorIndex.Match<Color> match : similarityIndex.nearest(targetColor, k)) {
+            nearest.add(match.value);
+        }
+        return nearest;
     }
     
     /**
@@ -252,13 +304,43 @@ public class ColorList {
             return null;
         }
         
-        return ColorExporter.export(colors, format);
+        return ColorExporter.export(colors.snapshot(), format);
     }
     
     private void updateTimestamp() {
         this.updatedAt = LocalDateTime.now();
     }
     
+    private void notifyColorAdded(Color color) {
+        for (ColorListObserver observer : observers) {
+            observer.onColorAdded(this, color);
+        }
+    }
+    
+    private void notifyColorRemoved(Color color) {
+        for (ColorListObserver observer : observers) {
+            observer.onColorRemoved(this, color);
+        }
+    }
+    
+    private void notifyAccessLevelChanged(AccessLevel previousLevel) {
+        for (ColorListObserver observer : observers) {
+            observer.onAccessLevelChanged(this, previousLevel);
+        }
+    }
+    
+    private void notifyDescriptionChanged() {
+        for (ColorListObserver observer : observers) {
+            observer.onDescriptionChanged(this);
+        }
+    }
+    
+    private void notifyPermissionChanged(String userId, Permission permission) {
+        for (ColorListObserver observer : observers) {
+            observer.onPermissionChanged(this, userId, permission);
+        }
+    }
+    
     // Getters
     public String getListId() { return listId; }
     public String getName() { return name; }
@@ -268,6 +350,7 @@ public class ColorList {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public int getColorCount() { return colors.size(); }
+    public ColorStorage getStorage() { return colors; }
     
     public Set<String> getSharedUsers(String requesterId) {
         if (!hasPermission(requesterId, Permission.ADMIN)) {
@@ -0,0 +1,263 @@
+package lld.colorlist;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Change feed for collaborators of shared lists.
+ * Every mutation of a registered list is appended, under the list's lock, to that list's
+ * {@link ColorListChangeLog} with the next version. Each subscription remembers the last version
+ * it received; a periodic flush sends everything newer in batches over the transport, so live
+ * updates and resuming from an older version are the same operation. Clients start from
+ * {@link #snapshot} (colors plus the matching version) and apply deltas on top.
+ */
+public class ColorListChangeFeed implements ColorListObserver {
+    private static final int DEFAULT_LOG_CAPACITY = 4096;
+    private static final int DEFAULT_MAX_BATCH = 256;
+
+    private final ChangeFeedTransport transport;
+    private final int logCapacity;
+    private final int maxBatch;
+    private final Map<String, ColorListChangeLog> logs = new ConcurrentHashMap<>();
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private long batchesSent;
+    private long deltasSent;
+
+    public ColorListChangeFeed(ChangeFeedTransport transport, long flushIntervalMillis) {
+        this(transport, flushIntervalMillis, DEFAULT_LOG_CAPACITY, DEFAULT_MAX_BATCH);
+    }
+
+    public ColorListChangeFeed(ChangeFeedTransport transport, long flushIntervalMillis, int logCapacity, int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.transport = transport;
+        this.logCapacity = logCapacity;
+        this.maxBatch = maxBatch;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "color-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start recording a list's changes
+     */
+    public void register(ColorList list) {
+        logs.computeIfAbsent(list.getListId(), id -> new ColorListChangeLog(id, logCapacity));
+        list.addObserver(this);
+    }
+
+    /**
+     * Stop recording a list and close its subscriptions
+     */
+    public void unregister(ColorList list) {
+        list.removeObserver(this);
+        logs.remove(list.getListId());
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.list == list) {
+                close(subscription);
+            }
+        }
+    }
+
+    /**
+     * Subscribe to a list's changes after fromVersion (0 for everything retained, or the version
+     * of a snapshot). Subscribing again with the same subscriberId replaces the subscription.
+     *
+     * @return false if the list is not registered or the user cannot view it
+     */
+    public boolean subscribe(String subscriberId, ColorList list, String userId, long fromVersion) {
+        if (!logs.containsKey(list.getListId()) || !list.hasPermission(userId, ColorList.Permission.VIEW)) {
+            return false;
+        }
+        subscriptions.put(subscriberId, new Subscription(subscriberId, list, userId, fromVersion));
+        return true;
+    }
+
+    public void unsubscribe(String subscriberId) {
+        Subscription subscription = subscriptions.get(subscriberId);
+        if (subscription != null) {
+            close(subscription);
+        }
+    }
+
+    /**
+     * The list's colors together with the version they reflect, or null without view access
+     */
+    public ListSnapshot snapshot(ColorList list, String userId) {
+        ColorListChangeLog log = logs.get(list.getListId());
+        if (log == null || !list.hasPermission(userId, ColorList.Permission.VIEW)) {
+            return null;
+        }
+        // Mutations append to the log while holding the list's lock, so this pair is consistent
+        synchronized (list) {
+            return new ListSnapshot(list.getListId(), log.getLatestVersion(), list.getColors(userId),
+                    list.getDescription(), list.getAccessLevel());
+        }
+    }
+
+    public long getLatestVersion(String listId) {
+        ColorListChangeLog log = logs.get(listId);
+        return log == null ? 0 : log.getLatestVersion();
+    }
+
+    /**
+     * Deliver everything pending now (used by tests, demos and shutdown)
+     */
+    public synchronized void flush() {
+        for (Subscription subscription : subscriptions.values()) {
+            deliver(subscription);
+        }
+    }
+
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public void onColorAdded(ColorList list, Color color) {
+        append(list, version -> ColorListDelta.colorAdded(list.getListId(), version, color));
+    }
+
+    @Override
+    public void onColorRemoved(ColorList list, Color color) {
+        append(list, version -> ColorListDelta.colorRemoved(list.getListId(), version, color));
+    }
+
+    @Override
+    public void onAccessLevelChanged(ColorList list, ColorList.AccessLevel previousLevel) {
+        append(list, version -> ColorListDelta.accessLevelChanged(list.getListId(), version, list.getAccessLevel()));
+    }
+
+    @Override
+    public void onDescriptionChanged(ColorList list) {
+        append(list, version -> ColorListDelta.descriptionChanged(list.getListId(), version, list.getDescription()));
+    }
+
+    @Override
+    public void onPermissionChanged(ColorList list, String userId, ColorList.Permission permission) {
+        append(list, version -> ColorListDelta.permissionChanged(list.getListId(), version, userId, permission));
+    }
+
+    public synchronized FeedStats getStats() {
+        return new FeedStats(logs.size(), subscriptions.size(), batchesSent, deltasSent);
+    }
+
+    private void append(ColorList list, LongFunction<ColorListDelta> delta) {
+        ColorListChangeLog log = logs.get(list.getListId());
+        if (log != null) {
+            log.append(delta);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Change feed flush failed: " + e.getMessage());
+        }
+    }
+
+    private void deliver(Subscription subscription) {
+        ColorListChangeLog log = logs.get(subscription.list.getListId());
+        if (log == null || !subscription.list.hasPermission(subscription.userId, ColorList.Permission.VIEW)) {
+            close(subscription);
+            return;
+        }
+        while (true) {
+            long from = subscription.lastVersion;
+            List<ColorListDelta> deltas = from > log.getLatestVersion() ? null : log.since(from, maxBatch);
+            if (deltas == null) {
+                // Too far behind (or ahead of a restarted log): the client reloads and resubscribes
+                if (transport.send(ChangeBatch.resync(subscription.subscriberId, log.getListId(), from,
+                        log.getLatestVersion()))) {
+                    batchesSent++;
+                    close(subscription);
+                }
+                return;
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            if (!transport.send(ChangeBatch.of(subscription.subscriberId, log.getListId(), from, deltas))) {
+                return; // Keep the position and retry on the next flush
+            }
+            subscription.lastVersion = deltas.get(deltas.size() - 1).version;
+            batchesSent++;
+            deltasSent += deltas.size();
+        }
+    }
+
+    private void close(Subscription subscription) {
+        if (subscriptions.remove(subscription.subscriberId, subscription)) {
+            transport.onSubscriptionClosed(subscription.subscriberId);
+        }
+    }
+
+    private static class Subscription {
+        private final String subscriberId;
+        private final ColorList list;
+        private final String userId;
+        private volatile long lastVersion;
+
+        Subscription(String subscriberId, ColorList list, String userId, long lastVersion) {
+            this.subscriberId = subscriberId;
+            this.list = list;
+            this.userId = userId;
+            this.lastVersion = lastVersion;
+        }
+    }
+
+    public static class ListSnapshot {
+        public final String listId;
+        public final long version;
+        public final List<Color> colors;
+        public final String description;
+        public final ColorList.AccessLevel accessLevel;
+
+        public ListSnapshot(String listId, long version, List<Color> colors, String description,
+                            ColorList.AccessLevel accessLevel) {
+            this.listId = listId;
+            this.version = version;
+            this.colors = colors;
+            this.description = description;
+            this.accessLevel = accessLevel;
+        }
+    }
+
+    public static class FeedStats {
+        public final int lists;
+        public final int subscriptions;
+        public final long batchesSent;
+        public final long deltasSent;
+
+        public FeedStats(int lists, int subscriptions, long batchesSent, long deltasSent) {
+            this.lists = lists;
+            this.subscriptions = subscriptions;
+            this.batchesSent = batchesSent;
+            this.deltasSent = deltasSent;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FeedStats{lists=%d, subscriptions=%d, batches=%d, deltas=%d}",
+                    lists, subscriptions, batchesSent, deltasSent);
+        }
+    }
+}
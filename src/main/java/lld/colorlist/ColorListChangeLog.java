@@ -0,0 +1,63 @@
+package lld.colorlist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded, versioned log of one list's changes.
+ * The newest {@code capacity} deltas are kept in a ring buffer; a reader that falls
+ * further behind than that has to reload the list instead of replaying deltas.
+ */
+public class ColorListChangeLog {
+    private final String listId;
+    private final ColorListDelta[] ring;
+    private long latestVersion; // 0 before the first change
+
+    public ColorListChangeLog(String listId, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Log capacity must be positive");
+        }
+        this.listId = listId;
+        this.ring = new ColorListDelta[capacity];
+    }
+
+    /**
+     * Append the delta built for the next version
+     */
+    public synchronized ColorListDelta append(LongFunction<ColorListDelta> deltaForVersion) {
+        ColorListDelta delta = deltaForVersion.apply(latestVersion + 1);
+        ring[(int) (delta.version % ring.length)] = delta;
+        latestVersion = delta.version;
+        return delta;
+    }
+
+    /**
+     * Up to maxDeltas changes newer than afterVersion, oldest first
+     *
+     * @return the deltas (empty when up to date), or null when afterVersion is no longer retained
+     */
+    public synchronized List<ColorListDelta> since(long afterVersion, int maxDeltas) {
+        if (afterVersion >= latestVersion) {
+            return Collections.emptyList();
+        }
+        if (afterVersion < getOldestVersion() - 1 || afterVersion < 0) {
+            return null;
+        }
+        long last = Math.min(latestVersion, afterVersion + maxDeltas);
+        List<ColorListDelta> deltas = new ArrayList<>((int) (last - afterVersion));
+        for (long version = afterVersion + 1; version <= last; version++) {
+            deltas.add(ring[(int) (version % ring.length)]);
+        }
+        return deltas;
+    }
+
+    public synchronized long getLatestVersion() { return latestVersion; }
+
+    public synchronized long getOldestVersion() {
+        return Math.max(1, latestVersion - ring.length + 1);
+    }
+
+    public String getListId() { return listId; }
+}
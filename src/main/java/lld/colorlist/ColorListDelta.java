@@ -0,0 +1,77 @@
+package lld.colorlist;
+
+import java.time.LocalDateTime;
+
+/**
+ * One versioned change to a color list, as recorded in its {@link ColorListChangeLog}.
+ * Versions are per list, start at 1 and increase by one per change.
+ * Only the fields relevant to the change type are set.
+ */
+public class ColorListDelta {
+    public enum Type {
+        COLOR_ADDED,
+        COLOR_REMOVED,
+        ACCESS_LEVEL_CHANGED,
+        DESCRIPTION_CHANGED,
+        PERMISSION_CHANGED
+    }
+
+    public final String listId;
+    public final long version;
+    public final Type type;
+    public final Color color;                       // COLOR_ADDED, COLOR_REMOVED
+    public final ColorList.AccessLevel accessLevel; // ACCESS_LEVEL_CHANGED (new level)
+    public final String description;                // DESCRIPTION_CHANGED
+    public final String userId;                     // PERMISSION_CHANGED
+    public final ColorList.Permission permission;   // PERMISSION_CHANGED, null when revoked
+    public final LocalDateTime timestamp;
+
+    private ColorListDelta(String listId, long version, Type type, Color color, ColorList.AccessLevel accessLevel,
+                           String description, String userId, ColorList.Permission permission) {
+        this.listId = listId;
+        this.version = version;
+        this.type = type;
+        this.color = color;
+        this.accessLevel = accessLevel;
+        this.description = description;
+        this.userId = userId;
+        this.permission = permission;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    static ColorListDelta colorAdded(String listId, long version, Color color) {
+        return new ColorListDelta(listId, version, Type.COLOR_ADDED, color, null, null, null, null);
+    }
+
+    static ColorListDelta colorRemoved(String listId, long version, Color color) {
+        return new ColorListDelta(listId, version, Type.COLOR_REMOVED, color, null, null, null, null);
+    }
+
+    static ColorListDelta accessLevelChanged(String listId, long version, ColorList.AccessLevel accessLevel) {
+        return new ColorListDelta(listId, version, Type.ACCESS_LEVEL_CHANGED, null, accessLevel, null, null, null);
+    }
+
+    static ColorListDelta descriptionChanged(String listId, long version, String description) {
+        return new ColorListDelta(listId, version, Type.DESCRIPTION_CHANGED, null, null, description, null, null);
+    }
+
+    static ColorListDelta permissionChanged(String listId, long version, String userId,
+                                            ColorList.Permission permission) {
+        return new ColorListDelta(listId, version, Type.PERMISSION_CHANGED, null, null, null, userId, permission);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case COLOR_ADDED:
+            case COLOR_REMOVED:
+                return String.format("Delta{v%d %s %s}", version, type, color);
+            case ACCESS_LEVEL_CHANGED:
+                return String.format("Delta{v%d %s %s}", version, type, accessLevel);
+            case PERMISSION_CHANGED:
+                return String.format("Delta{v%d %s %s=%s}", version, type, userId, permission);
+            default:
+                return String.format("Delta{v%d %s}", version, type);
+        }
+    }
+}
@@ -21,6 +21,7 @@ public class ColorListDemo {
         // Interactive mode
         runInteractiveMode();
         
+        service.shutdown();
         System.out.println("Demo completed!");
     }
     
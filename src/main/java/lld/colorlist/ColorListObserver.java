@@ -0,0 +1,20 @@
+package lld.colorlist;
+
+/**
+ * Observer for changes to a color list's contents and visibility.
+ * Callbacks run on the mutating thread while the list is locked, so they see changes in order.
+ */
+public interface ColorListObserver {
+    default void onColorAdded(ColorList list, Color color) {}
+
+    default void onColorRemoved(ColorList list, Color color) {}
+
+    default void onAccessLevelChanged(ColorList list, ColorList.AccessLevel previousLevel) {}
+
+    default void onDescriptionChanged(ColorList list) {}
+
+    /**
+     * @param permission the granted permission, or null when access was revoked
+     */
+    default void onPermissionChanged(ColorList list, String userId, ColorList.Permission permission) {}
+}
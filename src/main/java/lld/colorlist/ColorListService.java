@@ -1,5 +1,9 @@
 package lld.colorlist;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -9,15 +13,43 @@ import java.util.stream.Collectors;
  * Implements business logic and provides API endpoints
  * Thread-safe implementation for concurrent operations
  */
-public class ColorListService {
+public class ColorListService implements ColorListObserver {
+    private static final long CHANGE_FLUSH_INTERVAL_MS = 50;
+    
     private final Map<String, ColorList> colorLists;
     private final Map<String, Set<String>> userLists; // userId -> listIds
     private final Map<String, User> users;
+    private final LabColorIndex<ColorSearchResult> publicColorIndex; // colors of all PUBLIC lists
+    private final ColorPopularityIndex popularity; // PUBLIC lists containing each color
+    private final ColorSearchIndex searchIndex; // every (list, color) pair
+    private final PaletteBatchGenerator paletteGenerator; // shared palette cache
+    private final ColorListChangeFeed changeFeed; // versioned deltas for collaborators
+    private final ChangeFeedTransport changeTransport;
+    private final Path storageRoot; // null keeps colors in memory
     
     public ColorListService() {
+        this(null);
+    }
+    
+    /**
+     * Persist each list's colors in its own segment directory under storageRoot. Change batches
+     * go to an {@link InProcessChangeTransport}, see {@link #getChangeTransport}.
+     */
+    public ColorListService(Path storageRoot) {
+        this(storageRoot, new InProcessChangeTransport());
+    }
+    
+    public ColorListService(Path storageRoot, ChangeFeedTransport changeTransport) {
+        this.storageRoot = storageRoot;
+        this.changeTransport = changeTransport;
+        this.changeFeed = new ColorListChangeFeed(changeTransport, CHANGE_FLUSH_INTERVAL_MS);
         this.colorLists = new ConcurrentHashMap<>();
         this.userLists = new ConcurrentHashMap<>();
         this.users = new ConcurrentHashMap<>();
+        this.publicColorIndex = new LabColorIndex<>();
+        this.popularity = new ColorPopularityIndex();
+        this.searchIndex = new ColorSearchIndex();
+        this.paletteGenerator = new PaletteBatchGenerator();
     }
     
     /**
@@ -44,7 +76,10 @@ public class ColorListService {
         }
         
         String listId = generateListId();
-        ColorList colorList = new ColorList(listId, name, ownerId);
+        ColorList colorList = new ColorList(listId, name, ownerId, openStorage(listId));
+        colorList.addObserver(this);
+        changeFeed.register(colorList);
+        searchIndex.grantAccess(ownerId, colorList);
         
         if (description != null && !description.trim().isEmpty()) {
             colorList.updateDescription(description, ownerId);
@@ -55,7 +90,39 @@ public class ColorListService {
         
         return listId;
     }
-    
+
+    /**
+     * Reopen a list persisted under storageRoot by an earlier service, e.g. after a restart.
+     * Only colors are persisted, so name and owner are supplied again; the list comes back
+     * private with no description or sharing.
+     *
+     * @return false if the list is already open or nothing is stored under its id
+     */
+    public boolean reopenColorList(String listId, String name, String ownerId) {
+        if (storageRoot == null) {
+            throw new IllegalStateException("Lists are kept in memory and cannot be reopened");
+        }
+        if (!users.containsKey(ownerId)) {
+            throw new IllegalArgumentException("User not found: " + ownerId);
+        }
+        if (colorLists.containsKey(listId) || !Files.isDirectory(storageRoot.resolve(listId))) {
+            return false;
+        }
+
+        ColorList colorList = new ColorList(listId, name, ownerId, openStorage(listId));
+        colorList.addObserver(this);
+        changeFeed.register(colorList);
+        searchIndex.grantAccess(ownerId, colorList);
+        for (Color color : colorList.getColors(ownerId)) {
+            searchIndex.addColor(colorList, color);
+        }
+
+        colorLists.put(listId, colorList);
+        userLists.get(ownerId).add(listId);
+
+        return true;
+    }
+
     /**
      * Add color to a list
      */
@@ -93,6 +160,7 @@ public class ColorListService {
         boolean shared = colorList.shareWith(targetUserId, permission, requesterId);
         if (shared) {
             userLists.get(targetUserId).add(listId);
+            searchIndex.grantAccess(targetUserId, colorList);
         }
         
         return shared;
@@ -135,50 +203,105 @@ public class ColorListService {
      * Search colors across accessible lists
      */
     public List<ColorSearchResult> searchColors(String userId, String query, SearchCriteria criteria) {
-        List<ColorSearchResult> results = new ArrayList<>();
-        Set<String> userListIds = userLists.get(userId);
-        
-        if (userListIds == null) {
-            return results;
+        return searchColors(userId, ColorQuery.text(query, criteria));
+    }
+    
+    /**
+     * Search colors across accessible lists with text and attribute filters
+     */
+    public List<ColorSearchResult> searchColors(String userId, ColorQuery query) {
+        return searchIndex.search(userId, query);
+    }
+    
+    /**
+     * Find colors in public lists within a perceptual distance (Delta E) of the target, closest first
+     */
+    public List<ColorSearchResult> findSimilarPublicColors(Color targetColor, double maxDistance) {
+        return publicColorIndex.withinRadius(targetColor, maxDistance).stream()
+                              .map(match -> match.value)
+                              .collect(Collectors.toList());
+    }
+    
+    /**
+     * Find the k public-list colors perceptually closest to the target
+     */
+    public List<ColorSearchResult> findNearestPublicColors(Color targetColor, int k) {
+        return publicColorIndex.nearest(targetColor, k).stream()
+                              .map(match -> match.value)
+                              .collect(Collectors.toList());
+    }
+    
+    /**
+     * Generate the requested palette types for every color of a list, in list order
+     */
+    public Map<Color, Map<PaletteType, List<Color>>> generatePalettes(String listId, String userId,
+                                                                       Set<PaletteType> types) {
+        ColorList colorList = getColorList(listId, userId);
+        if (colorList == null) {
+            return Collections.emptyMap();
         }
         
-        for (String listId : userListIds) {
-            ColorList colorList = colorLists.get(listId);
-            if (colorList == null || !colorList.hasPermission(userId, ColorList.Permission.VIEW)) {
-                continue;
-            }
-            
-            List<Color> colors = colorList.getColors(userId);
-            List<Color> matchingColors = filterColors(colors, query, criteria);
-            
-            for (Color color : matchingColors) {
-                results.add(new ColorSearchResult(color, colorList.getListId(), colorList.getName()));
-            }
+        List<Color> baseColors = colorList.getColors(userId);
+        List<Map<PaletteType, List<Color>>> palettes = paletteGenerator.generateBatch(baseColors, types);
+        Map<Color, Map<PaletteType, List<Color>>> result = new LinkedHashMap<>();
+        for (int i = 0; i < baseColors.size(); i++) {
+            result.put(baseColors.get(i), palettes.get(i));
         }
-        
-        return results;
+        return result;
     }
     
     /**
-     * Get popular colors across all public lists
+     * Receive a list's changes after fromVersion through the change transport
      */
-    public List<Color> getPopularColors(int limit) {
-        Map<Color, Integer> colorCounts = new HashMap<>();
-        
+    public boolean subscribeToChanges(String listId, String userId, String subscriberId, long fromVersion) {
+        ColorList colorList = colorLists.get(listId);
+        return colorList != null && changeFeed.subscribe(subscriberId, colorList, userId, fromVersion);
+    }
+    
+    /**
+     * Colors of a list with the change-feed version they reflect, to resume from
+     */
+    public ColorListChangeFeed.ListSnapshot getListSnapshot(String listId, String userId) {
+        ColorList colorList = colorLists.get(listId);
+        return colorList == null ? null : changeFeed.snapshot(colorList, userId);
+    }
+    
+    public ColorListChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+    
+    /**
+     * Where subscribers' change batches are delivered (an {@link InProcessChangeTransport} unless
+     * one was passed in)
+     */
+    public ChangeFeedTransport getChangeTransport() {
+        return changeTransport;
+    }
+    
+    /**
+     * Stop the change feed's flusher (delivering what is pending) and close every list's storage
+     */
+    public void shutdown() {
+        changeFeed.shutdown();
         for (ColorList colorList : colorLists.values()) {
-            if (colorList.getAccessLevel() == ColorList.AccessLevel.PUBLIC) {
-                List<Color> colors = colorList.getColors(colorList.getOwnerId());
-                for (Color color : colors) {
-                    colorCounts.put(color, colorCounts.getOrDefault(color, 0) + 1);
-                }
+            try {
+                colorList.getStorage().close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close storage of list " + colorList.getListId(), e);
             }
         }
-        
-        return colorCounts.entrySet().stream()
-                         .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                         .limit(limit)
-                         .map(Map.Entry::getKey)
-                         .collect(Collectors.toList());
+    }
+    
+    public PaletteBatchGenerator getPaletteGenerator() {
+        return paletteGenerator;
+    }
+    
+    /**
+     * Get popular colors across all public lists
+     */
+    public List<Color> getPopularColors(int limit) {
+        // Counts are maintained incrementally through ColorListObserver callbacks
+        return popularity.top(limit);
     }
     
     /**
@@ -255,40 +378,74 @@ public class ColorListService {
         }
         
         colorLists.remove(listId);
+        colorList.removeObserver(this);
+        changeFeed.unregister(colorList);
+        searchIndex.removeList(colorList);
+        if (colorList.getAccessLevel() == ColorList.AccessLevel.PUBLIC) {
+            unindexPublicColors(colorList);
+        }
+        try {
+            colorList.getStorage().destroy();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete storage of list " + listId, e);
+        }
         return true;
     }
     
-    /**
-     * Filter colors based on search criteria
-     */
-    private List<Color> filterColors(List<Color> colors, String query, SearchCriteria criteria) {
-        return colors.stream()
-                    .filter(color -> matchesQuery(color, query, criteria))
-                    .collect(Collectors.toList());
+    private ColorStorage openStorage(String listId) {
+        if (storageRoot == null) {
+            return new InMemoryColorStorage();
+        }
+        try {
+            return SegmentColorStorage.open(storageRoot.resolve(listId), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open storage for list " + listId, e);
+        }
     }
     
-    /**
-     * Check if color matches search query
-     */
-    private boolean matchesQuery(Color color, String query, SearchCriteria criteria) {
-        if (query == null || query.trim().isEmpty()) {
-            return true;
+    @Override
+    public void onColorAdded(ColorList list, Color color) {
+        searchIndex.addColor(list, color);
+        if (list.getAccessLevel() == ColorList.AccessLevel.PUBLIC) {
+            indexPublicColor(list, color);
         }
-        
-        String lowerQuery = query.toLowerCase();
-        
-        switch (criteria) {
-            case NAME:
-                return color.getName().toLowerCase().contains(lowerQuery);
-            case HEX:
-                return color.getHexCode().toLowerCase().contains(lowerQuery);
-            case FAMILY:
-                return ColorUtils.getColorFamily(color).toLowerCase().contains(lowerQuery);
-            case ALL:
-            default:
-                return color.getName().toLowerCase().contains(lowerQuery) ||
-                       color.getHexCode().toLowerCase().contains(lowerQuery) ||
-                       ColorUtils.getColorFamily(color).toLowerCase().contains(lowerQuery);
+    }
+    
+    @Override
+    public void onColorRemoved(ColorList list, Color color) {
+        searchIndex.removeColor(list, color);
+        if (list.getAccessLevel() == ColorList.AccessLevel.PUBLIC) {
+            unindexPublicColor(list, color);
+        }
+    }
+    
+    @Override
+    public void onAccessLevelChanged(ColorList list, ColorList.AccessLevel previousLevel) {
+        boolean wasPublic = previousLevel == ColorList.AccessLevel.PUBLIC;
+        boolean isPublic = list.getAccessLevel() == ColorList.AccessLevel.PUBLIC;
+        if (isPublic && !wasPublic) {
+            for (Color color : list.getColors(list.getOwnerId())) {
+                indexPublicColor(list, color);
+            }
+        } else if (wasPublic && !isPublic) {
+            unindexPublicColors(list);
+        }
+    }
+    
+    private void unindexPublicColors(ColorList list) {
+        for (Color color : list.getColors(list.getOwnerId())) {
+            unindexPublicColor(list, color);
+        }
+    }
+    
+    private void indexPublicColor(ColorList list, Color color) {
+        publicColorIndex.add(color, new ColorSearchResult(color, list.getListId(), list.getName()));
+        popularity.increment(color);
+    }
+    
+    private void unindexPublicColor(ColorList list, Color color) {
+        if (publicColorIndex.remove(color, new ColorSearchResult(color, list.getListId(), list.getName()))) {
+            popularity.decrement(color);
         }
     }
     
@@ -335,6 +492,24 @@ public class ColorListService {
             this.listId = listId;
             this.listName = listName;
         }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            ColorSearchResult other = (ColorSearchResult) obj;
+            return color.equals(other.color) && listId.equals(other.listId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(color, listId);
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s in %s", color, listName);
+        }
     }
     
     public enum SearchCriteria {
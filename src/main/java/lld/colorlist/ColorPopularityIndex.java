@@ -0,0 +1,104 @@
+package lld.colorlist;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Incrementally maintained "how many public lists contain this color" counts.
+ * Colors are keyed by their packed RGB int. Updates to one color are serialized by a
+ * lock stripe chosen from that key, so different colors update in parallel, and each
+ * update moves the color's entry inside a concurrent skip list ordered by count.
+ * Reading the top K is a walk over the first K entries of that list.
+ */
+public class ColorPopularityIndex {
+    private static final int STRIPES = 64; // power of two
+
+    private final Object[] stripes = new Object[STRIPES];
+    private final Map<Integer, RankEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<RankEntry> ranking = new ConcurrentSkipListSet<>();
+
+    public ColorPopularityIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public void increment(Color color) {
+        update(color, 1);
+    }
+
+    public void decrement(Color color) {
+        update(color, -1);
+    }
+
+    /**
+     * Most popular colors first; ties broken by RGB value for a stable order
+     */
+    public List<Color> top(int k) {
+        List<Color> result = new ArrayList<>(Math.max(0, Math.min(k, 64)));
+        Iterator<RankEntry> iterator = ranking.iterator();
+        while (result.size() < k && iterator.hasNext()) {
+            result.add(iterator.next().color);
+        }
+        return result;
+    }
+
+    public int getCount(Color color) {
+        RankEntry entry = entries.get(packedRgb(color));
+        return entry == null ? 0 : entry.count;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void update(Color color, int delta) {
+        int rgb = packedRgb(color);
+        synchronized (stripes[spread(rgb) & (STRIPES - 1)]) {
+            RankEntry previous = entries.get(rgb);
+            int count = (previous == null ? 0 : previous.count) + delta;
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            if (count <= 0) {
+                entries.remove(rgb);
+                return;
+            }
+            // Keep the first color instance seen so its name is what callers get back
+            RankEntry next = new RankEntry(previous == null ? color : previous.color, rgb, count);
+            entries.put(rgb, next);
+            ranking.add(next);
+        }
+    }
+
+    private static int packedRgb(Color color) {
+        return (color.getRed() << 16) | (color.getGreen() << 8) | color.getBlue();
+    }
+
+    // Neighbouring colors differ in low bits; mix so they land on different stripes
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        return h ^ (h >>> 16);
+    }
+
+    // Ordered by count descending, then RGB ascending
+    private static class RankEntry implements Comparable<RankEntry> {
+        private final Color color;
+        private final int rgb;
+        private final int count;
+
+        RankEntry(Color color, int rgb, int count) {
+            this.color = color;
+            this.rgb = rgb;
+            this.count = count;
+        }
+
+        @Override
+        public int compareTo(RankEntry other) {
+            int byCount = Integer.compare(other.count, count);
+            return byCount != 0 ? byCount : Integer.compare(rgb, other.rgb);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package lld.colorlist;
+
+/**
+ * Structured color search: optional text match plus attribute filters, all ANDed.
+ * Built with {@link #builder()}, e.g. warm colors brighter than 0.6 whose name contains "sky":
+ * <pre>
+ * ColorQuery.builder().text("sky", SearchCriteria.NAME).warm(true).luminance(0.6, 1.0).build();
+ * </pre>
+ */
+public class ColorQuery {
+    private final String text;
+    private final ColorListService.SearchCriteria criteria;
+    private final String family;
+    private final Boolean warm;
+    private final double minHue;
+    private final double maxHue;
+    private final double minLuminance;
+    private final double maxLuminance;
+    private final int limit;
+
+    private ColorQuery(Builder builder) {
+        this.text = builder.text;
+        this.criteria = builder.criteria;
+        this.family = builder.family;
+        this.warm = builder.warm;
+        this.minHue = builder.minHue;
+        this.maxHue = builder.maxHue;
+        this.minLuminance = builder.minLuminance;
+        this.maxLuminance = builder.maxLuminance;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The legacy searchColors query: a substring match on the given attributes
+     */
+    public static ColorQuery text(String query, ColorListService.SearchCriteria criteria) {
+        return builder().text(query, criteria).build();
+    }
+
+    public boolean hasText() { return text != null; }
+    public boolean hasHueRange() { return minHue > 0 || maxHue < 360; }
+    public boolean hasLuminanceRange() { return minLuminance > 0 || maxLuminance < 1; }
+
+    /**
+     * Hue ranges may wrap around 0 degrees (e.g. 330 to 30 for reds)
+     */
+    public boolean matchesHue(double hue) {
+        return minHue <= maxHue ? hue >= minHue && hue <= maxHue : hue >= minHue || hue <= maxHue;
+    }
+
+    public boolean matchesLuminance(double luminance) {
+        return luminance >= minLuminance && luminance <= maxLuminance;
+    }
+
+    // Getters
+    public String getText() { return text; }
+    public ColorListService.SearchCriteria getCriteria() { return criteria; }
+    public String getFamily() { return family; }
+    public Boolean getWarm() { return warm; }
+    public double getMinHue() { return minHue; }
+    public double getMaxHue() { return maxHue; }
+    public double getMinLuminance() { return minLuminance; }
+    public double getMaxLuminance() { return maxLuminance; }
+    public int getLimit() { return limit; }
+
+    public static class Builder {
+        private String text;
+        private ColorListService.SearchCriteria criteria = ColorListService.SearchCriteria.ALL;
+        private String family;
+        private Boolean warm;
+        private double minHue = 0;
+        private double maxHue = 360;
+        private double minLuminance = 0;
+        private double maxLuminance = 1;
+        private int limit = Integer.MAX_VALUE;
+
+        public Builder text(String query, ColorListService.SearchCriteria criteria) {
+            // Blank text matches everything, as in the original searchColors
+            this.text = query == null || query.trim().isEmpty() ? null : query.toLowerCase();
+            this.criteria = criteria == null ? ColorListService.SearchCriteria.ALL : criteria;
+            return this;
+        }
+
+        public Builder family(String family) {
+            this.family = family;
+            return this;
+        }
+
+        public Builder warm(boolean warm) {
+            this.warm = warm;
+            return this;
+        }
+
+        public Builder hue(double minDegrees, double maxDegrees) {
+            if (minDegrees < 0 || maxDegrees > 360) {
+                throw new IllegalArgumentException("Hue must be between 0 and 360");
+            }
+            this.minHue = minDegrees;
+            this.maxHue = maxDegrees;
+            return this;
+        }
+
+        public Builder luminance(double min, double max) {
+            if (min < 0 || max > 1 || min > max) {
+                throw new IllegalArgumentException("Luminance range must be within 0 and 1");
+            }
+            this.minLuminance = min;
+            this.maxLuminance = max;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public ColorQuery build() {
+            return new ColorQuery(this);
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package lld.colorlist;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search index over every (list, color) pair in the service.
+ * Each pair is a document with a dense int id; attributes live in parallel arrays.
+ * - Access: per-user bitmap of list ordinals the user was given (owner or shared)
+ * - Text: trigram postings (sorted int arrays) on lowercase names and hex codes, so a
+ *   substring query intersects the postings of its trigrams and verifies the survivors
+ * - Attributes: family and warm bitmaps, 10-degree hue and 0.05 luminance bucket bitmaps
+ * The most selective available structure narrows the candidates; every candidate is then
+ * verified exactly, so results match a full scan. Removed documents are tombstoned and the
+ * index is rebuilt once tombstones outnumber live documents.
+ */
+public class ColorSearchIndex {
+    private static final int GRAM = 3;
+    private static final int HUE_BUCKET_DEGREES = 10;
+    private static final int LUMINANCE_BUCKETS = 20;
+    private static final int MIN_TOMBSTONES_FOR_REBUILD = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents
+    private int docCount;
+    private int liveCount;
+    private Color[] colors = new Color[1024];
+    private int[] docLists = new int[1024];
+    private String[] names = new String[1024];
+    private String[] hexes = new String[1024];
+    private String[] families = new String[1024];
+    private double[] hues = new double[1024];
+    private double[] luminances = new double[1024];
+    private final BitSet live = new BitSet();
+    private final Map<String, Integer> docsByKey = new HashMap<>(); // listId + rgb -> doc
+
+    // Lists and access
+    private final Map<String, Integer> listOrdinals = new HashMap<>();
+    private final List<ColorList> lists = new ArrayList<>();
+    private final List<IntList> listDocs = new ArrayList<>();
+    private final Map<String, BitSet> userAccess = new HashMap<>();
+
+    // Postings
+    private final Map<String, IntList> nameGrams = new HashMap<>();
+    private final Map<String, IntList> hexGrams = new HashMap<>();
+    private final Map<String, BitSet> familyDocs = new HashMap<>();
+    private final BitSet warmDocs = new BitSet();
+    private final BitSet[] hueBuckets = new BitSet[360 / HUE_BUCKET_DEGREES];
+    private final BitSet[] luminanceBuckets = new BitSet[LUMINANCE_BUCKETS];
+
+    public ColorSearchIndex() {
+        for (int i = 0; i < hueBuckets.length; i++) {
+            hueBuckets[i] = new BitSet();
+        }
+        for (int i = 0; i < luminanceBuckets.length; i++) {
+            luminanceBuckets[i] = new BitSet();
+        }
+    }
+
+    public void addColor(ColorList list, Color color) {
+        lock.writeLock().lock();
+        try {
+            String key = docKey(list.getListId(), color);
+            if (!docsByKey.containsKey(key)) {
+                indexDocument(listOrdinal(list), color, key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeColor(ColorList list, Color color) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsByKey.remove(docKey(list.getListId(), color));
+            if (doc != null) {
+                tombstone(doc);
+                rebuildIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeList(ColorList list) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = listOrdinals.remove(list.getListId());
+            if (ordinal == null) {
+                return;
+            }
+            IntList docs = listDocs.get(ordinal);
+            for (int i = 0; i < docs.size; i++) {
+                int doc = docs.data[i];
+                if (live.get(doc)) {
+                    docsByKey.remove(docKey(list.getListId(), colors[doc]));
+                    tombstone(doc);
+                }
+            }
+            lists.set(ordinal, null);
+            listDocs.set(ordinal, new IntList());
+            rebuildIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the list's colors searchable for the user (ownership or sharing)
+     */
+    public void grantAccess(String userId, ColorList list) {
+        lock.writeLock().lock();
+        try {
+            userAccess.computeIfAbsent(userId, k -> new BitSet()).set(listOrdinal(list));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ColorListService.ColorSearchResult> search(String userId, ColorQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet accessible = userAccess.get(userId);
+            List<ColorListService.ColorSearchResult> results = new ArrayList<>();
+            if (accessible == null) {
+                return results;
+            }
+            // Permissions can change on the list itself (revoke, access level), so check once per list
+            Map<Integer, Boolean> visible = new HashMap<>();
+            BitSet candidates = narrow(query);
+            if (candidates != null) {
+                for (int doc = candidates.nextSetBit(0); doc >= 0 && results.size() < query.getLimit();
+                     doc = candidates.nextSetBit(doc + 1)) {
+                    collect(doc, userId, accessible, visible, query, results);
+                }
+            } else {
+                for (int ordinal = accessible.nextSetBit(0); ordinal >= 0 && results.size() < query.getLimit();
+                     ordinal = accessible.nextSetBit(ordinal + 1)) {
+                    IntList docs = listDocs.get(ordinal);
+                    for (int i = 0; i < docs.size && results.size() < query.getLimit(); i++) {
+                        collect(docs.data[i], userId, accessible, visible, query, results);
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(int doc, String userId, BitSet accessible, Map<Integer, Boolean> visible,
+                         ColorQuery query, List<ColorListService.ColorSearchResult> results) {
+        int ordinal = docLists[doc];
+        if (!live.get(doc) || !accessible.get(ordinal) || !matches(doc, query)) {
+            return;
+        }
+        ColorList list = lists.get(ordinal);
+        if (visible.computeIfAbsent(ordinal, o -> list.hasPermission(userId, ColorList.Permission.VIEW))) {
+            results.add(new ColorListService.ColorSearchResult(colors[doc], list.getListId(), list.getName()));
+        }
+    }
+
+    /**
+     * Candidate superset from the index structures, or null when nothing narrows the query
+     */
+    private BitSet narrow(ColorQuery query) {
+        BitSet candidates = null;
+        if (query.hasText()) {
+            candidates = textCandidates(query.getText(), query.getCriteria());
+        }
+        if (query.getFamily() != null) {
+            candidates = and(candidates, familyDocs.getOrDefault(query.getFamily(), new BitSet()));
+        }
+        if (query.hasHueRange()) {
+            candidates = and(candidates, hueCandidates(query));
+        }
+        if (query.hasLuminanceRange()) {
+            candidates = and(candidates, luminanceCandidates(query));
+        }
+        if (query.getWarm() != null && candidates != null) {
+            BitSet warm = (BitSet) warmDocs.clone();
+            if (!query.getWarm()) {
+                warm.flip(0, docCount);
+            }
+            candidates.and(warm);
+        }
+        return candidates;
+    }
+
+    private BitSet textCandidates(String text, ColorListService.SearchCriteria criteria) {
+        switch (criteria) {
+            case NAME:
+                return gramCandidates(nameGrams, text);
+            case HEX:
+                return gramCandidates(hexGrams, text);
+            case FAMILY:
+                return familyCandidates(text);
+            case ALL:
+            default:
+                BitSet byName = gramCandidates(nameGrams, text);
+                BitSet byHex = gramCandidates(hexGrams, text);
+                if (byName == null || byHex == null) {
+                    return null; // Too short to narrow; verify every accessible color
+                }
+                byName.or(byHex);
+                byName.or(familyCandidates(text));
+                return byName;
+        }
+    }
+
+    // Intersect the postings of every trigram in the text, shortest first
+    private BitSet gramCandidates(Map<String, IntList> grams, String text) {
+        if (text.length() < GRAM) {
+            return null;
+        }
+        List<IntList> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            IntList posting = grams.get(text.substring(i, i + GRAM));
+            if (posting == null) {
+                return new BitSet();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(p -> p.size));
+        int[] current = Arrays.copyOf(postings.get(0).data, postings.get(0).size);
+        int currentSize = current.length;
+        for (int p = 1; p < postings.size() && currentSize > 0; p++) {
+            currentSize = intersect(current, currentSize, postings.get(p));
+        }
+        BitSet candidates = new BitSet();
+        for (int i = 0; i < currentSize; i++) {
+            candidates.set(current[i]);
+        }
+        return candidates;
+    }
+
+    private BitSet familyCandidates(String text) {
+        BitSet candidates = new BitSet();
+        for (Map.Entry<String, BitSet> entry : familyDocs.entrySet()) {
+            if (entry.getKey().toLowerCase().contains(text)) {
+                candidates.or(entry.getValue());
+            }
+        }
+        return candidates;
+    }
+
+    private BitSet hueCandidates(ColorQuery query) {
+        BitSet candidates = new BitSet();
+        int from = hueBucket(query.getMinHue());
+        int to = hueBucket(query.getMaxHue());
+        if (query.getMinHue() <= query.getMaxHue()) {
+            orBuckets(candidates, from, to);
+        } else {
+            // Wraps around 0 degrees
+            orBuckets(candidates, from, hueBuckets.length - 1);
+            orBuckets(candidates, 0, to);
+        }
+        return candidates;
+    }
+
+    private void orBuckets(BitSet candidates, int from, int to) {
+        for (int bucket = from; bucket <= to; bucket++) {
+            candidates.or(hueBuckets[bucket]);
+        }
+    }
+
+    private BitSet luminanceCandidates(ColorQuery query) {
+        BitSet candidates = new BitSet();
+        int from = luminanceBucket(query.getMinLuminance());
+        int to = luminanceBucket(query.getMaxLuminance());
+        for (int bucket = from; bucket <= to; bucket++) {
+            candidates.or(luminanceBuckets[bucket]);
+        }
+        return candidates;
+    }
+
+    private boolean matches(int doc, ColorQuery query) {
+        if (query.hasText() && !matchesText(doc, query.getText(), query.getCriteria())) {
+            return false;
+        }
+        if (query.getFamily() != null && !query.getFamily().equals(families[doc])) {
+            return false;
+        }
+        if (query.getWarm() != null && query.getWarm() != warmDocs.get(doc)) {
+            return false;
+        }
+        return query.matchesHue(hues[doc]) && query.matchesLuminance(luminances[doc]);
+    }
+
+    // Same semantics as the original substring matching
+    private boolean matchesText(int doc, String text, ColorListService.SearchCriteria criteria) {
+        switch (criteria) {
+            case NAME:
+                return names[doc].contains(text);
+            case HEX:
+                return hexes[doc].contains(text);
+            case FAMILY:
+                return families[doc].toLowerCase().contains(text);
+            case ALL:
+            default:
+                return names[doc].contains(text) || hexes[doc].contains(text)
+                        || families[doc].toLowerCase().contains(text);
+        }
+    }
+
+    private void indexDocument(int ordinal, Color color, String key) {
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        colors[doc] = color;
+        docLists[doc] = ordinal;
+        names[doc] = color.getName().toLowerCase();
+        hexes[doc] = color.getHexCode().toLowerCase();
+        families[doc] = ColorUtils.getColorFamily(color);
+        double hue = ColorUtils.rgbToHsv(color.getRed(), color.getGreen(), color.getBlue())[0];
+        hues[doc] = hue < 0 ? hue + 360 : hue;
+        luminances[doc] = color.getLuminance();
+
+        live.set(doc);
+        liveCount++;
+        docsByKey.put(key, doc);
+        listDocs.get(ordinal).add(doc);
+        addGrams(nameGrams, names[doc], doc);
+        addGrams(hexGrams, hexes[doc], doc);
+        familyDocs.computeIfAbsent(families[doc], k -> new BitSet()).set(doc);
+        if (ColorUtils.isWarmColor(color)) {
+            warmDocs.set(doc);
+        }
+        hueBuckets[hueBucket(hues[doc])].set(doc);
+        luminanceBuckets[luminanceBucket(luminances[doc])].set(doc);
+    }
+
+    // Postings keep dead ids until the next rebuild; bitmaps are cleared right away
+    private void tombstone(int doc) {
+        live.clear(doc);
+        liveCount--;
+        familyDocs.get(families[doc]).clear(doc);
+        warmDocs.clear(doc);
+        hueBuckets[hueBucket(hues[doc])].clear(doc);
+        luminanceBuckets[luminanceBucket(luminances[doc])].clear(doc);
+    }
+
+    private void rebuildIfSparse() {
+        int tombstones = docCount - liveCount;
+        if (tombstones < MIN_TOMBSTONES_FOR_REBUILD || tombstones < liveCount) {
+            return;
+        }
+        int oldCount = docCount;
+        Color[] oldColors = colors;
+        int[] oldLists = docLists;
+        BitSet oldLive = (BitSet) live.clone();
+
+        docCount = 0;
+        liveCount = 0;
+        live.clear();
+        docsByKey.clear();
+        nameGrams.clear();
+        hexGrams.clear();
+        familyDocs.clear();
+        warmDocs.clear();
+        for (BitSet bucket : hueBuckets) {
+            bucket.clear();
+        }
+        for (BitSet bucket : luminanceBuckets) {
+            bucket.clear();
+        }
+        for (int i = 0; i < listDocs.size(); i++) {
+            listDocs.set(i, new IntList());
+        }
+        colors = new Color[Math.max(1024, oldCount)];
+        docLists = new int[colors.length];
+        names = new String[colors.length];
+        hexes = new String[colors.length];
+        families = new String[colors.length];
+        hues = new double[colors.length];
+        luminances = new double[colors.length];
+
+        for (int doc = oldLive.nextSetBit(0); doc >= 0 && doc < oldCount; doc = oldLive.nextSetBit(doc + 1)) {
+            ColorList list = lists.get(oldLists[doc]);
+            indexDocument(oldLists[doc], oldColors[doc], docKey(list.getListId(), oldColors[doc]));
+        }
+    }
+
+    private int listOrdinal(ColorList list) {
+        Integer ordinal = listOrdinals.get(list.getListId());
+        if (ordinal == null) {
+            ordinal = lists.size();
+            lists.add(list);
+            listDocs.add(new IntList());
+            listOrdinals.put(list.getListId(), ordinal);
+        }
+        return ordinal;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= colors.length) {
+            return;
+        }
+        int capacity = Math.max(required, colors.length * 2);
+        colors = Arrays.copyOf(colors, capacity);
+        docLists = Arrays.copyOf(docLists, capacity);
+        names = Arrays.copyOf(names, capacity);
+        hexes = Arrays.copyOf(hexes, capacity);
+        families = Arrays.copyOf(families, capacity);
+        hues = Arrays.copyOf(hues, capacity);
+        luminances = Arrays.copyOf(luminances, capacity);
+    }
+
+    private static void addGrams(Map<String, IntList> grams, String text, int doc) {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM);
+            if (seen.add(gram)) {
+                // Ids only grow between rebuilds, so appending keeps postings sorted
+                grams.computeIfAbsent(gram, k -> new IntList()).add(doc);
+            }
+        }
+    }
+
+    // In-place intersection of current[0..size) with a sorted posting
+    private static int intersect(int[] current, int size, IntList posting) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < posting.size; i++) {
+            while (j < posting.size && posting.data[j] < current[i]) {
+                j++;
+            }
+            if (j < posting.size && posting.data[j] == current[i]) {
+                current[kept++] = current[i];
+            }
+        }
+        return kept;
+    }
+
+    private static BitSet and(BitSet candidates, BitSet filter) {
+        if (candidates == null) {
+            return (BitSet) filter.clone();
+        }
+        candidates.and(filter);
+        return candidates;
+    }
+
+    private static int hueBucket(double hue) {
+        return Math.max(0, Math.min(360 / HUE_BUCKET_DEGREES - 1, (int) (hue / HUE_BUCKET_DEGREES)));
+    }
+
+    private static int luminanceBucket(double luminance) {
+        return Math.max(0, Math.min(LUMINANCE_BUCKETS - 1, (int) (luminance * LUMINANCE_BUCKETS)));
+    }
+
+    private static String docKey(String listId, Color color) {
+        return listId + '#' + color.getHexCode();
+    }
+
+    private static class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+}
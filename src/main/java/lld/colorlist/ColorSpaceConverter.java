@@ -0,0 +1,133 @@
+package lld.colorlist;
+
+/**
+ * Table-driven color space conversions.
+ * sRGB channels only take 256 values, so gamma linearization (a Math.pow per channel)
+ * and the /255 scaling are precomputed once. The *Into methods write into a caller-owned
+ * buffer and allocate nothing, for hot loops over many colors.
+ * When a {@link PackedLabCache} is installed, LAB lookups become a single table read.
+ */
+public final class ColorSpaceConverter {
+    // Reference white (D65) used by the LAB conversion
+    private static final double REF_X = 95.047;
+    private static final double REF_Y = 100.000;
+    private static final double REF_Z = 108.883;
+
+    private static final double[] UNIT = new double[256];           // c / 255
+    private static final double[] SRGB_LINEAR = new double[256];    // sRGB EOTF, threshold 0.04045
+    private static final double[] WCAG_LINEAR = new double[256];    // WCAG 2.x luminance, threshold 0.03928
+
+    private static volatile PackedLabCache labCache;
+
+    static {
+        for (int c = 0; c < 256; c++) {
+            double v = c / 255.0;
+            UNIT[c] = v;
+            SRGB_LINEAR[c] = v > 0.04045 ? Math.pow((v + 0.055) / 1.055, 2.4) : v / 12.92;
+            WCAG_LINEAR[c] = v <= 0.03928 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+        }
+    }
+
+    private ColorSpaceConverter() {
+    }
+
+    /**
+     * Route LAB lookups through a packed 24-bit table (null to compute directly again)
+     */
+    public static void installLabCache(PackedLabCache cache) {
+        labCache = cache;
+    }
+
+    public static PackedLabCache getLabCache() {
+        return labCache;
+    }
+
+    /**
+     * XYZ (0-100 scale) into out[offset..offset+2]
+     */
+    public static void rgbToXyzInto(int r, int g, int b, double[] out, int offset) {
+        double rLin = SRGB_LINEAR[r];
+        double gLin = SRGB_LINEAR[g];
+        double bLin = SRGB_LINEAR[b];
+        out[offset] = (rLin * 0.4124 + gLin * 0.3576 + bLin * 0.1805) * 100;
+        out[offset + 1] = (rLin * 0.2126 + gLin * 0.7152 + bLin * 0.0722) * 100;
+        out[offset + 2] = (rLin * 0.0193 + gLin * 0.1192 + bLin * 0.9505) * 100;
+    }
+
+    /**
+     * CIE LAB into out[offset..offset+2], from the packed cache when one is installed
+     */
+    public static void rgbToLabInto(int r, int g, int b, double[] out, int offset) {
+        PackedLabCache cache = labCache;
+        if (cache != null) {
+            cache.lookup(r, g, b, out, offset);
+        } else {
+            computeLab(r, g, b, out, offset);
+        }
+    }
+
+    /**
+     * Exact LAB, bypassing any installed cache
+     */
+    public static void computeLab(int r, int g, int b, double[] out, int offset) {
+        double rLin = SRGB_LINEAR[r];
+        double gLin = SRGB_LINEAR[g];
+        double bLin = SRGB_LINEAR[b];
+        double x = labF((rLin * 0.4124 + gLin * 0.3576 + bLin * 0.1805) * 100 / REF_X);
+        double y = labF((rLin * 0.2126 + gLin * 0.7152 + bLin * 0.0722) * 100 / REF_Y);
+        double z = labF((rLin * 0.0193 + gLin * 0.1192 + bLin * 0.9505) * 100 / REF_Z);
+        out[offset] = (116 * y) - 16;
+        out[offset + 1] = 500 * (x - y);
+        out[offset + 2] = 200 * (y - z);
+    }
+
+    /**
+     * HSV (hue in degrees, saturation and value in 0-1) into out[offset..offset+2]
+     */
+    public static void rgbToHsvInto(int r, int g, int b, double[] out, int offset) {
+        double rNorm = UNIT[r];
+        double gNorm = UNIT[g];
+        double bNorm = UNIT[b];
+        int maxChannel = Math.max(Math.max(r, g), b);
+        int minChannel = Math.min(Math.min(r, g), b);
+        double max = UNIT[maxChannel];
+        double delta = max - UNIT[minChannel];
+
+        double h = 0;
+        if (delta != 0) {
+            if (maxChannel == r) {
+                h = 60 * (((gNorm - bNorm) / delta) % 6);
+            } else if (maxChannel == g) {
+                h = 60 * (((bNorm - rNorm) / delta) + 2);
+            } else {
+                h = 60 * (((rNorm - gNorm) / delta) + 4);
+            }
+        }
+        out[offset] = h;
+        out[offset + 1] = max == 0 ? 0 : delta / max;
+        out[offset + 2] = max;
+    }
+
+    /**
+     * WCAG relative luminance
+     */
+    public static double luminance(int r, int g, int b) {
+        return 0.2126 * WCAG_LINEAR[r] + 0.7152 * WCAG_LINEAR[g] + 0.0722 * WCAG_LINEAR[b];
+    }
+
+    /**
+     * Delta E 1976 between two colors; the scratch buffer must hold at least 6 doubles
+     */
+    public static double deltaE(int r1, int g1, int b1, int r2, int g2, int b2, double[] scratch) {
+        rgbToLabInto(r1, g1, b1, scratch, 0);
+        rgbToLabInto(r2, g2, b2, scratch, 3);
+        double deltaL = scratch[0] - scratch[3];
+        double deltaA = scratch[1] - scratch[4];
+        double deltaB = scratch[2] - scratch[5];
+        return Math.sqrt(deltaL * deltaL + deltaA * deltaA + deltaB * deltaB);
+    }
+
+    private static double labF(double t) {
+        return t > 0.008856 ? Math.cbrt(t) : (7.787 * t) + (16.0 / 116.0);
+    }
+}
@@ -0,0 +1,42 @@
+package lld.colorlist;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Backing store for the colors of one {@link ColorList}, in insertion order.
+ * Colors are unique by RGB. Implementations must be safe for concurrent readers;
+ * writers are serialized by the owning list.
+ */
+public interface ColorStorage extends AutoCloseable {
+    boolean add(Color color);
+
+    boolean remove(Color color);
+
+    Color remove(int index);
+
+    boolean contains(Color color);
+
+    Color first();
+
+    int size();
+
+    /**
+     * Point-in-time copy of every color
+     */
+    List<Color> snapshot();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    default void close() throws IOException {}
+
+    /**
+     * Close and discard any persisted data
+     */
+    default void destroy() throws IOException {
+        close();
+    }
+}
@@ -4,6 +4,8 @@ package lld.colorlist;
  * Utility class for color operations and calculations
  */
 public class ColorUtils {
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> new double[6]);
+    
     
     /**
      * Calculate Euclidean distance between two colors in RGB space
@@ -21,15 +23,10 @@ public class ColorUtils {
      * More accurate for human perception
      */
     public static double calculatePerceptualDistance(Color color1, Color color2) {
-        // Convert RGB to LAB color space for better perceptual accuracy
-        double[] lab1 = rgbToLab(color1.getRed(), color1.getGreen(), color1.getBlue());
-        double[] lab2 = rgbToLab(color2.getRed(), color2.getGreen(), color2.getBlue());
-        
-        double deltaL = lab1[0] - lab2[0];
-        double deltaA = lab1[1] - lab2[1];
-        double deltaB = lab1[2] - lab2[2];
-        
-        return Math.sqrt(deltaL * deltaL + deltaA * deltaA + deltaB * deltaB);
+        // Compare in LAB color space for better perceptual accuracy
+        return ColorSpaceConverter.deltaE(color1.getRed(), color1.getGreen(), color1.getBlue(),
+                                          color2.getRed(), color2.getGreen(), color2.getBlue(),
+                                          SCRATCH.get());
     }
     
     /**
@@ -41,7 +38,7 @@ public class ColorUtils {
         int b = color.getBlue();
         
         // Calculate luminance for grayscale detection
-        double luminance = color.getLuminance();
+        double luminance = ColorSpaceConverter.luminance(r, g, b);
         
         // Check for grayscale
         if (Math.abs(r - g) < 30 && Math.abs(g - b) < 30 && Math.abs(r - b) < 30) {
@@ -88,29 +85,9 @@ public class ColorUtils {
      * Convert RGB to HSV color space
      */
     public static double[] rgbToHsv(int r, int g, int b) {
-        double rNorm = r / 255.0;
-        double gNorm = g / 255.0;
-        double bNorm = b / 255.0;
-        
-        double max = Math.max(Math.max(rNorm, gNorm), bNorm);
-        double min = Math.min(Math.min(rNorm, gNorm), bNorm);
-        double delta = max - min;
-        
-        double h = 0;
-        if (delta != 0) {
-            if (max == rNorm) {
-                h = 60 * (((gNorm - bNorm) / delta) % 6);
-            } else if (max == gNorm) {
-                h = 60 * (((bNorm - rNorm) / delta) + 2);
-            } else {
-                h = 60 * (((rNorm - gNorm) / delta) + 4);
-            }
-        }
-        
-        double s = max == 0 ? 0 : delta / max;
-        double v = max;
-        
-        return new double[]{h, s, v};
+        double[] hsv = new double[3];
+        ColorSpaceConverter.rgbToHsvInto(r, g, b, hsv, 0);
+        return hsv;
     }
     
     /**
@@ -147,45 +124,10 @@ public class ColorUtils {
     /**
      * Convert RGB to LAB color space (simplified)
      */
-    private static double[] rgbToLab(int r, int g, int b) {
-        // Convert RGB to XYZ first
-        double[] xyz = rgbToXyz(r, g, b);
-        
-        // Convert XYZ to LAB
-        double x = xyz[0] / 95.047;
-        double y = xyz[1] / 100.000;
-        double z = xyz[2] / 108.883;
-        
-        x = x > 0.008856 ? Math.cbrt(x) : (7.787 * x) + (16.0 / 116.0);
-        y = y > 0.008856 ? Math.cbrt(y) : (7.787 * y) + (16.0 / 116.0);
-        z = z > 0.008856 ? Math.cbrt(z) : (7.787 * z) + (16.0 / 116.0);
-        
-        double l = (116 * y) - 16;
-        double a = 500 * (x - y);
-        double bLab = 200 * (y - z);
-        
-        return new double[]{l, a, bLab};
-    }
-    
-    /**
-     * Convert RGB to XYZ color space
-     */
-    private static double[] rgbToXyz(int r, int g, int b) {
-        double rNorm = r / 255.0;
-        double gNorm = g / 255.0;
-        double bNorm = b / 255.0;
-        
-        // Apply gamma correction
-        rNorm = rNorm > 0.04045 ? Math.pow((rNorm + 0.055) / 1.055, 2.4) : rNorm / 12.92;
-        gNorm = gNorm > 0.04045 ? Math.pow((gNorm + 0.055) / 1.055, 2.4) : gNorm / 12.92;
-        bNorm = bNorm > 0.04045 ? Math.pow((bNorm + 0.055) / 1.055, 2.4) : bNorm / 12.92;
-        
-        // Apply transformation matrix
-        double x = rNorm * 0.4124 + gNorm * 0.3576 + bNorm * 0.1805;
-        double y = rNorm * 0.2126 + gNorm * 0.7152 + bNorm * 0.0722;
-        double z = rNorm * 0.0193 + gNorm * 0.1192 + bNorm * 0.9505;
-        
-        return new double[]{x * 100, y * 100, z * 100};
+    public static double[] rgbToLab(int r, int g, int b) {
+        double[] lab = new double[3];
+        ColorSpaceConverter.rgbToLabInto(r, g, b, lab, 0);
+        return lab;
     }
     
     /**
@@ -12,5 +12,18 @@ public enum ExportFormat {
     ADOBE_ASE,  // Adobe Swatch Exchange format
     GIMP_GPL,   // GIMP palette format
     CSS,        // CSS variables format
-    SCSS        // SCSS variables format
+    SCSS;       // SCSS variables format
+    
+    public String getFileExtension() {
+        switch (this) {
+            case JSON: return "json";
+            case CSV: return "csv";
+            case XML: return "xml";
+            case ADOBE_ASE: return "ase";
+            case GIMP_GPL: return "gpl";
+            case CSS: return "css";
+            case SCSS: return "scss";
+            default: return "txt";
+        }
+    }
 }
\ No newline at end of file
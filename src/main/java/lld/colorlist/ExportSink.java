@@ -0,0 +1,109 @@
+package lld.colorlist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered writer over a channel using one pooled buffer.
+ * Text is encoded to UTF-8 straight into the buffer; binary writes are big-endian.
+ * The buffer is drained to the channel whenever it fills, so memory stays constant
+ * regardless of how many colors are exported.
+ */
+class ExportSink implements AutoCloseable {
+    private final WritableByteChannel channel;
+    private final ByteBufferPool pool;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long bytesWritten;
+    private boolean closed;
+
+    ExportSink(WritableByteChannel channel, ByteBufferPool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+        this.buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    ExportSink text(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        encoder.reset();
+        return this;
+    }
+
+    ExportSink text(int value) throws IOException {
+        return text(Integer.toString(value));
+    }
+
+    ExportSink putShort(int value) throws IOException {
+        ensure(Short.BYTES);
+        buffer.putShort((short) value);
+        return this;
+    }
+
+    ExportSink putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+        return this;
+    }
+
+    ExportSink putFloat(float value) throws IOException {
+        ensure(Float.BYTES);
+        buffer.putFloat(value);
+        return this;
+    }
+
+    ExportSink putAscii(String value) throws IOException {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+        return this;
+    }
+
+    long getBytesWritten() {
+        return closed ? bytesWritten : bytesWritten + buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            drain();
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
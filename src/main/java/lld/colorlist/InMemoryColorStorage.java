@@ -0,0 +1,50 @@
+package lld.colorlist;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Default storage: a copy-on-write list, cheap to read and fine for small lists
+ */
+public class InMemoryColorStorage implements ColorStorage {
+    private final List<Color> colors = new CopyOnWriteArrayList<>();
+
+    @Override
+    public boolean add(Color color) {
+        return !colors.contains(color) && colors.add(color);
+    }
+
+    @Override
+    public boolean remove(Color color) {
+        return colors.remove(color);
+    }
+
+    @Override
+    public Color remove(int index) {
+        return colors.remove(index);
+    }
+
+    @Override
+    public boolean contains(Color color) {
+        return colors.contains(color);
+    }
+
+    @Override
+    public Color first() {
+        // Iterator reads one snapshot, so a concurrent removal cannot make get(0) fail
+        Iterator<Color> iterator = colors.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    @Override
+    public int size() {
+        return colors.size();
+    }
+
+    @Override
+    public List<Color> snapshot() {
+        return new ArrayList<>(colors);
+    }
+}
@@ -0,0 +1,108 @@
+package lld.colorlist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for a network transport: one bounded queue per subscriber that clients poll.
+ * A full queue refuses the batch, so the feed keeps the subscriber's position and retries on a
+ * later flush instead of buffering without limit. Batches left for a closed subscription stay
+ * readable for a retention period and are then dropped.
+ */
+public class InProcessChangeTransport implements ChangeFeedTransport {
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long DEFAULT_CLOSED_RETENTION_MILLIS = 60_000;
+
+    private final int queueCapacity;
+    private final long closedRetentionMillis;
+    private final Map<String, BlockingQueue<ChangeBatch>> queues = new ConcurrentHashMap<>();
+    private final Map<String, Long> closedAt = new ConcurrentHashMap<>(); // subscriberId -> millis
+
+    public InProcessChangeTransport() {
+        this(DEFAULT_QUEUE_CAPACITY, DEFAULT_CLOSED_RETENTION_MILLIS);
+    }
+
+    public InProcessChangeTransport(int queueCapacity, long closedRetentionMillis) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.closedRetentionMillis = closedRetentionMillis;
+    }
+
+    @Override
+    public boolean send(ChangeBatch batch) {
+        closedAt.remove(batch.subscriberId); // subscribed again under the same id
+        expireClosed();
+        return queue(batch.subscriberId).offer(batch);
+    }
+
+    @Override
+    public void onSubscriptionClosed(String subscriberId) {
+        // Undelivered batches stay readable until drained or expired
+        closedAt.put(subscriberId, System.currentTimeMillis());
+        removeIfDrained(subscriberId);
+        expireClosed();
+    }
+
+    /**
+     * Wait up to timeout for the next batch, or null
+     */
+    public ChangeBatch poll(String subscriberId, long timeout, TimeUnit unit) throws InterruptedException {
+        ChangeBatch batch = queue(subscriberId).poll(timeout, unit);
+        removeIfDrained(subscriberId);
+        return batch;
+    }
+
+    /**
+     * Every batch received so far, without waiting
+     */
+    public List<ChangeBatch> drain(String subscriberId) {
+        List<ChangeBatch> batches = new ArrayList<>();
+        BlockingQueue<ChangeBatch> queue = queues.get(subscriberId);
+        if (queue != null) {
+            queue.drainTo(batches);
+            removeIfDrained(subscriberId);
+        }
+        return batches;
+    }
+
+    /**
+     * Subscribers with a queue (open subscriptions, or closed ones with unread batches)
+     */
+    public int getQueueCount() {
+        return queues.size();
+    }
+
+    private BlockingQueue<ChangeBatch> queue(String subscriberId) {
+        return queues.computeIfAbsent(subscriberId, id -> new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    private void removeIfDrained(String subscriberId) {
+        if (closedAt.containsKey(subscriberId)) {
+            queues.computeIfPresent(subscriberId, (id, queue) -> queue.isEmpty() ? null : queue);
+            if (!queues.containsKey(subscriberId)) {
+                closedAt.remove(subscriberId);
+            }
+        }
+    }
+
+    private void expireClosed() {
+        if (closedAt.isEmpty()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - closedRetentionMillis;
+        closedAt.entrySet().removeIf(closed -> {
+            if (closed.getValue() > cutoff) {
+                return false;
+            }
+            queues.remove(closed.getKey());
+            return true;
+        });
+    }
+}
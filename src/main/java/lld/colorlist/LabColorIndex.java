@@ -0,0 +1,277 @@
+package lld.colorlist;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index over CIE LAB coordinates for perceptual "find similar" queries.
+ * LAB is precomputed once per insert and bucketed into a sparse uniform voxel grid,
+ * so radius queries only visit cells overlapping the query sphere and k-NN queries
+ * expand ring by ring around the query cell until no closer point can exist.
+ * Distances are Delta E 1976 (Euclidean in LAB), matching {@link ColorUtils#calculatePerceptualDistance}.
+ * LAB always comes from {@link ColorSpaceConverter#computeLab}, never the swappable packed cache,
+ * so a color lands in the same cell when it is removed as when it was added.
+ *
+ * @param <T> value stored with each color (the color itself, or a color + list reference)
+ */
+public class LabColorIndex<T> {
+    // ~JND-scale cells: a few points per cell for dense catalogs, few cells per typical query
+    private static final double DEFAULT_CELL_SIZE = 8.0;
+    private static final int COORDINATE_BITS = 21;
+    private static final int COORDINATE_OFFSET = 1 << (COORDINATE_BITS - 1);
+
+    private final double cellSize;
+    private final Map<Long, Cell<T>> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+    // Bounding box of occupied cells, used to stop ring expansion
+    private int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+    public LabColorIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public LabColorIndex(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    public void add(Color color, T value) {
+        double[] lab = lab(color);
+        int x = cell(lab[0]), y = cell(lab[1]), z = cell(lab[2]);
+        lock.writeLock().lock();
+        try {
+            cells.computeIfAbsent(key(x, y, z), k -> new Cell<>()).add(lab, value);
+            size++;
+            minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+            minZ = Math.min(minZ, z); maxZ = Math.max(maxZ, z);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(Color color, T value) {
+        double[] lab = lab(color);
+        long key = key(cell(lab[0]), cell(lab[1]), cell(lab[2]));
+        lock.writeLock().lock();
+        try {
+            Cell<T> cell = cells.get(key);
+            if (cell == null || !cell.remove(value)) {
+                return false;
+            }
+            if (cell.size == 0) {
+                cells.remove(key);
+            }
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All values within {@code maxDistance} Delta E of the target, closest first
+     */
+    public List<Match<T>> withinRadius(Color target, double maxDistance) {
+        double[] q = lab(target);
+        double maxSquared = maxDistance * maxDistance;
+        List<Match<T>> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (size == 0 || maxDistance < 0) {
+                return matches;
+            }
+            int x0 = Math.max(minX, cell(q[0] - maxDistance)), x1 = Math.min(maxX, cell(q[0] + maxDistance));
+            int y0 = Math.max(minY, cell(q[1] - maxDistance)), y1 = Math.min(maxY, cell(q[1] + maxDistance));
+            int z0 = Math.max(minZ, cell(q[2] - maxDistance)), z1 = Math.min(maxZ, cell(q[2] + maxDistance));
+            if (x0 > x1 || y0 > y1 || z0 > z1) {
+                return matches;
+            }
+            long cellsInBox = (long) (x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1);
+            if (cellsInBox > cells.size()) {
+                // Huge radius: walking occupied cells is cheaper than probing empty ones
+                for (Cell<T> cell : cells.values()) {
+                    cell.collectWithin(q, maxSquared, matches);
+                }
+            } else {
+                for (int x = x0; x <= x1; x++) {
+                    for (int y = y0; y <= y1; y++) {
+                        for (int z = z0; z <= z1; z++) {
+                            Cell<T> cell = cells.get(key(x, y, z));
+                            if (cell != null) {
+                                cell.collectWithin(q, maxSquared, matches);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(m -> m.distance));
+        return matches;
+    }
+
+    /**
+     * The {@code k} values closest to the target, closest first
+     */
+    public List<Match<T>> nearest(Color target, int k) {
+        double[] q = lab(target);
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Match<T>> best = new PriorityQueue<>(k, (a, b) -> Double.compare(b.distance, a.distance));
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+            int cx = cell(q[0]), cy = cell(q[1]), cz = cell(q[2]);
+            int maxRing = Math.max(Math.max(
+                    Math.max(cx - minX, maxX - cx),
+                    Math.max(cy - minY, maxY - cy)),
+                    Math.max(cz - minZ, maxZ - cz));
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Every unvisited cell is at least ring * cellSize away from the query point
+                visitRing(cx, cy, cz, ring, q, k, best);
+                if (best.size() == k && best.peek().distance <= ring * cellSize) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Match<T>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(m -> m.distance));
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Cells at Chebyshev distance exactly `ring` from (cx, cy, cz)
+    private void visitRing(int cx, int cy, int cz, int ring, double[] q, int k, PriorityQueue<Match<T>> best) {
+        for (int x = cx - ring; x <= cx + ring; x++) {
+            for (int y = cy - ring; y <= cy + ring; y++) {
+                boolean onFace = Math.abs(x - cx) == ring || Math.abs(y - cy) == ring;
+                int step = onFace || ring == 0 ? 1 : 2 * ring;
+                for (int z = cz - ring; z <= cz + ring; z += step) {
+                    Cell<T> cell = cells.get(key(x, y, z));
+                    if (cell != null) {
+                        cell.offerNearest(q, k, best);
+                    }
+                }
+            }
+        }
+    }
+
+    private static double[] lab(Color color) {
+        double[] lab = new double[3];
+        ColorSpaceConverter.computeLab(color.getRed(), color.getGreen(), color.getBlue(), lab, 0);
+        return lab;
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int x, int y, int z) {
+        long mask = (1L << COORDINATE_BITS) - 1;
+        return ((x + COORDINATE_OFFSET) & mask) << (2 * COORDINATE_BITS)
+                | ((y + COORDINATE_OFFSET) & mask) << COORDINATE_BITS
+                | ((z + COORDINATE_OFFSET) & mask);
+    }
+
+    /**
+     * Parallel primitive arrays; removal swaps the last entry into the hole
+     */
+    private static class Cell<T> {
+        private float[] coordinates = new float[3 * 4];
+        private Object[] values = new Object[4];
+        private int size;
+
+        void add(double[] lab, T value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                coordinates = Arrays.copyOf(coordinates, size * 6);
+            }
+            coordinates[3 * size] = (float) lab[0];
+            coordinates[3 * size + 1] = (float) lab[1];
+            coordinates[3 * size + 2] = (float) lab[2];
+            values[size++] = value;
+        }
+
+        boolean remove(T value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i].equals(value)) {
+                    int last = --size;
+                    values[i] = values[last];
+                    System.arraycopy(coordinates, 3 * last, coordinates, 3 * i, 3);
+                    values[last] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void collectWithin(double[] q, double maxSquared, List<Match<T>> matches) {
+            for (int i = 0; i < size; i++) {
+                double squared = squaredDistance(i, q);
+                if (squared <= maxSquared) {
+                    matches.add(new Match<>(value(i), Math.sqrt(squared)));
+                }
+            }
+        }
+
+        void offerNearest(double[] q, int k, PriorityQueue<Match<T>> best) {
+            for (int i = 0; i < size; i++) {
+                double distance = Math.sqrt(squaredDistance(i, q));
+                if (best.size() < k) {
+                    best.add(new Match<>(value(i), distance));
+                } else if (distance < best.peek().distance) {
+                    best.poll();
+                    best.add(new Match<>(value(i), distance));
+                }
+            }
+        }
+
+        private double squaredDistance(int i, double[] q) {
+            double dl = coordinates[3 * i] - q[0];
+            double da = coordinates[3 * i + 1] - q[1];
+            double db = coordinates[3 * i + 2] - q[2];
+            return dl * dl + da * da + db * db;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T value(int i) {
+            return (T) values[i];
+        }
+    }
+
+    public static class Match<T> {
+        public final T value;
+        public final double distance;
+
+        public Match(T value, double distance) {
+            this.value = value;
+            this.distance = distance;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (ΔE=%.2f)", value, distance);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package lld.colorlist;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * LAB for every 24-bit RGB value, packed as three fixed-point shorts (0.01 resolution)
+ * in a memory-mapped file (~96MB). The table is built lazily one red plane (65,536 colors)
+ * at a time on first use; built planes are flagged in the file header, so a later process
+ * reopening the same file starts warm.
+ *
+ * Layout: magic "LAB1", 256 plane-built flags, padding to HEADER_SIZE, then
+ * entry[(r << 16) | (g << 8) | b] = {L * 100, a * 100, b * 100} as little-endian shorts.
+ */
+public class PackedLabCache {
+    private static final int MAGIC = 0x4C414231; // "LAB1"
+    private static final int HEADER_SIZE = 512;
+    private static final int FLAGS_OFFSET = 4;
+    private static final int ENTRY_BYTES = 3 * Short.BYTES;
+    private static final int PLANE_COLORS = 256 * 256;
+    private static final long FILE_SIZE = HEADER_SIZE + (long) 256 * PLANE_COLORS * ENTRY_BYTES;
+    private static final double SCALE = 100.0;
+
+    private final MappedByteBuffer buffer;
+    private final AtomicIntegerArray builtPlanes = new AtomicIntegerArray(256);
+
+    private PackedLabCache(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        for (int plane = 0; plane < 256; plane++) {
+            if (buffer.get(FLAGS_OFFSET + plane) != 0) {
+                builtPlanes.set(plane, 1);
+            }
+        }
+    }
+
+    /**
+     * Open (or create) the cache file; an existing file with a different format is reset
+     */
+    public static PackedLabCache open(Path file) throws IOException {
+        boolean reuse = Files.exists(file) && Files.size(file) == FILE_SIZE;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (!reuse || buffer.getInt(0) != MAGIC) {
+                for (int plane = 0; plane < 256; plane++) {
+                    buffer.put(FLAGS_OFFSET + plane, (byte) 0);
+                }
+                buffer.putInt(0, MAGIC);
+            }
+            return new PackedLabCache(buffer);
+        }
+    }
+
+    public void lookup(int r, int g, int b, double[] out, int offset) {
+        if (builtPlanes.get(r) == 0) {
+            buildPlane(r);
+        }
+        int position = HEADER_SIZE + ((r << 16) | (g << 8) | b) * ENTRY_BYTES;
+        out[offset] = buffer.getShort(position) / SCALE;
+        out[offset + 1] = buffer.getShort(position + Short.BYTES) / SCALE;
+        out[offset + 2] = buffer.getShort(position + 2 * Short.BYTES) / SCALE;
+    }
+
+    /**
+     * Build every plane up front instead of on first touch
+     */
+    public void warmUp() {
+        for (int plane = 0; plane < 256; plane++) {
+            if (builtPlanes.get(plane) == 0) {
+                buildPlane(plane);
+            }
+        }
+    }
+
+    public int getBuiltPlanes() {
+        int built = 0;
+        for (int plane = 0; plane < 256; plane++) {
+            built += builtPlanes.get(plane);
+        }
+        return built;
+    }
+
+    /**
+     * Flush built planes to disk
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    private synchronized void buildPlane(int r) {
+        if (builtPlanes.get(r) != 0) {
+            return;
+        }
+        double[] lab = new double[3];
+        int position = HEADER_SIZE + r * PLANE_COLORS * ENTRY_BYTES;
+        for (int g = 0; g < 256; g++) {
+            for (int b = 0; b < 256; b++) {
+                ColorSpaceConverter.computeLab(r, g, b, lab, 0);
+                buffer.putShort(position, (short) Math.round(lab[0] * SCALE));
+                buffer.putShort(position + Short.BYTES, (short) Math.round(lab[1] * SCALE));
+                buffer.putShort(position + 2 * Short.BYTES, (short) Math.round(lab[2] * SCALE));
+                position += ENTRY_BYTES;
+            }
+        }
+        // Flag after the data so a reopened file never trusts a half-written plane
+        buffer.put(FLAGS_OFFSET + r, (byte) 1);
+        builtPlanes.set(r, 1);
+    }
+}
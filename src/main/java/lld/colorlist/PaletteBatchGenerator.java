@@ -0,0 +1,66 @@
+package lld.colorlist;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates several palette types for many base colors in one pass.
+ * Each base color's HSV is computed at most once for all requested types, palettes come
+ * from a shared {@link PaletteCache} when possible, and large batches run on a parallel stream.
+ * Results equal {@link PaletteGenerator#generatePalette} for every (color, type).
+ */
+public class PaletteBatchGenerator {
+    private static final int DEFAULT_CACHE_CAPACITY = 64 * 1024;
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    private final PaletteCache cache;
+
+    public PaletteBatchGenerator() {
+        this(new PaletteCache(DEFAULT_CACHE_CAPACITY));
+    }
+
+    public PaletteBatchGenerator(PaletteCache cache) {
+        this.cache = cache;
+    }
+
+    public List<Color> generatePalette(Color baseColor, PaletteType type) {
+        return generate(baseColor, EnumSet.of(type)).get(type);
+    }
+
+    /**
+     * Palettes of every requested type for one base color
+     */
+    public Map<PaletteType, List<Color>> generate(Color baseColor, Set<PaletteType> types) {
+        Map<PaletteType, List<Color>> palettes = new EnumMap<>(PaletteType.class);
+        double[] hsv = null;
+        for (PaletteType type : types) {
+            PaletteGenerator.Template template = cache.get(baseColor, type);
+            if (template == null) {
+                if (hsv == null && PaletteGenerator.needsHsv(type)) {
+                    hsv = PaletteGenerator.hsvOf(baseColor); // Shared by the remaining types
+                }
+                template = PaletteGenerator.template(baseColor, hsv, type);
+                cache.put(baseColor, type, template);
+            }
+            palettes.put(type, template.materialize(baseColor));
+        }
+        return palettes;
+    }
+
+    /**
+     * Palettes for many base colors, in the order of baseColors
+     */
+    public List<Map<PaletteType, List<Color>>> generateBatch(List<Color> baseColors, Set<PaletteType> types) {
+        Set<PaletteType> requested = types.isEmpty() ? EnumSet.noneOf(PaletteType.class) : EnumSet.copyOf(types);
+        IntStream indexes = IntStream.range(0, baseColors.size());
+        if (baseColors.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        // Ordered collection keeps results aligned with the input even when parallel
+        return indexes.mapToObj(i -> generate(baseColors.get(i), requested))
+                .collect(Collectors.toList());
+    }
+
+    public PaletteCache getCache() { return cache; }
+}
@@ -0,0 +1,132 @@
+package lld.colorlist;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of palette templates keyed by (packed RGB, palette type).
+ * The capacity is split over lock stripes picked from the key, so parallel batch
+ * generation does not serialize on a single lock; eviction is LRU within a stripe.
+ */
+public class PaletteCache {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public PaletteCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        int perStripe = Math.max(1, (capacity + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    PaletteGenerator.Template get(Color baseColor, PaletteType type) {
+        int key = key(baseColor, type);
+        return stripe(key).get(key);
+    }
+
+    void put(Color baseColor, PaletteType type, PaletteGenerator.Template template) {
+        int key = key(baseColor, type);
+        stripe(key).put(key, template);
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+                misses += stripe.misses;
+                evictions += stripe.evictions;
+                size += stripe.entries.size();
+            }
+        }
+        return new CacheStats(size, hits, misses, evictions);
+    }
+
+    // 24-bit RGB and the type ordinal fit in one int
+    private static int key(Color color, PaletteType type) {
+        int rgb = (color.getRed() << 16) | (color.getGreen() << 8) | color.getBlue();
+        return (rgb << 4) | type.ordinal();
+    }
+
+    private Stripe stripe(int key) {
+        int hash = key * 0x9E3779B9;
+        return stripes[(hash >>> 28) & (STRIPES - 1)];
+    }
+
+    private static class Stripe {
+        private final LinkedHashMap<Integer, PaletteGenerator.Template> entries;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        Stripe(int capacity) {
+            // Access order turns the map into an LRU list
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, PaletteGenerator.Template> eldest) {
+                    if (size() > capacity) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized PaletteGenerator.Template get(int key) {
+            PaletteGenerator.Template template = entries.get(key);
+            if (template == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return template;
+        }
+
+        synchronized void put(int key, PaletteGenerator.Template template) {
+            entries.put(key, template);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+    public static class CacheStats {
+        public final int size;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+
+        public CacheStats(int size, long hits, long misses, long evictions) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PaletteCache{size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.2f}",
+                    size, hits, misses, evictions, getHitRate());
+        }
+    }
+}
@@ -6,253 +6,282 @@ import java.util.List;
 /**
  * Generator class for creating color palettes based on color theory
  * Implements various palette generation algorithms
+ *
+ * Palettes are built as {@link Template}s that depend only on the base RGB (and its HSV),
+ * so they can be cached and shared between base colors with different names.
  */
 public class PaletteGenerator {
-    
+
     /**
      * Generate color palette based on type and base color
      */
     public static List<Color> generatePalette(Color baseColor, PaletteType type) {
-        List<Color> palette = new ArrayList<>();
-        
+        double[] hsv = needsHsv(type) ? hsvOf(baseColor) : null;
+        return template(baseColor, hsv, type).materialize(baseColor);
+    }
+
+    static boolean needsHsv(PaletteType type) {
+        return type != PaletteType.MONOCHROMATIC && type != PaletteType.WARM && type != PaletteType.COOL;
+    }
+
+    static double[] hsvOf(Color color) {
+        double[] hsv = ColorUtils.rgbToHsv(color.getRed(), color.getGreen(), color.getBlue());
+        // rgbToHsv reports magenta-red hues as negative degrees, which hsvToRgb cannot map
+        if (hsv[0] < 0) {
+            hsv[0] += 360;
+        }
+        return hsv;
+    }
+
+    /**
+     * Build the palette for a base color; hsv may be null when {@link #needsHsv} is false
+     */
+    static Template template(Color baseColor, double[] hsv, PaletteType type) {
+        Template palette = new Template(baseColor);
+
         switch (type) {
             case MONOCHROMATIC:
-                palette = generateMonochromatic(baseColor);
+                generateMonochromatic(baseColor, palette);
                 break;
             case ANALOGOUS:
-                palette = generateAnalogous(baseColor);
+                generateAnalogous(hsv, palette);
                 break;
             case COMPLEMENTARY:
-                palette = generateComplementary(baseColor);
+                generateComplementary(baseColor, hsv, palette);
                 break;
             case TRIADIC:
-                palette = generateTriadic(baseColor);
+                generateTriadic(hsv, palette);
                 break;
             case TETRADIC:
-                palette = generateTetradic(baseColor);
+                generateTetradic(hsv, palette);
                 break;
             case SPLIT_COMPLEMENTARY:
-                palette = generateSplitComplementary(baseColor);
+                generateSplitComplementary(hsv, palette);
                 break;
             case WARM:
-                palette = generateWarmPalette(baseColor);
+                generateWarmPalette(palette);
                 break;
             case COOL:
-                palette = generateCoolPalette(baseColor);
+                generateCoolPalette(palette);
                 break;
             case PASTEL:
-                palette = generatePastelPalette(baseColor);
+                generatePastelPalette(hsv, palette);
                 break;
             case VIBRANT:
-                palette = generateVibrantPalette(baseColor);
+                generateVibrantPalette(hsv, palette);
                 break;
             default:
-                palette.add(baseColor);
+                palette.addBase();
         }
-        
+
         return palette;
     }
-    
+
     /**
      * Generate monochromatic palette (different shades and tints)
      */
-    private static List<Color> generateMonochromatic(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        
+    private static void generateMonochromatic(Color baseColor, Template palette) {
         // Add base color
-        palette.add(baseColor);
-        
+        palette.addBase();
+
         // Add darker shades
-        palette.add(baseColor.darken(0.2));
-        palette.add(baseColor.darken(0.4));
-        
+        palette.addDarkened(baseColor, 0.2);
+        palette.addDarkened(baseColor, 0.4);
+
         // Add lighter tints
-        palette.add(baseColor.lighten(0.2));
-        palette.add(baseColor.lighten(0.4));
-        
-        return palette;
+        palette.addLightened(baseColor, 0.2);
+        palette.addLightened(baseColor, 0.4);
     }
-    
+
     /**
      * Generate analogous palette (adjacent colors on color wheel)
      */
-    private static List<Color> generateAnalogous(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
-        palette.add(baseColor);
-        
+    private static void generateAnalogous(double[] hsv, Template palette) {
+        palette.addBase();
+
         // Generate colors 30 degrees apart
         for (int i = 1; i <= 2; i++) {
             double newHue = (hsv[0] + (30 * i)) % 360;
-            int[] rgb = ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]);
-            palette.add(new Color("Analogous " + i, rgb[0], rgb[1], rgb[2]));
+            palette.add("Analogous " + i, ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]));
         }
-        
+
         for (int i = 1; i <= 2; i++) {
             double newHue = (hsv[0] - (30 * i) + 360) % 360;
-            int[] rgb = ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]);
-            palette.add(new Color("Analogous -" + i, rgb[0], rgb[1], rgb[2]));
+            palette.add("Analogous -" + i, ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]));
         }
-        
-        return palette;
     }
-    
+
     /**
      * Generate complementary palette (opposite colors)
      */
-    private static List<Color> generateComplementary(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
-        palette.add(baseColor);
-        
+    private static void generateComplementary(Color baseColor, double[] hsv, Template palette) {
+        palette.addBase();
+
         // Add complementary color (180 degrees opposite)
         double complementaryHue = (hsv[0] + 180) % 360;
-        int[] rgb = ColorUtils.hsvToRgb(complementaryHue, hsv[1], hsv[2]);
-        palette.add(new Color("Complementary", rgb[0], rgb[1], rgb[2]));
-        
+        palette.add("Complementary", ColorUtils.hsvToRgb(complementaryHue, hsv[1], hsv[2]));
+
         // Add variations
-        palette.add(baseColor.lighten(0.2));
-        palette.add(baseColor.darken(0.2));
-        
-        int[] lightRgb = ColorUtils.hsvToRgb(complementaryHue, hsv[1] * 0.8, Math.min(hsv[2] * 1.2, 1.0));
-        palette.add(new Color("Light Complementary", lightRgb[0], lightRgb[1], lightRgb[2]));
-        
-        return palette;
+        palette.addLightened(baseColor, 0.2);
+        palette.addDarkened(baseColor, 0.2);
+
+        palette.add("Light Complementary",
+                ColorUtils.hsvToRgb(complementaryHue, hsv[1] * 0.8, Math.min(hsv[2] * 1.2, 1.0)));
     }
-    
+
     /**
      * Generate triadic palette (120 degrees apart)
      */
-    private static List<Color> generateTriadic(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
-        palette.add(baseColor);
-        
+    private static void generateTriadic(double[] hsv, Template palette) {
+        palette.addBase();
+
         // Add colors 120 degrees apart
         for (int i = 1; i <= 2; i++) {
             double newHue = (hsv[0] + (120 * i)) % 360;
-            int[] rgb = ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]);
-            palette.add(new Color("Triadic " + i, rgb[0], rgb[1], rgb[2]));
+            palette.add("Triadic " + i, ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]));
         }
-        
-        return palette;
     }
-    
+
     /**
      * Generate tetradic palette (rectangle on color wheel)
      */
-    private static List<Color> generateTetradic(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
-        palette.add(baseColor);
-        
+    private static void generateTetradic(double[] hsv, Template palette) {
+        palette.addBase();
+
         // Add colors 90 degrees apart
         for (int i = 1; i <= 3; i++) {
             double newHue = (hsv[0] + (90 * i)) % 360;
-            int[] rgb = ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]);
-            palette.add(new Color("Tetradic " + i, rgb[0], rgb[1], rgb[2]));
+            palette.add("Tetradic " + i, ColorUtils.hsvToRgb(newHue, hsv[1], hsv[2]));
         }
-        
-        return palette;
     }
-    
+
     /**
      * Generate split complementary palette
      */
-    private static List<Color> generateSplitComplementary(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
-        palette.add(baseColor);
-        
+    private static void generateSplitComplementary(double[] hsv, Template palette) {
+        palette.addBase();
+
         // Add colors adjacent to complement (150 and 210 degrees)
         double complementaryHue = (hsv[0] + 180) % 360;
-        
+
         double hue1 = (complementaryHue - 30 + 360) % 360;
         double hue2 = (complementaryHue + 30) % 360;
-        
-        int[] rgb1 = ColorUtils.hsvToRgb(hue1, hsv[1], hsv[2]);
-        int[] rgb2 = ColorUtils.hsvToRgb(hue2, hsv[1], hsv[2]);
-        
-        palette.add(new Color("Split Complement 1", rgb1[0], rgb1[1], rgb1[2]));
-        palette.add(new Color("Split Complement 2", rgb2[0], rgb2[1], rgb2[2]));
-        
-        return palette;
+
+        palette.add("Split Complement 1", ColorUtils.hsvToRgb(hue1, hsv[1], hsv[2]));
+        palette.add("Split Complement 2", ColorUtils.hsvToRgb(hue2, hsv[1], hsv[2]));
     }
-    
+
     /**
      * Generate warm color palette
      */
-    private static List<Color> generateWarmPalette(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        
+    private static void generateWarmPalette(Template palette) {
         // Warm colors: reds, oranges, yellows
-        palette.add(new Color("Warm Red", 255, 99, 71));
-        palette.add(new Color("Warm Orange", 255, 165, 0));
-        palette.add(new Color("Warm Yellow", 255, 215, 0));
-        palette.add(new Color("Warm Pink", 255, 182, 193));
-        palette.add(baseColor);
-        
-        return palette;
+        palette.add("Warm Red", 255, 99, 71);
+        palette.add("Warm Orange", 255, 165, 0);
+        palette.add("Warm Yellow", 255, 215, 0);
+        palette.add("Warm Pink", 255, 182, 193);
+        palette.addBase();
     }
-    
+
     /**
      * Generate cool color palette
      */
-    private static List<Color> generateCoolPalette(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        
+    private static void generateCoolPalette(Template palette) {
         // Cool colors: blues, greens, purples
-        palette.add(new Color("Cool Blue", 70, 130, 180));
-        palette.add(new Color("Cool Green", 32, 178, 170));
-        palette.add(new Color("Cool Purple", 138, 43, 226));
-        palette.add(new Color("Cool Cyan", 0, 191, 255));
-        palette.add(baseColor);
-        
-        return palette;
+        palette.add("Cool Blue", 70, 130, 180);
+        palette.add("Cool Green", 32, 178, 170);
+        palette.add("Cool Purple", 138, 43, 226);
+        palette.add("Cool Cyan", 0, 191, 255);
+        palette.addBase();
     }
-    
+
     /**
      * Generate pastel color palette
      */
-    private static List<Color> generatePastelPalette(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
+    private static void generatePastelPalette(double[] hsv, Template palette) {
         // Create pastel versions by reducing saturation and increasing value
         for (int i = 0; i < 5; i++) {
             double newHue = (hsv[0] + (72 * i)) % 360; // 72 degrees apart
             double newSaturation = Math.min(hsv[1] * 0.3, 0.3); // Low saturation
             double newValue = Math.max(hsv[2], 0.8); // High value
-            
-            int[] rgb = ColorUtils.hsvToRgb(newHue, newSaturation, newValue);
-            palette.add(new Color("Pastel " + i, rgb[0], rgb[1], rgb[2]));
+
+            palette.add("Pastel " + i, ColorUtils.hsvToRgb(newHue, newSaturation, newValue));
         }
-        
-        return palette;
     }
-    
+
     /**
      * Generate vibrant color palette
      */
-    private static List<Color> generateVibrantPalette(Color baseColor) {
-        List<Color> palette = new ArrayList<>();
-        double[] hsv = ColorUtils.rgbToHsv(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue());
-        
+    private static void generateVibrantPalette(double[] hsv, Template palette) {
         // Create vibrant versions by maximizing saturation
         for (int i = 0; i < 5; i++) {
             double newHue = (hsv[0] + (72 * i)) % 360; // 72 degrees apart
             double newSaturation = 1.0; // Maximum saturation
             double newValue = Math.max(hsv[2], 0.8); // High value
-            
-            int[] rgb = ColorUtils.hsvToRgb(newHue, newSaturation, newValue);
-            palette.add(new Color("Vibrant " + i, rgb[0], rgb[1], rgb[2]));
+
+            palette.add("Vibrant " + i, ColorUtils.hsvToRgb(newHue, newSaturation, newValue));
+        }
+    }
+
+    /**
+     * Built palette that can be reused for any base color with the same RGB. Colors named
+     * after the base (darken/lighten) are rebuilt only when the base name differs; the base
+     * entry is always the caller's instance. Immutable once built.
+     */
+    static class Template {
+        private static final int MAX_ENTRIES = 5;
+
+        private final String baseName;
+        private final Color[] colors = new Color[MAX_ENTRIES]; // null marks the base entry
+        private final String[] suffixes = new String[MAX_ENTRIES]; // non-null when named after the base
+        private int size;
+
+        Template(Color baseColor) {
+            this.baseName = baseColor.getName();
+        }
+
+        List<Color> materialize(Color baseColor) {
+            boolean sameName = baseName.equals(baseColor.getName());
+            List<Color> palette = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Color color = colors[i];
+                if (color == null) {
+                    palette.add(baseColor);
+                } else if (suffixes[i] != null && !sameName) {
+                    palette.add(new Color(baseColor.getName() + suffixes[i],
+                            color.getRed(), color.getGreen(), color.getBlue()));
+                } else {
+                    palette.add(color);
+                }
+            }
+            return palette;
+        }
+
+        int size() { return size; }
+
+        private void addBase() {
+            append(null, null);
+        }
+
+        private void add(String name, int[] rgb) {
+            add(name, rgb[0], rgb[1], rgb[2]);
+        }
+
+        private void add(String name, int red, int green, int blue) {
+            append(new Color(name, red, green, blue), null);
+        }
+
+        private void addDarkened(Color base, double percentage) {
+            append(base.darken(percentage), " (darkened)");
+        }
+
+        private void addLightened(Color base, double percentage) {
+            append(base.lighten(percentage), " (lightened)");
+        }
+
+        private void append(Color color, String suffix) {
+            colors[size] = color;
+            suffixes[size++] = suffix;
         }
-        
-        return palette;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package lld.colorlist;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Splits a large palette into fixed-size chunks and streams each chunk to its own file
+ * in parallel (e.g. brand-00001.css, brand-00002.css). Every file is a complete document
+ * in the requested format; workers share the exporter's buffer pool.
+ */
+public class ParallelColorExporter {
+    private final int chunkSize;
+    private final int threads;
+    private final ByteBufferPool pool;
+
+    public ParallelColorExporter(int chunkSize, int threads) {
+        this(chunkSize, threads, ByteBufferPool.shared());
+    }
+
+    public ParallelColorExporter(int chunkSize, int threads, ByteBufferPool pool) {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Chunk size and threads must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.pool = pool;
+    }
+
+    /**
+     * @return the written files, in chunk order
+     */
+    public List<Path> export(List<Color> colors, ExportFormat format, Path directory, String baseName)
+            throws IOException {
+        // Snapshot references so chunk boundaries stay stable under concurrent edits
+        List<Color> snapshot = new ArrayList<>(colors);
+        int chunks = Math.max(1, (snapshot.size() + chunkSize - 1) / chunkSize);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chunks));
+        try {
+            List<Future<Path>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * chunkSize;
+                List<Color> slice = snapshot.subList(from, Math.min(snapshot.size(), from + chunkSize));
+                Path file = directory.resolve(String.format("%s-%05d.%s", baseName, chunk + 1,
+                        format.getFileExtension()));
+                futures.add(executor.submit(() -> writeChunk(slice, format, file)));
+            }
+            List<Path> files = new ArrayList<>(chunks);
+            for (Future<Path> future : futures) {
+                files.add(future.get());
+            }
+            return files;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Export failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path writeChunk(List<Color> slice, ExportFormat format, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ColorExporter.export(slice, format, channel, pool);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,630 @@
+package lld.colorlist;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Persistent, compact color storage for one list, kept in its own directory.
+ *
+ * - base.seg: immutable compacted segment, memory-mapped for reads. Colors in list order as
+ *   (packed RGBA int, name id) followed by (RGBA, position) pairs sorted by RGBA for lookups.
+ * - names-&lt;generation&gt;.dict: append-only interned names (length-prefixed UTF-8)
+ * - delta.log: append-only adds/removes since the base was written
+ * In memory, recent changes live in a mutable delta (appended colors plus tombstones over
+ * base and delta positions), so adds and removes never copy the whole list.
+ * Compaction folds the delta into a new base. A generation number stamped into the base and
+ * the delta log makes the switch atomic: a log from an older generation is already contained
+ * in the base and is discarded on open.
+ * Positional reads (get, first, remove by index) find the n-th live color through Fenwick
+ * trees over the tombstones in O(log n).
+ * Every change is logged before it is applied in memory, so a failed write leaves memory as it
+ * was. A failed automatic compaction is not an error for the change that triggered it: the delta
+ * log stays authoritative, the failure is kept in {@link #getCompactionFailure} and compaction
+ * is retried after further changes.
+ *
+ * Only colors are persisted. List metadata (name, owner, sharing) is not; the service reopens
+ * a list's colors by id, see {@link ColorListService#reopenColorList}.
+ */
+public class SegmentColorStorage implements ColorStorage {
+    private static final int SEGMENT_MAGIC = 0x43534547; // "CSEG"
+    private static final int DELTA_MAGIC = 0x43444C54;   // "CDLT"
+    private static final int SEGMENT_HEADER = 12;        // magic, generation, count
+    private static final int DELTA_HEADER = 8;           // magic, generation
+    private static final int DELTA_RECORD = 9;           // op, rgba, name id
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int MIN_COMPACTION_OPS = 4096;
+    private static final int COMPACTION_RETRY_OPS = 256;
+    private static final int OPAQUE = 0xFF << 24;
+
+    private final Path directory;
+    private final boolean syncWrites;
+
+    // Base segment
+    private int generation;
+    private MappedByteBuffer base;
+    private int baseCount;
+    private BitSet removedFromBase = new BitSet();
+    private TombstoneIndex baseTombstones = new TombstoneIndex(0);
+    private int removedCount;
+
+    // Delta layer
+    private int[] deltaRgba = new int[16];
+    private int[] deltaNames = new int[16];
+    private int deltaCount;
+    private BitSet removedFromDelta = new BitSet();
+    private TombstoneIndex deltaTombstones = new TombstoneIndex(16);
+    private int removedDeltaCount;
+    private final Map<Integer, Integer> deltaPositions = new HashMap<>(); // rgba -> live delta index
+    private int opsSinceCompaction;
+    private int nextCompactionAttempt; // ops; raised after a failed compaction
+    private IOException compactionFailure;
+
+    // Name dictionary
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    private FileChannel deltaLog;
+    private boolean staleDeltaLog; // still of the previous generation; replaced before the next append
+    private FileChannel nameLog;
+    private final ByteBuffer record = ByteBuffer.allocate(DELTA_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+
+    private SegmentColorStorage(Path directory, boolean syncWrites) {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * Open (or create) the storage in a directory, recovering base, names and delta log
+     *
+     * @param syncWrites force every change to disk before returning
+     */
+    public static SegmentColorStorage open(Path directory, boolean syncWrites) throws IOException {
+        Files.createDirectories(directory);
+        SegmentColorStorage storage = new SegmentColorStorage(directory, syncWrites);
+        storage.recover();
+        return storage;
+    }
+
+    @Override
+    public synchronized boolean add(Color color) {
+        int rgba = pack(color);
+        if (containsPacked(rgba)) {
+            return false;
+        }
+        int nameId = intern(color.getName());
+        log(OP_ADD, rgba, nameId);
+        appendDelta(rgba, nameId);
+        maybeCompact();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Color color) {
+        int rgba = pack(color);
+        if (!containsPacked(rgba)) {
+            return false;
+        }
+        log(OP_REMOVE, rgba, 0);
+        removePacked(rgba);
+        maybeCompact();
+        return true;
+    }
+
+    @Override
+    public synchronized Color remove(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Color color = get(index);
+        remove(color);
+        return color;
+    }
+
+    @Override
+    public synchronized boolean contains(Color color) {
+        return containsPacked(pack(color));
+    }
+
+    @Override
+    public synchronized Color first() {
+        return size() == 0 ? null : get(0);
+    }
+
+    @Override
+    public synchronized int size() {
+        return baseCount - removedCount + deltaCount - removedDeltaCount;
+    }
+
+    /**
+     * Base colors are decoded straight from the mapped segment
+     */
+    @Override
+    public synchronized List<Color> snapshot() {
+        List<Color> colors = new ArrayList<>(size());
+        for (int i = 0; i < baseCount; i++) {
+            if (!removedFromBase.get(i)) {
+                colors.add(unpack(baseRgba(i), baseName(i)));
+            }
+        }
+        for (int i = 0; i < deltaCount; i++) {
+            if (!removedFromDelta.get(i)) {
+                colors.add(unpack(deltaRgba[i], deltaNames[i]));
+            }
+        }
+        return colors;
+    }
+
+    /**
+     * Fold the delta into a new base segment and start a fresh delta log.
+     * Moving the new base into place is the commit point; a failure before it leaves the current
+     * base, dictionary and delta log in use, and nothing after it can fail the compaction.
+     */
+    public synchronized void compact() throws IOException {
+        int next = generation + 1;
+        int count = size();
+        int[] rgba = new int[count];
+        String[] liveNames = new String[count];
+        int n = 0;
+        for (int i = 0; i < baseCount; i++) {
+            if (!removedFromBase.get(i)) {
+                rgba[n] = baseRgba(i);
+                liveNames[n++] = names.get(baseName(i));
+            }
+        }
+        for (int i = 0; i < deltaCount; i++) {
+            if (!removedFromDelta.get(i)) {
+                rgba[n] = deltaRgba[i];
+                liveNames[n++] = names.get(deltaNames[i]);
+            }
+        }
+
+        // New dictionary with only live names
+        List<String> nextNames = new ArrayList<>();
+        Map<String, Integer> nextIds = new HashMap<>();
+        int[] nameRefs = new int[count];
+        for (int i = 0; i < count; i++) {
+            nameRefs[i] = nextIds.computeIfAbsent(liveNames[i], name -> {
+                nextNames.add(name);
+                return nextNames.size() - 1;
+            });
+        }
+        Path nextDictionary = dictionary(next);
+        Path segment = directory.resolve("base.seg.tmp");
+        MappedByteBuffer nextBase;
+        FileChannel nextNameLog = null;
+        try {
+            writeNames(nextDictionary, nextNames);
+            writeSegment(segment, next, rgba, nameRefs);
+            nextBase = map(segment); // the mapping follows the file through the move
+            nextNameLog = FileChannel.open(nextDictionary, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            Files.move(segment, directory.resolve("base.seg"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            closeQuietly(nextNameLog);
+            deleteQuietly(segment);
+            deleteQuietly(nextDictionary);
+            throw e;
+        }
+
+        // Committed: the new base holds every color, so the old delta log is obsolete
+        Path previousDictionary = dictionary(generation);
+        closeQuietly(nameLog);
+        nameLog = nextNameLog;
+        names.clear();
+        names.addAll(nextNames);
+        nameIds.clear();
+        nameIds.putAll(nextIds);
+        useBase(nextBase);
+        removedFromBase = new BitSet();
+        removedCount = 0;
+        deltaCount = 0;
+        removedFromDelta = new BitSet();
+        deltaTombstones = new TombstoneIndex(deltaRgba.length);
+        removedDeltaCount = 0;
+        deltaPositions.clear();
+        opsSinceCompaction = 0;
+        nextCompactionAttempt = 0;
+        compactionFailure = null;
+        staleDeltaLog = true;
+        try {
+            resetDeltaLog(next);
+        } catch (IOException e) {
+            compactionFailure = e; // retried before the next append
+        }
+        deleteQuietly(previousDictionary); // otherwise removed on the next open
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (deltaLog != null) {
+            deltaLog.close();
+            nameLog.close();
+            deltaLog = null;
+            nameLog = null;
+        }
+        base = null;
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        close();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    // Getters
+    public synchronized int getGeneration() { return generation; }
+    public synchronized int getPendingOps() { return opsSinceCompaction; }
+    public synchronized IOException getCompactionFailure() { return compactionFailure; }
+
+    private void recover() throws IOException {
+        Path segment = directory.resolve("base.seg");
+        if (Files.exists(segment)) {
+            useBase(map(segment));
+        }
+        Path dictionary = dictionary(generation);
+        long namesLength = Files.exists(dictionary) ? readNames(dictionary) : 0;
+        nameLog = FileChannel.open(dictionary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        nameLog.truncate(namesLength); // Drop a torn tail so new appends stay aligned
+
+        Path delta = directory.resolve("delta.log");
+        long deltaLength = Files.exists(delta) ? replayDelta(delta) : -1;
+        if (deltaLength >= 0) {
+            deltaLog = FileChannel.open(delta, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            deltaLog.truncate(deltaLength);
+        } else {
+            resetDeltaLog(generation); // Missing, or already folded into the base
+        }
+        // Dictionaries of other generations are leftovers from an interrupted compaction
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "names-*.dict")) {
+            for (Path file : stale) {
+                if (!file.equals(dictionary)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private MappedByteBuffer map(Path segment) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (mapped.getInt(0) != SEGMENT_MAGIC) {
+            throw new IOException("Not a color segment: " + directory);
+        }
+        return mapped;
+    }
+
+    private void useBase(MappedByteBuffer mapped) {
+        base = mapped;
+        generation = base.getInt(4);
+        baseCount = base.getInt(8);
+        baseTombstones = new TombstoneIndex(baseCount);
+    }
+
+    // Returns the length of the valid log, or -1 if it belongs to another generation
+    private long replayDelta(Path delta) throws IOException {
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(delta)).order(ByteOrder.LITTLE_ENDIAN);
+        if (log.remaining() < DELTA_HEADER || log.getInt() != DELTA_MAGIC || log.getInt() != generation) {
+            return -1;
+        }
+        // A torn last record (crash mid-append) is ignored
+        while (log.remaining() >= DELTA_RECORD) {
+            byte op = log.get();
+            int rgba = log.getInt();
+            int nameId = log.getInt();
+            if (op == OP_ADD && !containsPacked(rgba) && nameId < names.size()) {
+                appendDelta(rgba, nameId);
+            } else if (op == OP_REMOVE) {
+                removePacked(rgba);
+            }
+            opsSinceCompaction++;
+        }
+        return log.position();
+    }
+
+    private void resetDeltaLog(int logGeneration) throws IOException {
+        Path tmp = directory.resolve("delta.log.tmp");
+        ByteBuffer header = ByteBuffer.allocate(DELTA_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(DELTA_MAGIC).putInt(logGeneration).flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            channel.force(true);
+        }
+        Path delta = directory.resolve("delta.log");
+        Files.move(tmp, delta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel previous = deltaLog;
+        deltaLog = FileChannel.open(delta, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        staleDeltaLog = false;
+        closeQuietly(previous);
+    }
+
+    private void writeSegment(Path file, int segmentGeneration, int[] rgba, int[] nameRefs) throws IOException {
+        int count = rgba.length;
+        long[] sorted = new long[count]; // rgba in the high half, position in the low half
+        for (int i = 0; i < count; i++) {
+            sorted[i] = ((long) rgba[i] << 32) | i;
+        }
+        Arrays.sort(sorted);
+
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_HEADER + count * 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(SEGMENT_MAGIC).putInt(segmentGeneration).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(rgba[i]).putInt(nameRefs[i]);
+        }
+        for (long entry : sorted) {
+            buffer.putInt((int) (entry >>> 32)).putInt((int) entry);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    private void writeNames(Path file, List<String> dictionary) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (String name : dictionary) {
+                writeFully(channel, encodeName(name));
+            }
+            channel.force(true);
+        }
+    }
+
+    // Returns the length of the valid dictionary
+    private long readNames(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(buffer.position() - Integer.BYTES);
+                break; // Torn append
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            String name = new String(bytes, StandardCharsets.UTF_8);
+            nameIds.putIfAbsent(name, names.size());
+            names.add(name);
+        }
+        return buffer.position();
+    }
+
+    private int intern(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        append(nameLog, encodeName(name));
+        names.add(name);
+        nameIds.put(name, names.size() - 1);
+        return names.size() - 1;
+    }
+
+    private void log(byte op, int rgba, int nameId) {
+        record.clear();
+        record.put(op).putInt(rgba).putInt(nameId).flip();
+        if (staleDeltaLog) {
+            try {
+                resetDeltaLog(generation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        append(deltaLog, record);
+        opsSinceCompaction++;
+    }
+
+    // A failed append is cut off again so later records stay aligned
+    private void append(FileChannel channel, ByteBuffer buffer) {
+        long size = -1;
+        try {
+            size = channel.size();
+            writeFully(channel, buffer);
+            if (syncWrites) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            if (size >= 0) {
+                try {
+                    channel.truncate(size);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The change that triggers compaction has already succeeded, so a failure is only recorded
+    private void maybeCompact() {
+        if (opsSinceCompaction < Math.max(MIN_COMPACTION_OPS, baseCount / 2)
+                || opsSinceCompaction < nextCompactionAttempt) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            compactionFailure = e;
+            nextCompactionAttempt = opsSinceCompaction + COMPACTION_RETRY_OPS;
+        }
+    }
+
+    private void appendDelta(int rgba, int nameId) {
+        if (deltaCount == deltaRgba.length) {
+            deltaRgba = Arrays.copyOf(deltaRgba, deltaCount * 2);
+            deltaNames = Arrays.copyOf(deltaNames, deltaCount * 2);
+            deltaTombstones = new TombstoneIndex(deltaRgba.length, removedFromDelta);
+        }
+        deltaRgba[deltaCount] = rgba;
+        deltaNames[deltaCount] = nameId;
+        deltaPositions.put(rgba, deltaCount++);
+    }
+
+    private boolean removePacked(int rgba) {
+        Integer deltaIndex = deltaPositions.remove(rgba);
+        if (deltaIndex != null) {
+            removedFromDelta.set(deltaIndex);
+            deltaTombstones.add(deltaIndex);
+            removedDeltaCount++;
+            return true;
+        }
+        int position = basePosition(rgba);
+        if (position >= 0 && !removedFromBase.get(position)) {
+            removedFromBase.set(position);
+            baseTombstones.add(position);
+            removedCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean containsPacked(int rgba) {
+        if (deltaPositions.containsKey(rgba)) {
+            return true;
+        }
+        int position = basePosition(rgba);
+        return position >= 0 && !removedFromBase.get(position);
+    }
+
+    // Binary search over the sorted (rgba, position) section of the mapped segment
+    private int basePosition(int rgba) {
+        int sortedStart = SEGMENT_HEADER + baseCount * 8;
+        int low = 0;
+        int high = baseCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = base.getInt(sortedStart + mid * 8);
+            if (value < rgba) {
+                low = mid + 1;
+            } else if (value > rgba) {
+                high = mid - 1;
+            } else {
+                return base.getInt(sortedStart + mid * 8 + 4);
+            }
+        }
+        return -1;
+    }
+
+    private Color get(int index) {
+        int liveInBase = baseCount - removedCount;
+        if (index < liveInBase) {
+            int i = baseTombstones.findLive(index);
+            return unpack(baseRgba(i), baseName(i));
+        }
+        int i = deltaTombstones.findLive(index - liveInBase);
+        return unpack(deltaRgba[i], deltaNames[i]);
+    }
+
+    private int baseRgba(int i) {
+        return base.getInt(SEGMENT_HEADER + i * 8);
+    }
+
+    private int baseName(int i) {
+        return base.getInt(SEGMENT_HEADER + i * 8 + 4);
+    }
+
+    private Color unpack(int rgba, int nameId) {
+        return new Color(names.get(nameId), (rgba >> 16) & 0xFF, (rgba >> 8) & 0xFF, rgba & 0xFF);
+    }
+
+    private Path dictionary(int dictionaryGeneration) {
+        return directory.resolve("names-" + dictionaryGeneration + ".dict");
+    }
+
+    private static int pack(Color color) {
+        return OPAQUE | (color.getRed() << 16) | (color.getGreen() << 8) | color.getBlue();
+    }
+
+    /**
+     * Fenwick tree counting tombstones by position, to find the n-th live position
+     */
+    private static class TombstoneIndex {
+        private final int[] tree; // 1-based
+
+        TombstoneIndex(int capacity) {
+            tree = new int[capacity + 1];
+        }
+
+        TombstoneIndex(int capacity, BitSet removed) {
+            this(capacity);
+            for (int i = removed.nextSetBit(0); i >= 0; i = removed.nextSetBit(i + 1)) {
+                tree[i + 1]++;
+            }
+            for (int i = 1; i < tree.length; i++) {
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        void add(int position) {
+            for (int i = position + 1; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+        }
+
+        // Position of the live entry with the given rank; the caller guarantees it exists
+        int findLive(int rank) {
+            int position = 0;
+            for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+                int next = position + step;
+                if (next < tree.length && step - tree[next] <= rank) {
+                    position = next;
+                    rank -= step - tree[next];
+                }
+            }
+            return position;
+        }
+    }
+
+    private static ByteBuffer encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(bytes.length).put(bytes).flip();
+        return buffer;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing more to write through it
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // A leftover is overwritten by the next compaction or removed on the next open
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
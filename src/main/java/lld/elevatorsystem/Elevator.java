@@ -16,6 +16,10 @@ public class Elevator {
     private Direction currentDirection;
     private ElevatorState state;
     
+    // Base door timing unit: opening and closing take one unit, staying open takes two
+    private final long doorDelayMillis;
+    private long floorsTraveled;
+    
     // Thread-safe collections for handling concurrent requests
     private final Set<Integer> destinationFloors;
     private final Set<Request> pendingRequests;
@@ -25,8 +29,17 @@ public class Elevator {
     private final Set<ElevatorObserver> observers;
     
     public Elevator(int elevatorId, int capacity, int initialFloor) {
+        this(elevatorId, capacity, initialFloor, 1000);
+    }
+    
+    /**
+     * Create an elevator with a custom door timing unit
+     * A delay of 0 skips door simulation entirely (used for accelerated replays)
+     */
+    public Elevator(int elevatorId, int capacity, int initialFloor, long doorDelayMillis) {
         this.elevatorId = elevatorId;
         this.capacity = capacity;
+        this.doorDelayMillis = doorDelayMillis;
         this.currentFloor = initialFloor;
         this.currentDirection = Direction.IDLE;
         this.state = ElevatorState.IDLE;
@@ -48,7 +61,11 @@ public class Elevator {
         }
         
         pendingRequests.add(request);
-        destinationFloors.add(request.getDestinationFloor());
+        // Visit the pickup floor first; hall calls carry no destination (-1) until the passenger boards
+        destinationFloors.add(request.getSourceFloor());
+        if (request.getType() == Request.RequestType.INTERNAL) {
+            destinationFloors.add(request.getDestinationFloor());
+        }
         
         // Group requests by floor for efficient processing
         floorRequests.computeIfAbsent(request.getSourceFloor(), k -> new CopyOnWriteArraySet<>())
@@ -91,6 +108,7 @@ public class Elevator {
             state = ElevatorState.MOVING_DOWN;
             currentFloor--;
         }
+        floorsTraveled++;
         
         notifyObservers(String.format("Elevator %d moved to floor %d", elevatorId, currentFloor));
         
@@ -109,11 +127,7 @@ public class Elevator {
         notifyObservers(String.format("Elevator %d opening doors at floor %d", elevatorId, currentFloor));
         
         // Simulate door opening time
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        pause(doorDelayMillis);
         
         state = ElevatorState.DOORS_OPEN;
         
@@ -121,21 +135,13 @@ public class Elevator {
         processFloorRequests(currentFloor);
         
         // Simulate door open time
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        pause(2 * doorDelayMillis);
         
         state = ElevatorState.DOORS_CLOSING;
         notifyObservers(String.format("Elevator %d closing doors at floor %d", elevatorId, currentFloor));
         
         // Simulate door closing time
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        pause(doorDelayMillis);
         
         // Remove current floor from destinations
         destinationFloors.remove(currentFloor);
@@ -150,19 +156,33 @@ public class Elevator {
         }
     }
     
+    /**
+     * Sleep for the given door delay, skipping the call entirely when it is zero
+     */
+    private void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     /**
      * Process all requests for the given floor
      */
     private void processFloorRequests(int floor) {
         Set<Request> floorReqs = floorRequests.get(floor);
         if (floorReqs != null) {
-            Iterator<Request> iterator = floorReqs.iterator();
-            while (iterator.hasNext()) {
-                Request request = iterator.next();
+            // Copy-on-write iterators are snapshots and do not support remove()
+            for (Request request : floorReqs) {
                 if (request.getSourceFloor() == floor || request.getDestinationFloor() == floor) {
                     pendingRequests.remove(request);
-                    iterator.remove();
+                    floorReqs.remove(request);
                     notifyObservers("Processed request: " + request);
+                    notifyRequestServed(request, floor);
                 }
             }
             
@@ -296,6 +316,12 @@ public class Elevator {
         }
     }
     
+    private void notifyRequestServed(Request request, int floor) {
+        for (ElevatorObserver observer : observers) {
+            observer.onRequestServed(elevatorId, request, floor);
+        }
+    }
+    
     // Getters
     public int getElevatorId() { return elevatorId; }
     public int getCurrentFloor() { return currentFloor; }
@@ -304,6 +330,7 @@ public class Elevator {
     public int getCapacity() { return capacity; }
     public int getLoadCount() { return destinationFloors.size(); }
     public boolean isIdle() { return state == ElevatorState.IDLE; }
+    public long getFloorsTraveled() { return floorsTraveled; }
     
     // Emergency and maintenance methods
     public void setMaintenanceMode() {
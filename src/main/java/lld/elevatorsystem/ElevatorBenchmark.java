@@ -0,0 +1,289 @@
+package lld.elevatorsystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replay-driven benchmark harness for {@link ElevatorSchedulingStrategy} implementations
+ *
+ * Traces are pushed through a real {@link ElevatorControlSystem} running in manual mode:
+ * no background threads and no door delays, one {@link ElevatorControlSystem#tick()} per
+ * simulated movement step. This lets hours of building traffic replay in milliseconds
+ * while exercising exactly the same dispatch and movement code as the live system.
+ *
+ * Reported metrics: throughput, average/p95 wait, floors traveled (energy proxy)
+ * and CPU cost per dispatch decision.
+ */
+public class ElevatorBenchmark {
+    // ElevatorControlSystem moves each elevator one floor every 2 seconds
+    public static final int SECONDS_PER_TICK = 2;
+    private static final long DEFAULT_MAX_DRAIN_TICKS = 10_000;
+
+    private final int numElevators;
+    private final int numFloors;
+    private final int elevatorCapacity;
+    private final long maxDrainTicks;
+
+    public ElevatorBenchmark(int numElevators, int numFloors, int elevatorCapacity) {
+        this(numElevators, numFloors, elevatorCapacity, DEFAULT_MAX_DRAIN_TICKS);
+    }
+
+    /**
+     * @param maxDrainTicks How long to keep simulating after the last trace entry before
+     *                      counting still-waiting passengers as unserved
+     */
+    public ElevatorBenchmark(int numElevators, int numFloors, int elevatorCapacity, long maxDrainTicks) {
+        this.numElevators = numElevators;
+        this.numFloors = numFloors;
+        this.elevatorCapacity = elevatorCapacity;
+        this.maxDrainTicks = maxDrainTicks;
+    }
+
+    /**
+     * Replay a trace against a fresh control system using the given strategy
+     */
+    public BenchmarkReport run(ElevatorSchedulingStrategy strategy, TrafficTrace trace) {
+        TimedSchedulingStrategy timedStrategy = new TimedSchedulingStrategy(strategy);
+        WaitTracker tracker = new WaitTracker(trace.size());
+
+        // Per-request INFO logging would dominate the replay cost
+        Logger systemLogger = Logger.getLogger(ElevatorControlSystem.class.getName());
+        Level previousLevel = systemLogger.getLevel();
+        systemLogger.setLevel(Level.WARNING);
+
+        long wallStart = System.nanoTime();
+        ElevatorControlSystem system = new ElevatorControlSystem(
+            numElevators, numFloors, elevatorCapacity, timedStrategy, 0, false
+        );
+        try {
+            system.addElevatorObserver(tracker);
+
+            List<TrafficTrace.TraceEntry> entries = trace.getEntries();
+            long deadline = trace.getLastTick() + maxDrainTicks;
+            int next = 0;
+            long tick = 0;
+            while ((next < entries.size() || tracker.hasWaiting()) && tick <= deadline) {
+                tracker.currentTick = tick;
+                while (next < entries.size() && entries.get(next).getTick() <= tick) {
+                    submit(system, entries.get(next++), tracker);
+                }
+                system.tick();
+                tick++;
+            }
+
+            long wallNanos = System.nanoTime() - wallStart;
+            return new BenchmarkReport(
+                strategy.getStrategyName(), trace.getName(), trace.size(),
+                tracker.servedCount, tracker.waitingCount, tracker.rejectedCount, tick,
+                tracker.sortedWaits(), system.getTotalFloorsTraveled(),
+                timedStrategy.getDecisions(), timedStrategy.getAverageNanosPerDecision(),
+                timedStrategy.getMaxNanos(), wallNanos / 1_000_000
+            );
+        } finally {
+            system.shutdown();
+            systemLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Replay the same trace against several strategies
+     */
+    public List<BenchmarkReport> compare(List<ElevatorSchedulingStrategy> strategies, TrafficTrace trace) {
+        List<BenchmarkReport> reports = new ArrayList<>();
+        for (ElevatorSchedulingStrategy strategy : strategies) {
+            reports.add(run(strategy, trace));
+        }
+        return reports;
+    }
+
+    private void submit(ElevatorControlSystem system, TrafficTrace.TraceEntry entry, WaitTracker tracker) {
+        boolean accepted = entry.isHallCall()
+            ? system.requestElevator(entry.getSourceFloor(), entry.getDirection())
+            : system.requestFloor(entry.getSourceFloor(), entry.getDestinationFloor());
+        if (accepted) {
+            tracker.arrive(entry.toRequest());
+        } else {
+            tracker.rejectedCount++;
+        }
+    }
+
+    /**
+     * Observer that matches pickups to waiting passengers
+     * Equal requests share one hall/car call, so a single pickup boards every passenger waiting on it
+     */
+    private static class WaitTracker implements ElevatorObserver {
+        private final Map<Request, ArrayDeque<Long>> waiting = new HashMap<>();
+        private long[] waits;
+        private long currentTick;
+        private int servedCount;
+        private int waitingCount;
+        private int rejectedCount;
+
+        WaitTracker(int expectedPassengers) {
+            this.waits = new long[Math.max(16, expectedPassengers)];
+        }
+
+        void arrive(Request request) {
+            waiting.computeIfAbsent(request, k -> new ArrayDeque<>()).add(currentTick);
+            waitingCount++;
+        }
+
+        boolean hasWaiting() {
+            return waitingCount > 0;
+        }
+
+        @Override
+        public void onElevatorEvent(int elevatorId, String message) {
+            // Only structured pickup events are needed
+        }
+
+        @Override
+        public void onRequestServed(int elevatorId, Request request, int floor) {
+            ArrayDeque<Long> arrivals = waiting.remove(request);
+            if (arrivals == null) {
+                return;
+            }
+            for (long arrivalTick : arrivals) {
+                if (servedCount == waits.length) {
+                    waits = Arrays.copyOf(waits, waits.length * 2);
+                }
+                waits[servedCount++] = currentTick - arrivalTick;
+            }
+            waitingCount -= arrivals.size();
+        }
+
+        long[] sortedWaits() {
+            long[] result = Arrays.copyOf(waits, servedCount);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * Result of replaying one trace with one strategy
+     */
+    public static class BenchmarkReport {
+        public final String strategyName;
+        public final String traceName;
+        public final int passengers;
+        public final int served;
+        public final int unserved;
+        public final int rejected;
+        public final long simulatedTicks;
+        public final double averageWaitSeconds;
+        public final double p95WaitSeconds;
+        public final double maxWaitSeconds;
+        public final long floorsTraveled;
+        public final long dispatchDecisions;
+        public final double averageDecisionNanos;
+        public final long maxDecisionNanos;
+        public final long wallMillis;
+
+        BenchmarkReport(String strategyName, String traceName, int passengers, int served, int unserved,
+                        int rejected, long simulatedTicks, long[] sortedWaitTicks, long floorsTraveled,
+                        long dispatchDecisions, double averageDecisionNanos, long maxDecisionNanos,
+                        long wallMillis) {
+            this.strategyName = strategyName;
+            this.traceName = traceName;
+            this.passengers = passengers;
+            this.served = served;
+            this.unserved = unserved;
+            this.rejected = rejected;
+            this.simulatedTicks = simulatedTicks;
+            this.averageWaitSeconds = average(sortedWaitTicks) * SECONDS_PER_TICK;
+            this.p95WaitSeconds = percentile(sortedWaitTicks, 0.95) * SECONDS_PER_TICK;
+            this.maxWaitSeconds = sortedWaitTicks.length == 0 ? 0
+                : sortedWaitTicks[sortedWaitTicks.length - 1] * SECONDS_PER_TICK;
+            this.floorsTraveled = floorsTraveled;
+            this.dispatchDecisions = dispatchDecisions;
+            this.averageDecisionNanos = averageDecisionNanos;
+            this.maxDecisionNanos = maxDecisionNanos;
+            this.wallMillis = wallMillis;
+        }
+
+        /**
+         * Passengers picked up per simulated minute
+         */
+        public double getThroughputPerMinute() {
+            double minutes = simulatedTicks * SECONDS_PER_TICK / 60.0;
+            return minutes == 0 ? 0 : served / minutes;
+        }
+
+        private static double average(long[] values) {
+            if (values.length == 0) return 0;
+            double sum = 0;
+            for (long value : values) {
+                sum += value;
+            }
+            return sum / values.length;
+        }
+
+        // Nearest-rank percentile on an already sorted array
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(fraction * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%s on %s%n" +
+                "  Passengers: %d (served=%d, unserved=%d, rejected=%d)%n" +
+                "  Simulated: %d ticks (%.1f min), throughput %.2f pax/min%n" +
+                "  Wait: avg=%.1fs p95=%.1fs max=%.1fs%n" +
+                "  Floors traveled: %d (%.2f per passenger)%n" +
+                "  Dispatch: %d decisions, avg=%.0fns max=%dns%n" +
+                "  Wall time: %d ms",
+                strategyName, traceName, passengers, served, unserved, rejected,
+                simulatedTicks, simulatedTicks * SECONDS_PER_TICK / 60.0, getThroughputPerMinute(),
+                averageWaitSeconds, p95WaitSeconds, maxWaitSeconds,
+                floorsTraveled, served == 0 ? 0.0 : (double) floorsTraveled / served,
+                dispatchDecisions, averageDecisionNanos, maxDecisionNanos, wallMillis);
+        }
+    }
+
+    /**
+     * Usage: ElevatorBenchmark [PROFILE|DEMO|trace-file] [passengers] [seed]
+     * Without arguments every traffic profile and the demo scenarios are replayed
+     */
+    public static void main(String[] args) throws IOException {
+        int passengers = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        List<ElevatorSchedulingStrategy> strategies = List.of(new SCANSchedulingStrategy());
+        // Same building as ElevatorSystemDemo for the demo scenarios, a larger tower for profiles
+        ElevatorBenchmark demoBuilding = new ElevatorBenchmark(3, 10, 8);
+        ElevatorBenchmark tower = new ElevatorBenchmark(6, 25, 12);
+
+        List<BenchmarkReport> reports = new ArrayList<>();
+        if (args.length == 0 || args[0].equalsIgnoreCase("DEMO")) {
+            reports.addAll(demoBuilding.compare(strategies, TrafficTrace.demoScenarios()));
+        }
+        if (args.length == 0) {
+            for (TrafficProfile profile : TrafficProfile.values()) {
+                reports.addAll(tower.compare(strategies,
+                    TrafficTrace.generate(profile, tower.numFloors, passengers, 0.5, seed)));
+            }
+        } else if (!args[0].equalsIgnoreCase("DEMO")) {
+            Path path = Paths.get(args[0]);
+            TrafficTrace trace = Files.exists(path)
+                ? TrafficTrace.load(path)
+                : TrafficTrace.generate(TrafficProfile.valueOf(args[0].toUpperCase()),
+                                        tower.numFloors, passengers, 0.5, seed);
+            reports.addAll(tower.compare(strategies, trace));
+        }
+
+        System.out.println("🏁 Elevator Scheduling Benchmark");
+        System.out.println("================================");
+        for (BenchmarkReport report : reports) {
+            System.out.println(report);
+            System.out.println();
+        }
+    }
+}
@@ -24,17 +24,34 @@ public class ElevatorControlSystem implements ElevatorObserver {
     private final Map<String, Integer> statistics;
     
     public ElevatorControlSystem(int numElevators, int numFloors, int elevatorCapacity) {
+        this(numElevators, numFloors, elevatorCapacity, new SCANSchedulingStrategy()); // Default strategy
+    }
+    
+    public ElevatorControlSystem(int numElevators, int numFloors, int elevatorCapacity,
+                                 ElevatorSchedulingStrategy schedulingStrategy) {
+        this(numElevators, numFloors, elevatorCapacity, schedulingStrategy, 1000, true);
+    }
+    
+    /**
+     * Full constructor
+     * @param doorDelayMillis Door timing unit passed to every elevator (0 disables door simulation)
+     * @param autoStart When false no background threads are started and the caller drives
+     *                  the system with {@link #tick()} (used by the benchmark harness)
+     */
+    ElevatorControlSystem(int numElevators, int numFloors, int elevatorCapacity,
+                          ElevatorSchedulingStrategy schedulingStrategy,
+                          long doorDelayMillis, boolean autoStart) {
         this.numFloors = numFloors;
         this.elevators = new ArrayList<>();
         this.pendingRequests = new ConcurrentLinkedQueue<>();
-        this.schedulingStrategy = new SCANSchedulingStrategy(); // Default strategy
+        this.schedulingStrategy = schedulingStrategy;
         this.executorService = Executors.newScheduledThreadPool(numElevators + 2);
         this.floorRequests = new ConcurrentHashMap<>();
         this.statistics = new ConcurrentHashMap<>();
         
         // Initialize elevators
         for (int i = 1; i <= numElevators; i++) {
-            Elevator elevator = new Elevator(i, elevatorCapacity, 1); // Start at ground floor
+            Elevator elevator = new Elevator(i, elevatorCapacity, 1, doorDelayMillis); // Start at ground floor
             elevator.addObserver(this);
             elevators.add(elevator);
         }
@@ -45,8 +62,10 @@ public class ElevatorControlSystem implements ElevatorObserver {
         statistics.put("averageWaitTime", 0);
         
         // Start processing requests
-        startRequestProcessor();
-        startElevatorMovement();
+        if (autoStart) {
+            startRequestProcessor();
+            startElevatorMovement();
+        }
         
         logger.info(String.format("Elevator Control System initialized with %d elevators, %d floors", 
                                 numElevators, numFloors));
@@ -167,6 +186,45 @@ public class ElevatorControlSystem implements ElevatorObserver {
         }
     }
     
+    /**
+     * Advance the system by one step: dispatch pending requests, then move every elevator one floor.
+     * Only meaningful when the system was created without background threads.
+     */
+    void tick() {
+        processRequests();
+        for (Elevator elevator : elevators) {
+            elevator.move();
+        }
+    }
+    
+    /**
+     * Register an additional observer on every elevator
+     */
+    public void addElevatorObserver(ElevatorObserver observer) {
+        for (Elevator elevator : elevators) {
+            elevator.addObserver(observer);
+        }
+    }
+    
+    /**
+     * Total floors traveled by all elevators, used as an energy proxy
+     */
+    public long getTotalFloorsTraveled() {
+        long total = 0;
+        for (Elevator elevator : elevators) {
+            total += elevator.getFloorsTraveled();
+        }
+        return total;
+    }
+    
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
+    
+    public ElevatorSchedulingStrategy getSchedulingStrategy() {
+        return schedulingStrategy;
+    }
+    
     /**
      * Get system status
      */
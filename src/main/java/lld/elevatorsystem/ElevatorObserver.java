@@ -11,4 +11,13 @@ public interface ElevatorObserver {
      * @param message Event message
      */
     void onElevatorEvent(int elevatorId, String message);
+    
+    /**
+     * Called when an elevator picks up a request at its source floor
+     * @param elevatorId ID of the elevator
+     * @param request The request that was served
+     * @param floor Floor at which it was served
+     */
+    default void onRequestServed(int elevatorId, Request request, int floor) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package lld.elevatorsystem;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Decorator that measures the cost of every dispatch decision made by a wrapped strategy
+ * Uses thread CPU time when the JVM supports it, wall-clock nanoseconds otherwise
+ */
+public class TimedSchedulingStrategy implements ElevatorSchedulingStrategy {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final ElevatorSchedulingStrategy delegate;
+    private final boolean cpuTimeSupported;
+    private long decisions;
+    private long totalNanos;
+    private long maxNanos;
+
+    public TimedSchedulingStrategy(ElevatorSchedulingStrategy delegate) {
+        this.delegate = delegate;
+        this.cpuTimeSupported = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+    }
+
+    @Override
+    public synchronized Elevator selectElevator(List<Elevator> elevators, Request request) {
+        long start = now();
+        Elevator selected = delegate.selectElevator(elevators, request);
+        long elapsed = now() - start;
+
+        decisions++;
+        totalNanos += elapsed;
+        maxNanos = Math.max(maxNanos, elapsed);
+        return selected;
+    }
+
+    private long now() {
+        return cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    @Override
+    public String getStrategyName() {
+        return delegate.getStrategyName();
+    }
+
+    // Getters
+    public synchronized long getDecisions() { return decisions; }
+    public synchronized long getTotalNanos() { return totalNanos; }
+    public synchronized long getMaxNanos() { return maxNanos; }
+    public boolean isCpuTimeSupported() { return cpuTimeSupported; }
+
+    public synchronized double getAverageNanosPerDecision() {
+        return decisions == 0 ? 0 : (double) totalNanos / decisions;
+    }
+}
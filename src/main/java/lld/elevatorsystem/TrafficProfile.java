@@ -0,0 +1,52 @@
+package lld.elevatorsystem;
+
+import java.util.Random;
+
+/**
+ * Canonical building traffic patterns used by the benchmark harness
+ * Each profile decides the source and destination floor of the next passenger trip
+ * (floor 1 is the lobby)
+ */
+public enum TrafficProfile {
+    /** Morning arrivals: almost everyone travels from the lobby upwards */
+    UP_PEAK(0.90, 0.05),
+    /** Evening departures: almost everyone travels down to the lobby */
+    DOWN_PEAK(0.05, 0.90),
+    /** Lunch hour: people leave and return through the lobby in equal measure */
+    LUNCH(0.45, 0.45),
+    /** Meetings and visits between floors, lobby not favoured */
+    INTER_FLOOR(0.0, 0.0);
+
+    private final double fromLobbyShare;
+    private final double toLobbyShare;
+
+    TrafficProfile(double fromLobbyShare, double toLobbyShare) {
+        this.fromLobbyShare = fromLobbyShare;
+        this.toLobbyShare = toLobbyShare;
+    }
+
+    /**
+     * Generate the next trip for this profile
+     * @return two-element array {sourceFloor, destinationFloor}, floors never equal
+     */
+    public int[] nextTrip(Random random, int numFloors) {
+        double roll = random.nextDouble();
+        if (roll < fromLobbyShare) {
+            return new int[]{1, randomUpperFloor(random, numFloors)};
+        }
+        if (roll < fromLobbyShare + toLobbyShare) {
+            return new int[]{randomUpperFloor(random, numFloors), 1};
+        }
+
+        int source = 1 + random.nextInt(numFloors);
+        int destination = 1 + random.nextInt(numFloors - 1);
+        if (destination >= source) {
+            destination++;
+        }
+        return new int[]{source, destination};
+    }
+
+    private static int randomUpperFloor(Random random, int numFloors) {
+        return 2 + random.nextInt(numFloors - 1);
+    }
+}
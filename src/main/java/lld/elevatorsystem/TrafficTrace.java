@@ -0,0 +1,177 @@
+package lld.elevatorsystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Immutable, tick-ordered list of passenger requests replayed by {@link ElevatorBenchmark}
+ * Traces are either generated from a {@link TrafficProfile} with a fixed seed or loaded from a recording
+ *
+ * Recording format (one request per line, '#' starts a comment):
+ *   tick,sourceFloor,destinationFloor   - car call / full trip
+ *   tick,floor,UP|DOWN                  - hall call
+ */
+public class TrafficTrace {
+    private final String name;
+    private final List<TraceEntry> entries;
+
+    public TrafficTrace(String name, List<TraceEntry> entries) {
+        List<TraceEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(TraceEntry::getTick));
+        this.name = name;
+        this.entries = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Generate a seeded trace with exponentially distributed inter-arrival times
+     * @param arrivalsPerTick Mean number of new passengers per simulation tick
+     */
+    public static TrafficTrace generate(TrafficProfile profile, int numFloors, int passengers,
+                                        double arrivalsPerTick, long seed) {
+        if (numFloors < 2) {
+            throw new IllegalArgumentException("A building needs at least 2 floors");
+        }
+        if (arrivalsPerTick <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+
+        Random random = new Random(seed);
+        List<TraceEntry> entries = new ArrayList<>(passengers);
+        double clock = 0;
+        for (int i = 0; i < passengers; i++) {
+            clock += -Math.log(1 - random.nextDouble()) / arrivalsPerTick;
+            int[] trip = profile.nextTrip(random, numFloors);
+            entries.add(TraceEntry.trip((long) clock, trip[0], trip[1]));
+        }
+        return new TrafficTrace(String.format("%s(seed=%d)", profile, seed), entries);
+    }
+
+    /**
+     * Replay of the request pattern used by {@link ElevatorSystemDemo#main}, one tick per movement step
+     */
+    public static TrafficTrace demoScenarios() {
+        List<TraceEntry> entries = new ArrayList<>();
+        // Scenario 1: basic elevator requests
+        entries.add(TraceEntry.hallCall(0, 5, Direction.UP));
+        entries.add(TraceEntry.hallCall(0, 3, Direction.DOWN));
+        entries.add(TraceEntry.trip(0, 1, 8));
+        entries.add(TraceEntry.trip(0, 7, 2));
+        // Scenario 2: heavy load simulation
+        for (int i = 1; i <= 10; i++) {
+            entries.add(TraceEntry.hallCall(3, i, (i % 2 == 0) ? Direction.UP : Direction.DOWN));
+        }
+        // Scenarios 3 and 4: requests issued around maintenance and emergency stop
+        entries.add(TraceEntry.hallCall(8, 4, Direction.UP));
+        entries.add(TraceEntry.hallCall(8, 6, Direction.DOWN));
+        entries.add(TraceEntry.hallCall(11, 8, Direction.DOWN));
+        return new TrafficTrace("DEMO_SCENARIOS", entries);
+    }
+
+    /**
+     * Load a recorded trace from disk
+     */
+    public static TrafficTrace load(Path path) throws IOException {
+        List<TraceEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                entries.add(parseLine(line, lineNumber));
+            }
+        }
+        return new TrafficTrace(path.getFileName().toString(), entries);
+    }
+
+    private static TraceEntry parseLine(String line, int lineNumber) {
+        String[] parts = line.split("\\s*,\\s*");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected 3 fields but got " + parts.length);
+        }
+        try {
+            long tick = Long.parseLong(parts[0]);
+            int source = Integer.parseInt(parts[1]);
+            String third = parts[2].toUpperCase();
+            if (third.equals("UP") || third.equals("DOWN")) {
+                return TraceEntry.hallCall(tick, source, Direction.valueOf(third));
+            }
+            return TraceEntry.trip(tick, source, Integer.parseInt(third));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getName() { return name; }
+    public List<TraceEntry> getEntries() { return entries; }
+    public int size() { return entries.size(); }
+
+    public long getLastTick() {
+        return entries.isEmpty() ? 0 : entries.get(entries.size() - 1).getTick();
+    }
+
+    /**
+     * A single passenger request arriving at a given tick
+     * Hall calls use destinationFloor -1, mirroring {@link Request#createExternalRequest}
+     */
+    public static class TraceEntry {
+        private final long tick;
+        private final int sourceFloor;
+        private final int destinationFloor;
+        private final Direction direction;
+
+        private TraceEntry(long tick, int sourceFloor, int destinationFloor, Direction direction) {
+            this.tick = tick;
+            this.sourceFloor = sourceFloor;
+            this.destinationFloor = destinationFloor;
+            this.direction = direction;
+        }
+
+        public static TraceEntry trip(long tick, int sourceFloor, int destinationFloor) {
+            Direction direction = sourceFloor < destinationFloor ? Direction.UP : Direction.DOWN;
+            return new TraceEntry(tick, sourceFloor, destinationFloor, direction);
+        }
+
+        public static TraceEntry hallCall(long tick, int floor, Direction direction) {
+            return new TraceEntry(tick, floor, -1, direction);
+        }
+
+        public boolean isHallCall() { return destinationFloor < 0; }
+
+        /**
+         * The request the control system will create for this entry (Request equality ignores the timestamp)
+         */
+        public Request toRequest() {
+            return isHallCall()
+                ? Request.createExternalRequest(sourceFloor, direction)
+                : Request.createInternalRequest(sourceFloor, destinationFloor);
+        }
+
+        // Getters
+        public long getTick() { return tick; }
+        public int getSourceFloor() { return sourceFloor; }
+        public int getDestinationFloor() { return destinationFloor; }
+        public Direction getDirection() { return direction; }
+
+        @Override
+        public String toString() {
+            return isHallCall()
+                ? String.format("%d,%d,%s", tick, sourceFloor, direction)
+                : String.format("%d,%d,%d", tick, sourceFloor, destinationFloor);
+        }
+    }
+}
@@ -2,35 +2,25 @@ package lld.musicstreaming;
 
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-public class ArtistBasedRecommendationStrategy implements RecommendationStrategy {
+public class ArtistBasedRecommendationStrategy implements ScoredRecommendationStrategy {
     
     @Override
-    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
+    public SongScorer createScorer(User user, List<Song> allSongs) {
+        RecommendationContext context = RecommendationContext.of(user, 0);
         Set<String> topArtists = user.getTopArtists(5);
-        
-        return allSongs.stream()
-                .filter(song -> topArtists.contains(song.getArtist()))
-                .filter(song -> !user.getLikedSongs().contains(song))
-                .filter(song -> !user.getRecentlyPlayed().contains(song))
-                .sorted((s1, s2) -> {
-                    // First sort by artist play count, then by song rating
-                    int artistComparison = Integer.compare(
-                            user.getArtistPlayCount().getOrDefault(s2.getArtist(), 0),
-                            user.getArtistPlayCount().getOrDefault(s1.getArtist(), 0)
-                    );
-                    if (artistComparison != 0) {
-                        return artistComparison;
-                    }
-                    return Double.compare(s2.getRating(), s1.getRating());
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
+
+        return song -> {
+            if (!topArtists.contains(song.getArtist()) || context.isExcluded(song)) {
+                return SongScorer.NOT_ELIGIBLE;
+            }
+            // First sort by artist play count, then by song rating (ratings are < 10)
+            return context.getArtistPlayCount(song.getArtist()) * 10.0 + song.getRating();
+        };
     }
 
     @Override
     public String getStrategyName() {
         return "Artist-Based Recommendation";
     }
-}
\ No newline at end of file
+}
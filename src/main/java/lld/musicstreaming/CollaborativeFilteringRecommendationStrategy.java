@@ -0,0 +1,66 @@
+package lld.musicstreaming;
+
+import java.util.*;
+
+/**
+ * Item-item collaborative filtering served from a precomputed {@link ItemSimilarityFile}.
+ * Each liked or recently played song votes for its stored neighbours, weighted by similarity;
+ * only seed x neighbours entries are read, independent of catalog size.
+ */
+public class CollaborativeFilteringRecommendationStrategy implements RecommendationStrategy {
+    private static final double LIKED_WEIGHT = 1.0;
+    private static final double PLAYED_WEIGHT = 0.5;
+
+    private final ItemSimilarityFile similarities;
+    private final Map<String, Song> songsById;
+    private final RecommendationStrategy coldStartStrategy;
+
+    public CollaborativeFilteringRecommendationStrategy(ItemSimilarityFile similarities, Map<String, Song> songsById) {
+        this.similarities = similarities;
+        this.songsById = songsById;
+        this.coldStartStrategy = new PopularityBasedRecommendationStrategy();
+    }
+
+    @Override
+    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
+        Map<Integer, Double> votes = new HashMap<>();
+        for (Song song : user.getRecentlyPlayed()) {
+            vote(votes, song, PLAYED_WEIGHT);
+        }
+        for (Song song : user.getLikedSongs()) {
+            vote(votes, song, LIKED_WEIGHT);
+        }
+        if (votes.isEmpty()) {
+            return coldStartStrategy.recommend(user, allSongs, limit);
+        }
+
+        RecommendationContext context = RecommendationContext.of(user, 0);
+        TopKSongs topK = new TopKSongs(limit);
+        for (Map.Entry<Integer, Double> vote : votes.entrySet()) {
+            Song song = songsById.get(similarities.songIdAt(vote.getKey()));
+            if (song != null && !context.isExcluded(song)) {
+                topK.offer(song, vote.getValue());
+            }
+        }
+        return topK.toSortedList();
+    }
+
+    private void vote(Map<Integer, Double> votes, Song seed, double weight) {
+        int row = similarities.rowOf(seed.getId());
+        if (row < 0) {
+            return;
+        }
+        for (int i = 0; i < similarities.getNeighbors(); i++) {
+            int neighbor = similarities.neighborRow(row, i);
+            if (neighbor < 0) {
+                break;
+            }
+            votes.merge(neighbor, weight * similarities.neighborSimilarity(row, i), Double::sum);
+        }
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Item-Item Collaborative Filtering";
+    }
+}
@@ -0,0 +1,84 @@
+package lld.musicstreaming;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Recall and latency of {@link IvfSongIndex} against exact brute-force search
+ * on a synthetic catalog where users listen within a couple of favourite genres.
+ * Usage: EmbeddingBenchmark [songs] [users] [dimension]
+ */
+public class EmbeddingBenchmark {
+    private static final int K = 10;
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) {
+        int songCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int dimension = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        Random random = new Random(7);
+
+        List<Song> songs = new ArrayList<>(songCount);
+        for (int i = 0; i < songCount; i++) {
+            songs.add(new Song("s" + i, "Track " + i, "Artist " + random.nextInt(songCount / 20 + 1),
+                    "Album", Duration.ofMinutes(3), "Genre " + random.nextInt(40)));
+        }
+        List<User> users = new ArrayList<>(userCount);
+        for (int u = 0; u < userCount; u++) {
+            User user = new User("u" + u, "User " + u, "u" + u + "@email.com");
+            int offset = random.nextInt(songCount);
+            // Listen to a neighbourhood of the catalog so co-play structure exists
+            for (int p = 0; p < 30; p++) {
+                user.playedSong(songs.get((offset + random.nextInt(2_000)) % songCount));
+            }
+            users.add(user);
+        }
+
+        long start = System.nanoTime();
+        SongEmbeddings embeddings = SongEmbeddings.build(songs, users, dimension);
+        long embedMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        IvfSongIndex baseIndex = IvfSongIndex.build(embeddings, 1);
+        long indexMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("=== Embedding ANN Benchmark ===");
+        System.out.printf("Songs: %d, users: %d, dimension: %d, lists: %d%n",
+                songCount, userCount, dimension, baseIndex.getListCount());
+        System.out.printf("Embedding build: %d ms, IVF build: %d ms%n%n", embedMillis, indexMillis);
+
+        List<float[]> queries = new ArrayList<>(QUERIES);
+        for (int q = 0; q < QUERIES; q++) {
+            queries.add(embeddings.userProfile(users.get(random.nextInt(userCount))));
+        }
+
+        // Exact answers: keep the K-th best score so ties count as hits
+        float[] kthExactScore = new float[QUERIES];
+        long bruteNanos = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            long t = System.nanoTime();
+            List<Song> exact = embeddings.bruteForceSearch(queries.get(q), K, song -> false).toSortedList();
+            bruteNanos += System.nanoTime() - t;
+            kthExactScore[q] = embeddings.dot(embeddings.rowOf(exact.get(exact.size() - 1)), queries.get(q));
+        }
+        System.out.printf("Brute force: %.1f us/query%n", bruteNanos / 1_000.0 / QUERIES);
+
+        for (int probes : new int[]{1, 2, 4, 8, 16, 32}) {
+            IvfSongIndex index = baseIndex.withProbes(probes);
+            long annNanos = 0;
+            int hits = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                long t = System.nanoTime();
+                List<Song> approximate = index.search(queries.get(q), K).toSortedList();
+                annNanos += System.nanoTime() - t;
+                for (Song song : approximate) {
+                    if (embeddings.dot(embeddings.rowOf(song), queries.get(q)) >= kthExactScore[q] - 1e-6f) {
+                        hits++;
+                    }
+                }
+            }
+            System.out.printf("IVF probes=%-3d recall@%d=%.3f  %.1f us/query  (%.1fx faster)%n",
+                    probes, K, hits / (double) (QUERIES * K), annNanos / 1_000.0 / QUERIES,
+                    (double) bruteNanos / Math.max(1, annNanos));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package lld.musicstreaming;
+
+import java.util.List;
+
+/**
+ * "More like this" recommendations from song embeddings.
+ * The user's taste vector is the mean of their liked and recently played songs;
+ * candidates come from the IVF index instead of scoring the whole catalog.
+ * Songs added after the embeddings were built are not recommended until the index is rebuilt.
+ */
+public class EmbeddingRecommendationStrategy implements RecommendationStrategy {
+    private final SongEmbeddings embeddings;
+    private final IvfSongIndex index;
+    private final RecommendationStrategy coldStartStrategy;
+
+    public EmbeddingRecommendationStrategy(SongEmbeddings embeddings, IvfSongIndex index) {
+        this.embeddings = embeddings;
+        this.index = index;
+        this.coldStartStrategy = new PopularityBasedRecommendationStrategy();
+    }
+
+    @Override
+    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
+        float[] profile = embeddings.userProfile(user);
+        if (profile == null) {
+            // No history to be similar to
+            return coldStartStrategy.recommend(user, allSongs, limit);
+        }
+        RecommendationContext context = RecommendationContext.of(user, 0);
+        return index.search(profile, limit, context::isExcluded).toSortedList();
+    }
+
+    public List<Song> moreLikeThis(Song song, int limit) {
+        float[] vector = embeddings.vectorOf(song);
+        if (vector == null) {
+            return List.of();
+        }
+        return index.search(vector, limit, candidate -> candidate.getId().equals(song.getId())).toSortedList();
+    }
+
+    @Override
+    public String getStrategyName() {
+        return String.format("Embedding Similarity Recommendation (IVF, %d lists, %d probes)",
+                index.getListCount(), index.getProbes());
+    }
+}
@@ -1,23 +1,21 @@
 package lld.musicstreaming;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class GenreBasedRecommendationStrategy implements RecommendationStrategy {
+public class GenreBasedRecommendationStrategy implements ScoredRecommendationStrategy {
     
     @Override
-    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
-        return allSongs.stream()
-                .filter(song -> user.getFavoriteGenres().contains(song.getGenre()))
-                .filter(song -> !user.getLikedSongs().contains(song))
-                .filter(song -> !user.getRecentlyPlayed().contains(song))
-                .sorted((s1, s2) -> Double.compare(s2.getRating(), s1.getRating()))
-                .limit(limit)
-                .collect(Collectors.toList());
+    public SongScorer createScorer(User user, List<Song> allSongs) {
+        RecommendationContext context = RecommendationContext.of(user, 0);
+
+        // Favorite-genre songs the user hasn't liked or recently played, ranked by rating
+        return song -> context.isFavoriteGenre(song.getGenre()) && !context.isExcluded(song)
+                ? song.getRating()
+                : SongScorer.NOT_ELIGIBLE;
     }
 
     @Override
     public String getStrategyName() {
         return "Genre-Based Recommendation";
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,8 @@
 package lld.musicstreaming;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.List;
 
-public class HybridRecommendationStrategy implements RecommendationStrategy {
+public class HybridRecommendationStrategy implements ScoredRecommendationStrategy {
     private final double genreWeight;
     private final double artistWeight;
     private final double popularityWeight;
@@ -20,61 +19,44 @@ public class HybridRecommendationStrategy implements RecommendationStrategy {
     }
 
     @Override
-    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
-        List<Song> eligibleSongs = allSongs.stream()
-                .filter(song -> !user.getLikedSongs().contains(song))
-                .filter(song -> !user.getRecentlyPlayed().contains(song))
-                .collect(Collectors.toList());
-
-        // Calculate composite scores for each song
-        Map<Song, Double> songScores = new HashMap<>();
-        for (Song song : eligibleSongs) {
-            double score = calculateCompositeScore(song, user, allSongs);
-            songScores.put(song, score);
-        }
-
-        return songScores.entrySet().stream()
-                .sorted(Map.Entry.<Song, Double>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+    public SongScorer createScorer(User user, List<Song> allSongs) {
+        // Precompute catalog maxima and user features once, then score each song independently
+        RecommendationContext context = RecommendationContext.of(user, allSongs);
+        return song -> context.isExcluded(song)
+                ? SongScorer.NOT_ELIGIBLE
+                : calculateCompositeScore(song, context);
     }
 
-    private double calculateCompositeScore(Song song, User user, List<Song> allSongs) {
-        double genreScore = calculateGenreScore(song, user);
-        double artistScore = calculateArtistScore(song, user);
-        double popularityScore = calculatePopularityScore(song, allSongs);
+    public double calculateCompositeScore(Song song, RecommendationContext context) {
+        double genreScore = calculateGenreScore(song, context);
+        double artistScore = calculateArtistScore(song, context);
+        double popularityScore = calculatePopularityScore(song, context);
 
         return genreScore * genreWeight + artistScore * artistWeight + popularityScore * popularityWeight;
     }
 
-    private double calculateGenreScore(Song song, User user) {
-        if (user.getFavoriteGenres().contains(song.getGenre())) {
-            return song.getRating() / 5.0; // Normalize rating to 0-1
+    private double calculateGenreScore(Song song, RecommendationContext context) {
+        if (context.isFavoriteGenre(song.getGenre())) {
+            return RecommendationContext.normalizedRating(song);
         }
         return 0.0;
     }
 
-    private double calculateArtistScore(Song song, User user) {
-        int artistPlayCount = user.getArtistPlayCount().getOrDefault(song.getArtist(), 0);
+    private double calculateArtistScore(Song song, RecommendationContext context) {
+        int artistPlayCount = context.getArtistPlayCount(song.getArtist());
         if (artistPlayCount > 0) {
             // Normalize artist play count and combine with song rating
             double normalizedPlayCount = Math.min(artistPlayCount / 10.0, 1.0);
-            double normalizedRating = song.getRating() / 5.0;
+            double normalizedRating = RecommendationContext.normalizedRating(song);
             return (normalizedPlayCount + normalizedRating) / 2.0;
         }
         return 0.0;
     }
 
-    private double calculatePopularityScore(Song song, List<Song> allSongs) {
-        int maxPlayCount = allSongs.stream()
-                .mapToInt(Song::getPlayCount)
-                .max()
-                .orElse(1);
+    private double calculatePopularityScore(Song song, RecommendationContext context) {
+        double normalizedPlayCount = context.normalizedPlayCount(song);
+        double normalizedRating = RecommendationContext.normalizedRating(song);
 
-        double normalizedPlayCount = (double) song.getPlayCount() / maxPlayCount;
-        double normalizedRating = song.getRating() / 5.0;
-        
         return (normalizedPlayCount + normalizedRating) / 2.0;
     }
 
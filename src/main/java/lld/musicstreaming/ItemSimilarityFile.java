@@ -0,0 +1,136 @@
+package lld.musicstreaming;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memory-mapped top-N neighbour lists written by {@link ItemSimilarityJob}.
+ *
+ * Layout (little endian):
+ *   header   int magic, int version, int songCount, int neighbors, long idsOffset
+ *   records  songCount fixed-size records of neighbors x (int songRow, float similarity),
+ *            unused slots hold row -1, so record i starts at HEADER_BYTES + i * neighbors * 8
+ *   ids      songCount x (int byteLength, UTF-8 song id)
+ *
+ * Neighbour reads go straight to the mapped pages without copying or deserializing.
+ */
+public class ItemSimilarityFile {
+    private static final int MAGIC = 0x43464E42; // "CFNB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int ENTRY_BYTES = 8;
+
+    private final MappedByteBuffer buffer;
+    private final int songCount;
+    private final int neighbors;
+    private final String[] songIds;
+    private final Map<String, Integer> rowsBySongId;
+
+    private ItemSimilarityFile(MappedByteBuffer buffer, int songCount, int neighbors,
+                               String[] songIds, Map<String, Integer> rowsBySongId) {
+        this.buffer = buffer;
+        this.songCount = songCount;
+        this.neighbors = neighbors;
+        this.songIds = songIds;
+        this.rowsBySongId = rowsBySongId;
+    }
+
+    public static ItemSimilarityFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an item similarity file: " + path);
+        }
+        int songCount = buffer.getInt(8);
+        int neighbors = buffer.getInt(12);
+        int position = (int) buffer.getLong(16);
+
+        String[] songIds = new String[songCount];
+        Map<String, Integer> rows = new HashMap<>(songCount * 2);
+        for (int row = 0; row < songCount; row++) {
+            int length = buffer.getInt(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position + 4, bytes);
+            songIds[row] = new String(bytes, StandardCharsets.UTF_8);
+            rows.put(songIds[row], row);
+            position += 4 + length;
+        }
+        return new ItemSimilarityFile(buffer, songCount, neighbors, songIds, rows);
+    }
+
+    public int rowOf(String songId) {
+        Integer row = rowsBySongId.get(songId);
+        return row == null ? -1 : row;
+    }
+
+    public String songIdAt(int row) {
+        return songIds[row];
+    }
+
+    /**
+     * @return the i-th most similar song's row, or -1 when the song has fewer neighbours
+     */
+    public int neighborRow(int row, int i) {
+        return buffer.getInt(entryOffset(row, i));
+    }
+
+    public float neighborSimilarity(int row, int i) {
+        return buffer.getFloat(entryOffset(row, i) + 4);
+    }
+
+    // Getters
+    public int getSongCount() { return songCount; }
+    public int getNeighbors() { return neighbors; }
+
+    private int entryOffset(int row, int i) {
+        return HEADER_BYTES + (row * neighbors + i) * ENTRY_BYTES;
+    }
+
+    static long fileSize(byte[][] ids, int neighbors) {
+        long size = HEADER_BYTES + (long) ids.length * neighbors * ENTRY_BYTES;
+        for (byte[] id : ids) {
+            size += 4 + id.length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            // A single mapping is int-indexed; shard the catalog or reduce neighbours beyond 2GB
+            throw new IllegalArgumentException("Similarity file exceeds 2GB: " + size + " bytes");
+        }
+        return size;
+    }
+
+    static void writeHeaderAndIds(ByteBuffer buffer, byte[][] ids, int neighbors) {
+        int idsOffset = HEADER_BYTES + ids.length * neighbors * ENTRY_BYTES;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, ids.length);
+        buffer.putInt(12, neighbors);
+        buffer.putLong(16, idsOffset);
+        int position = idsOffset;
+        for (byte[] id : ids) {
+            buffer.putInt(position, id.length);
+            buffer.put(position + 4, id);
+            position += 4 + id.length;
+        }
+    }
+
+    static void writeNeighbors(ByteBuffer buffer, int row, int neighbors, int[] rows, float[] similarities, int count) {
+        int offset = HEADER_BYTES + row * neighbors * ENTRY_BYTES;
+        for (int i = 0; i < neighbors; i++) {
+            buffer.putInt(offset, i < count ? rows[i] : -1);
+            buffer.putFloat(offset + 4, i < count ? similarities[i] : 0f);
+            offset += ENTRY_BYTES;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package lld.musicstreaming;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline item-item collaborative filtering.
+ *
+ * Interactions come from every user's liked songs (weight 1.0) and recently played songs (0.5),
+ * boosted by how much the user plays the song's artist (artistPlayCount).
+ * Songs are mapped to dense ints and interactions stored as primitive sparse matrices:
+ * CSR (user -> songs) and its transpose CSC (song -> users).
+ *
+ * Map: each worker owns a disjoint range of songs and, for song i, walks its users and their
+ * other songs, emitting w(u,i) * w(u,j) into a dense per-thread accumulator (no locking).
+ * Reduce: the accumulated co-occurrences become cosine similarities and the top-N are written
+ * straight into the song's fixed-size record of a memory-mapped {@link ItemSimilarityFile}.
+ */
+public class ItemSimilarityJob {
+    private static final float LIKED_WEIGHT = 1.0f;
+    private static final float PLAYED_WEIGHT = 0.5f;
+    private static final int CHUNK_SIZE = 256;
+
+    private final int neighbors;
+    private final int threads;
+
+    public ItemSimilarityJob(int neighbors, int threads) {
+        if (neighbors <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Neighbors and threads must be positive");
+        }
+        this.neighbors = neighbors;
+        this.threads = threads;
+    }
+
+    public JobStats run(Collection<Song> catalog, Collection<User> users, Path output) throws IOException {
+        long start = System.nanoTime();
+        List<Song> songs = new ArrayList<>(catalog);
+        Map<String, Integer> songRows = new HashMap<>(songs.size() * 2);
+        for (int i = 0; i < songs.size(); i++) {
+            songRows.put(songs.get(i).getId(), i);
+        }
+
+        SparseMatrix userSongs = buildUserSongMatrix(users, songs, songRows);
+        SparseMatrix songUsers = userSongs.transpose(songs.size());
+        float[] norms = songUsers.rowNorms();
+
+        byte[][] ids = new byte[songs.size()][];
+        for (int i = 0; i < songs.size(); i++) {
+            ids[i] = songs.get(i).getId().getBytes(StandardCharsets.UTF_8);
+        }
+
+        AtomicLong pairs = new AtomicLong();
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    ItemSimilarityFile.fileSize(ids, neighbors));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            ItemSimilarityFile.writeHeaderAndIds(buffer, ids, neighbors);
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            AtomicInteger nextChunk = new AtomicInteger();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    Worker worker = new Worker(userSongs, songUsers, norms, buffer);
+                    long emitted = 0;
+                    int from;
+                    while ((from = nextChunk.getAndAdd(CHUNK_SIZE)) < songs.size()) {
+                        int to = Math.min(songs.size(), from + CHUNK_SIZE);
+                        for (int song = from; song < to; song++) {
+                            emitted += worker.process(song);
+                        }
+                    }
+                    pairs.addAndGet(emitted);
+                }));
+            }
+            try {
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Item similarity job interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Item similarity job failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+            buffer.force();
+        }
+        return new JobStats(songs.size(), users.size(), userSongs.nonZeros(), pairs.get(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static SparseMatrix buildUserSongMatrix(Collection<User> users, List<Song> songs,
+                                                    Map<String, Integer> songRows) {
+        int[] rowStart = new int[users.size() + 1];
+        IntList columns = new IntList();
+        FloatList values = new FloatList();
+        int row = 0;
+        for (User user : users) {
+            Map<String, Integer> artistPlays = user.getArtistPlayCount();
+            Map<Integer, Float> weights = new LinkedHashMap<>();
+            for (Song song : user.getRecentlyPlayed()) {
+                addInteraction(weights, songRows, song, PLAYED_WEIGHT);
+            }
+            for (Song song : user.getLikedSongs()) {
+                addInteraction(weights, songRows, song, LIKED_WEIGHT);
+            }
+            for (Map.Entry<Integer, Float> entry : weights.entrySet()) {
+                int song = entry.getKey();
+                // Users who keep coming back to an artist count that interaction more
+                float affinity = 1f + (float) Math.log1p(artistPlays.getOrDefault(songs.get(song).getArtist(), 0));
+                columns.add(song);
+                values.add(entry.getValue() * affinity);
+            }
+            rowStart[++row] = columns.size();
+        }
+        return new SparseMatrix(rowStart, columns.toArray(), values.toArray());
+    }
+
+    private static void addInteraction(Map<Integer, Float> weights, Map<String, Integer> songRows,
+                                       Song song, float weight) {
+        Integer row = songRows.get(song.getId());
+        if (row != null) {
+            weights.merge(row, weight, Math::max);
+        }
+    }
+
+    /**
+     * Per-thread state: a dense accumulator plus the list of touched columns (a "sparse accumulator")
+     */
+    private class Worker {
+        private final SparseMatrix userSongs;
+        private final SparseMatrix songUsers;
+        private final float[] norms;
+        private final MappedByteBuffer buffer;
+        private final float[] accumulator;
+        private final boolean[] touched;
+        private final int[] touchedColumns;
+        private final int[] topColumns = new int[neighbors];
+        private final float[] topScores = new float[neighbors];
+
+        Worker(SparseMatrix userSongs, SparseMatrix songUsers, float[] norms, MappedByteBuffer buffer) {
+            this.userSongs = userSongs;
+            this.songUsers = songUsers;
+            this.norms = norms;
+            // Private view: absolute writes to disjoint records, byte order is not inherited by duplicate()
+            this.buffer = (MappedByteBuffer) buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            this.accumulator = new float[songUsers.rows()];
+            this.touched = new boolean[songUsers.rows()];
+            this.touchedColumns = new int[songUsers.rows()];
+        }
+
+        long process(int song) {
+            int touchedCount = 0;
+            long emitted = 0;
+            // Map: co-occurrences of this song with every other song through shared users
+            for (int u = songUsers.rowStart[song]; u < songUsers.rowStart[song + 1]; u++) {
+                int user = songUsers.columns[u];
+                float userWeight = songUsers.values[u];
+                for (int s = userSongs.rowStart[user]; s < userSongs.rowStart[user + 1]; s++) {
+                    int other = userSongs.columns[s];
+                    if (other == song) {
+                        continue;
+                    }
+                    if (!touched[other]) {
+                        touched[other] = true;
+                        touchedColumns[touchedCount++] = other;
+                    }
+                    accumulator[other] += userWeight * userSongs.values[s];
+                    emitted++;
+                }
+            }
+
+            // Reduce: cosine similarity and bounded top-N selection
+            int kept = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int other = touchedColumns[i];
+                float similarity = accumulator[other] / (norms[song] * norms[other]);
+                accumulator[other] = 0f;
+                touched[other] = false;
+                kept = insertTop(other, similarity, kept);
+            }
+            ItemSimilarityFile.writeNeighbors(buffer, song, neighbors, topColumns, topScores, kept);
+            return emitted;
+        }
+
+        // Sorted insertion into a small descending array
+        private int insertTop(int column, float score, int kept) {
+            if (kept == neighbors && score <= topScores[kept - 1]) {
+                return kept;
+            }
+            int position = kept == neighbors ? kept - 1 : kept;
+            while (position > 0 && topScores[position - 1] < score) {
+                topScores[position] = topScores[position - 1];
+                topColumns[position] = topColumns[position - 1];
+                position--;
+            }
+            topScores[position] = score;
+            topColumns[position] = column;
+            return Math.min(neighbors, kept + 1);
+        }
+    }
+
+    /**
+     * Compressed sparse rows with primitive arrays
+     */
+    private static class SparseMatrix {
+        private final int[] rowStart;
+        private final int[] columns;
+        private final float[] values;
+
+        SparseMatrix(int[] rowStart, int[] columns, float[] values) {
+            this.rowStart = rowStart;
+            this.columns = columns;
+            this.values = values;
+        }
+
+        int rows() {
+            return rowStart.length - 1;
+        }
+
+        int nonZeros() {
+            return columns.length;
+        }
+
+        SparseMatrix transpose(int columnCount) {
+            int[] start = new int[columnCount + 1];
+            for (int column : columns) {
+                start[column + 1]++;
+            }
+            for (int i = 0; i < columnCount; i++) {
+                start[i + 1] += start[i];
+            }
+            int[] fill = Arrays.copyOf(start, columnCount);
+            int[] transposedColumns = new int[columns.length];
+            float[] transposedValues = new float[values.length];
+            for (int row = 0; row < rows(); row++) {
+                for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                    int position = fill[columns[i]]++;
+                    transposedColumns[position] = row;
+                    transposedValues[position] = values[i];
+                }
+            }
+            return new SparseMatrix(start, transposedColumns, transposedValues);
+        }
+
+        float[] rowNorms() {
+            float[] norms = new float[rows()];
+            for (int row = 0; row < rows(); row++) {
+                float sumSquares = 0;
+                for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                    sumSquares += values[i] * values[i];
+                }
+                norms[row] = sumSquares == 0 ? 1f : (float) Math.sqrt(sumSquares);
+            }
+            return norms;
+        }
+    }
+
+    private static class IntList {
+        private int[] data = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int size() { return size; }
+        int[] toArray() { return Arrays.copyOf(data, size); }
+    }
+
+    private static class FloatList {
+        private float[] data = new float[1024];
+        private int size;
+
+        void add(float value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        float[] toArray() { return Arrays.copyOf(data, size); }
+    }
+
+    public static class JobStats {
+        public final int songs;
+        public final int users;
+        public final int interactions;
+        public final long coOccurrences;
+        public final long elapsedMillis;
+
+        JobStats(int songs, int users, int interactions, long coOccurrences, long elapsedMillis) {
+            this.songs = songs;
+            this.users = users;
+            this.interactions = interactions;
+            this.coOccurrences = coOccurrences;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("JobStats{songs=%d, users=%d, interactions=%d, coOccurrences=%d, elapsed=%dms}",
+                    songs, users, interactions, coOccurrences, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package lld.musicstreaming;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted-file (IVF) approximate nearest-neighbour index over {@link SongEmbeddings}.
+ * Rows are clustered with spherical k-means; a query ranks the centroids and only scans
+ * the posting lists of the best {@code probes} clusters, trading recall for latency.
+ */
+public class IvfSongIndex {
+    private static final int TRAINING_POINTS_PER_LIST = 64;
+
+    private final SongEmbeddings embeddings;
+    private final float[][] centroids;
+    private final int[][] lists;
+    private final int probes;
+
+    private IvfSongIndex(SongEmbeddings embeddings, float[][] centroids, int[][] lists, int probes) {
+        if (probes <= 0) {
+            throw new IllegalArgumentException("At least one list must be probed");
+        }
+        this.embeddings = embeddings;
+        this.centroids = centroids;
+        this.lists = lists;
+        this.probes = probes;
+    }
+
+    /**
+     * Build with roughly sqrt(n) lists, the usual IVF starting point
+     */
+    public static IvfSongIndex build(SongEmbeddings embeddings, int probes) {
+        int numLists = Math.max(1, (int) Math.sqrt(embeddings.size()));
+        return build(embeddings, numLists, 10, probes, 42L);
+    }
+
+    public static IvfSongIndex build(SongEmbeddings embeddings, int numLists, int iterations, int probes, long seed) {
+        if (embeddings.size() == 0) {
+            return new IvfSongIndex(embeddings, new float[0][], new int[0][], probes);
+        }
+        numLists = Math.min(numLists, embeddings.size());
+        Random random = new Random(seed);
+
+        // Train on a sample; clustering quality saturates long before the full catalog
+        int[] sample = sampleRows(embeddings.size(), numLists * TRAINING_POINTS_PER_LIST, random);
+        float[][] centroids = new float[numLists][];
+        for (int c = 0; c < numLists; c++) {
+            centroids[c] = embeddings.vectorOf(embeddings.songAt(sample[c % sample.length]));
+        }
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            int[] assignment = assign(embeddings, centroids, sample);
+            centroids = recomputeCentroids(embeddings, centroids, sample, assignment, random);
+        }
+
+        int[] rows = IntStream.range(0, embeddings.size()).toArray();
+        int[] assignment = assign(embeddings, centroids, rows);
+        int[] sizes = new int[numLists];
+        for (int list : assignment) {
+            sizes[list]++;
+        }
+        int[][] lists = new int[numLists][];
+        for (int c = 0; c < numLists; c++) {
+            lists[c] = new int[sizes[c]];
+        }
+        int[] fill = new int[numLists];
+        for (int row = 0; row < assignment.length; row++) {
+            int list = assignment[row];
+            lists[list][fill[list]++] = row;
+        }
+        return new IvfSongIndex(embeddings, centroids, lists, probes);
+    }
+
+    /**
+     * Same clusters, different recall/latency trade-off
+     */
+    public IvfSongIndex withProbes(int probes) {
+        return new IvfSongIndex(embeddings, centroids, lists, probes);
+    }
+
+    public TopKSongs search(float[] query, int k) {
+        return search(query, k, song -> false);
+    }
+
+    public TopKSongs search(float[] query, int k, Predicate<Song> excluded) {
+        TopKSongs topK = new TopKSongs(k);
+        for (int list : nearestLists(query)) {
+            for (int row : lists[list]) {
+                Song song = embeddings.songAt(row);
+                if (!excluded.test(song)) {
+                    topK.offer(song, embeddings.dot(row, query));
+                }
+            }
+        }
+        return topK;
+    }
+
+    private int[] nearestLists(float[] query) {
+        int count = Math.min(probes, centroids.length);
+        int[] best = new int[count];
+        float[] bestScores = new float[count];
+        Arrays.fill(bestScores, Float.NEGATIVE_INFINITY);
+        // Insertion into a tiny sorted array; probes is small
+        for (int c = 0; c < centroids.length; c++) {
+            float score = dot(centroids[c], query);
+            if (score <= bestScores[count - 1]) {
+                continue;
+            }
+            int position = count - 1;
+            while (position > 0 && bestScores[position - 1] < score) {
+                bestScores[position] = bestScores[position - 1];
+                best[position] = best[position - 1];
+                position--;
+            }
+            bestScores[position] = score;
+            best[position] = c;
+        }
+        return best;
+    }
+
+    private static int[] assign(SongEmbeddings embeddings, float[][] centroids, int[] rows) {
+        int[] assignment = new int[rows.length];
+        IntStream.range(0, rows.length).parallel().forEach(i -> {
+            int bestList = 0;
+            float bestScore = Float.NEGATIVE_INFINITY;
+            for (int c = 0; c < centroids.length; c++) {
+                float score = embeddings.dot(rows[i], centroids[c]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestList = c;
+                }
+            }
+            assignment[i] = bestList;
+        });
+        return assignment;
+    }
+
+    private static float[][] recomputeCentroids(SongEmbeddings embeddings, float[][] previous, int[] rows,
+                                                int[] assignment, Random random) {
+        int dimension = embeddings.getDimension();
+        float[][] sums = new float[previous.length][dimension];
+        int[] counts = new int[previous.length];
+        for (int i = 0; i < rows.length; i++) {
+            float[] vector = embeddings.vectorOf(embeddings.songAt(rows[i]));
+            float[] sum = sums[assignment[i]];
+            for (int d = 0; d < dimension; d++) {
+                sum[d] += vector[d];
+            }
+            counts[assignment[i]]++;
+        }
+        for (int c = 0; c < sums.length; c++) {
+            if (counts[c] == 0) {
+                // Re-seed empty clusters from a random training point
+                sums[c] = embeddings.vectorOf(embeddings.songAt(rows[random.nextInt(rows.length)]));
+                continue;
+            }
+            float norm = SongEmbeddings.norm(sums[c]);
+            for (int d = 0; d < dimension; d++) {
+                sums[c][d] /= norm;
+            }
+        }
+        return sums;
+    }
+
+    private static int[] sampleRows(int size, int sampleSize, Random random) {
+        if (sampleSize >= size) {
+            return IntStream.range(0, size).toArray();
+        }
+        // Partial Fisher-Yates shuffle
+        int[] rows = IntStream.range(0, size).toArray();
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(size - i);
+            int tmp = rows[i];
+            rows[i] = rows[j];
+            rows[j] = tmp;
+        }
+        return Arrays.copyOf(rows, sampleSize);
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int d = 0; d < a.length; d++) {
+            sum += a[d] * b[d];
+        }
+        return sum;
+    }
+
+    // Getters
+    public int getListCount() { return lists.length; }
+    public int getProbes() { return probes; }
+}
@@ -21,6 +21,7 @@ public class MusicStreamingDemo {
         // Simulate user interactions
         System.out.println("3. Simulating user interactions...\n");
         simulateUserActivity(musicService);
+        musicService.flushPlayEvents();
 
         // Test different recommendation strategies
         System.out.println("\n4. Testing different recommendation strategies...\n");
@@ -30,6 +31,7 @@ public class MusicStreamingDemo {
         System.out.println("\n5. User profiles and analytics...\n");
         displayAnalytics(musicService);
 
+        musicService.shutdown();
         System.out.println("\n=== Demo completed successfully! ===");
     }
 
@@ -175,5 +177,11 @@ public class MusicStreamingDemo {
         System.out.println("\n=== Rock Songs ===");
         service.getSongsByGenre("Rock").forEach(song -> 
             System.out.println(String.format("%s (Rating: %.1f)", song, song.getRating())));
+
+        // Repeat home-page loads are served from the recommendation cache
+        service.getRecommendations("alice", 3);
+        service.getRecommendations("alice", 2);
+        System.out.println("\n=== Recommendation Cache ===");
+        System.out.println(service.getRecommendationCacheStats());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package lld.musicstreaming;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -8,19 +9,32 @@ public class MusicStreamingService {
     private Map<String, Song> songCatalog;
     private Map<String, User> users;
     private RecommendationStrategy recommendationStrategy;
+    private final SongCatalogIndex catalogIndex;
+    private final RecommendationCache recommendationCache;
+    private final PlayEventPipeline playEventPipeline;
 
     public MusicStreamingService() {
         this.songCatalog = new ConcurrentHashMap<>();
         this.users = new ConcurrentHashMap<>();
         this.recommendationStrategy = new HybridRecommendationStrategy();
+        this.catalogIndex = new SongCatalogIndex();
+        this.recommendationCache = new RecommendationCache(100_000, Duration.ofMinutes(10));
+        this.playEventPipeline = new PlayEventPipeline(recommendationCache, 100);
     }
 
     public void setRecommendationStrategy(RecommendationStrategy strategy) {
         this.recommendationStrategy = strategy;
+        recommendationCache.invalidateAll();
     }
 
     public void addSong(Song song) {
-        songCatalog.put(song.getId(), song);
+        Song previous = songCatalog.put(song.getId(), song);
+        if (previous != null && previous != song) {
+            catalogIndex.remove(previous);
+        }
+        if (previous != song) {
+            catalogIndex.add(song);
+        }
     }
 
     public void addUser(User user) {
@@ -32,8 +46,8 @@ public class MusicStreamingService {
         Song song = songCatalog.get(songId);
 
         if (user != null && song != null) {
-            song.incrementPlayCount();
-            user.playedSong(song);
+            // Play counts, history and cache invalidation are applied asynchronously in batches
+            playEventPipeline.submit(user, song);
             System.out.println(String.format("🎵 %s is now playing: %s", user.getName(), song));
             return song;
         }
@@ -46,6 +60,7 @@ public class MusicStreamingService {
 
         if (user != null && song != null) {
             user.likeSong(song);
+            recommendationCache.invalidate(userId);
             System.out.println(String.format("❤️ %s liked: %s", user.getName(), song));
         }
     }
@@ -56,39 +71,41 @@ public class MusicStreamingService {
             return Collections.emptyList();
         }
 
+        List<Song> cached = recommendationCache.get(userId, limit);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = recommendationCache.currentVersion(userId);
         List<Song> allSongs = new ArrayList<>(songCatalog.values());
-        return recommendationStrategy.recommend(user, allSongs, limit);
+        List<Song> recommendations = recommendationStrategy.recommend(user, allSongs, limit);
+        recommendationCache.put(userId, version, limit, recommendations);
+        return recommendations;
     }
 
+    public RecommendationCache.CacheStats getRecommendationCacheStats() {
+        return recommendationCache.getStats();
+    }
+
+    // Matches word prefixes in title, artist, album and genre ("bohem rhap" finds "Bohemian Rhapsody")
     public List<Song> searchSongs(String query) {
-        String lowerQuery = query.toLowerCase();
-        return songCatalog.values().stream()
-                .filter(song -> song.getTitle().toLowerCase().contains(lowerQuery) ||
-                               song.getArtist().toLowerCase().contains(lowerQuery) ||
-                               song.getAlbum().toLowerCase().contains(lowerQuery) ||
-                               song.getGenre().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+        return catalogIndex.search(query);
     }
 
     public List<Song> getSongsByGenre(String genre) {
-        return songCatalog.values().stream()
-                .filter(song -> song.getGenre().equalsIgnoreCase(genre))
+        return catalogIndex.getByGenre(genre).stream()
                 .sorted((s1, s2) -> Double.compare(s2.getRating(), s1.getRating()))
                 .collect(Collectors.toList());
     }
 
     public List<Song> getSongsByArtist(String artist) {
-        return songCatalog.values().stream()
-                .filter(song -> song.getArtist().equalsIgnoreCase(artist))
+        return catalogIndex.getByArtist(artist).stream()
                 .sorted((s1, s2) -> Integer.compare(s2.getPlayCount(), s1.getPlayCount()))
                 .collect(Collectors.toList());
     }
 
     public List<Song> getTrendingSongs(int limit) {
-        return songCatalog.values().stream()
-                .sorted((s1, s2) -> Integer.compare(s2.getPlayCount(), s1.getPlayCount()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        return catalogIndex.getTrending(limit);
     }
 
     public void displayUserProfile(String userId) {
@@ -110,6 +127,19 @@ public class MusicStreamingService {
                 .forEach(song -> System.out.println("  " + song));
     }
 
+    // Make every play submitted so far visible to reads
+    public void flushPlayEvents() {
+        playEventPipeline.flush();
+    }
+
+    public long getPendingPlayEvents() {
+        return playEventPipeline.getPendingEvents();
+    }
+
+    public void shutdown() {
+        playEventPipeline.shutdown();
+    }
+
     public String getCurrentRecommendationStrategy() {
         return recommendationStrategy.getStrategyName();
     }
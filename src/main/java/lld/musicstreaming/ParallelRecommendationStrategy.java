@@ -0,0 +1,93 @@
+package lld.musicstreaming;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Decorator that runs any {@link ScoredRecommendationStrategy} over the catalog in parallel.
+ * The catalog is split into shards, each fork/join task keeps a local top-K,
+ * and partial results are merged pairwise on the way back up.
+ */
+public class ParallelRecommendationStrategy implements RecommendationStrategy {
+    private static final int DEFAULT_SHARD_SIZE = 16_384;
+
+    private final ScoredRecommendationStrategy delegate;
+    private final ForkJoinPool pool;
+    private final int shardSize;
+
+    public ParallelRecommendationStrategy(ScoredRecommendationStrategy delegate) {
+        this(delegate, ForkJoinPool.commonPool(), DEFAULT_SHARD_SIZE);
+    }
+
+    public ParallelRecommendationStrategy(ScoredRecommendationStrategy delegate, ForkJoinPool pool, int shardSize) {
+        if (shardSize <= 0) {
+            throw new IllegalArgumentException("Shard size must be positive");
+        }
+        this.delegate = delegate;
+        this.pool = pool;
+        this.shardSize = shardSize;
+    }
+
+    @Override
+    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
+        if (allSongs.size() <= shardSize) {
+            return delegate.recommend(user, allSongs, limit);
+        }
+        // Shards index into the list, which must be cheap for linked implementations too
+        List<Song> songs = allSongs instanceof RandomAccess ? allSongs : new ArrayList<>(allSongs);
+        SongScorer scorer = delegate.createScorer(user, songs);
+        return pool.invoke(new ShardTask(songs, 0, songs.size(), scorer, limit)).toSortedList();
+    }
+
+    @Override
+    public String getStrategyName() {
+        return delegate.getStrategyName() + " [parallel]";
+    }
+
+    private class ShardTask extends RecursiveTask<TopKSongs> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Song> songs;
+        private final int from;
+        private final int to;
+        private final SongScorer scorer;
+        private final int limit;
+
+        ShardTask(List<Song> songs, int from, int to, SongScorer scorer, int limit) {
+            this.songs = songs;
+            this.from = from;
+            this.to = to;
+            this.scorer = scorer;
+            this.limit = limit;
+        }
+
+        @Override
+        protected TopKSongs compute() {
+            if (to - from <= shardSize) {
+                return scoreShard();
+            }
+            int mid = (from + to) >>> 1;
+            ShardTask left = new ShardTask(songs, from, mid, scorer, limit);
+            left.fork();
+            TopKSongs right = new ShardTask(songs, mid, to, scorer, limit).compute();
+            TopKSongs merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+
+        private TopKSongs scoreShard() {
+            TopKSongs topK = new TopKSongs(limit);
+            for (int i = from; i < to; i++) {
+                Song song = songs.get(i);
+                double score = scorer.score(song);
+                if (score != SongScorer.NOT_ELIGIBLE) {
+                    topK.offer(song, score);
+                }
+            }
+            return topK;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package lld.musicstreaming;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decouples play ingestion from the read models.
+ * Request threads only append to a lock-free queue and bump a per-song pending count;
+ * a single publisher periodically drains both, applies aggregated play counts
+ * (one trending-index update per song per batch), updates user histories and
+ * invalidates the recommendation cache for affected users only. A song's count is
+ * removed as it is published, so the map only holds songs with unpublished plays.
+ */
+public class PlayEventPipeline {
+    private static final int MAX_EVENTS_PER_BATCH = 65_536;
+
+    private final Queue<PlayEvent> events = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Song, Long> pendingPlayCounts = new ConcurrentHashMap<>();
+    private final RecommendationCache recommendationCache;
+    private final ScheduledExecutorService publisher;
+
+    private final LongAdder submittedEvents = new LongAdder();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder publishedBatches = new LongAdder();
+
+    public PlayEventPipeline(RecommendationCache recommendationCache, long publishIntervalMillis) {
+        this.recommendationCache = recommendationCache;
+        this.publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "play-event-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::publishSafely,
+                publishIntervalMillis, publishIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record a play; safe to call from any number of threads
+     */
+    public void submit(User user, Song song) {
+        pendingPlayCounts.merge(song, 1L, Long::sum);
+        events.offer(new PlayEvent(user, song));
+        submittedEvents.increment();
+    }
+
+    /**
+     * Publish everything submitted so far (used by tests, demos and shutdown)
+     */
+    public void flush() {
+        while (publishBatch() > 0) {
+            // keep draining
+        }
+    }
+
+    public void shutdown() {
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void publishSafely() {
+        try {
+            publishBatch();
+        } catch (RuntimeException e) {
+            System.err.println("Play event publication failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized int publishBatch() {
+        // Aggregated counts first so trending reflects every submitted play
+        // Taking the count out atomically means a concurrent play either is in it or starts a new one
+        for (Song song : pendingPlayCounts.keySet()) {
+            Long plays = pendingPlayCounts.remove(song);
+            if (plays != null) {
+                song.addPlays(plays);
+            }
+        }
+
+        // Per-user history in submission order, bounded so a hot stream cannot starve readers
+        Set<User> affectedUsers = new HashSet<>();
+        int drained = 0;
+        PlayEvent event;
+        while (drained < MAX_EVENTS_PER_BATCH && (event = events.poll()) != null) {
+            event.user.playedSong(event.song);
+            affectedUsers.add(event.user);
+            drained++;
+        }
+        for (User user : affectedUsers) {
+            recommendationCache.invalidate(user.getId());
+        }
+
+        if (drained > 0) {
+            publishedEvents.add(drained);
+            publishedBatches.increment();
+        }
+        return drained;
+    }
+
+    // Metrics
+    public long getSubmittedEvents() { return submittedEvents.sum(); }
+    public long getPublishedEvents() { return publishedEvents.sum(); }
+    public long getPublishedBatches() { return publishedBatches.sum(); }
+    public long getPendingEvents() { return getSubmittedEvents() - getPublishedEvents(); }
+    public int getPendingSongs() { return pendingPlayCounts.size(); }
+
+    private static class PlayEvent {
+        private final User user;
+        private final Song song;
+
+        PlayEvent(User user, Song song) {
+            this.user = user;
+            this.song = song;
+        }
+    }
+}
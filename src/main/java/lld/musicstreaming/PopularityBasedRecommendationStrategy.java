@@ -1,29 +1,21 @@
 package lld.musicstreaming;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class PopularityBasedRecommendationStrategy implements RecommendationStrategy {
+public class PopularityBasedRecommendationStrategy implements ScoredRecommendationStrategy {
     
     @Override
-    public List<Song> recommend(User user, List<Song> allSongs, int limit) {
-        return allSongs.stream()
-                .filter(song -> !user.getLikedSongs().contains(song))
-                .filter(song -> !user.getRecentlyPlayed().contains(song))
-                .sorted((s1, s2) -> {
-                    // Sort by play count first, then by rating
-                    int playCountComparison = Integer.compare(s2.getPlayCount(), s1.getPlayCount());
-                    if (playCountComparison != 0) {
-                        return playCountComparison;
-                    }
-                    return Double.compare(s2.getRating(), s1.getRating());
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
+    public SongScorer createScorer(User user, List<Song> allSongs) {
+        RecommendationContext context = RecommendationContext.of(user, 0);
+
+        // Sort by play count first, then by rating (ratings are < 10)
+        return song -> context.isExcluded(song)
+                ? SongScorer.NOT_ELIGIBLE
+                : song.getPlayCount() * 10.0 + song.getRating();
     }
 
     @Override
     public String getStrategyName() {
         return "Popularity-Based Recommendation";
     }
-}
\ No newline at end of file
+}
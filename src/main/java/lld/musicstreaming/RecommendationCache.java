@@ -0,0 +1,172 @@
+package lld.musicstreaming;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Per-user recommendation cache with LRU size bound and TTL expiry.
+ * Entries are invalidated per user when that user's features change (plays, likes);
+ * the TTL bounds staleness from catalog-wide changes such as other users' plays.
+ * A per-user invalidation stamp guards against caching a result computed from features
+ * that changed while the recommendation was being computed. Stamps are dropped with the
+ * user's cache entry and are themselves LRU-bounded; a dropped stamp raises a shared floor,
+ * so a computation that started before it is refused rather than cached stale.
+ */
+public class RecommendationCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private final LinkedHashMap<String, Long> invalidatedAt; // userId -> stamp of last invalidation
+    private long stamp;
+    private long floor; // at least every stamp no longer tracked
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public RecommendationCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    public RecommendationCache(int maxEntries, Duration ttl, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        // Access order turns the map into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    evictions++;
+                    dropStamp(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidatedAt = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    floor = Math.max(floor, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached recommendations, or null when absent, expired or computed for a smaller limit
+     */
+    public synchronized List<Song> get(String userId, int limit) {
+        Entry entry = entries.get(userId);
+        if (entry != null && clock.millis() - entry.createdAt > ttlMillis) {
+            entries.remove(userId);
+            dropStamp(userId);
+            expirations++;
+            entry = null;
+        }
+        // A list computed for limit N answers every smaller limit; a shorter list means the catalog ran out
+        if (entry == null || (entry.limit < limit && entry.songs.size() >= entry.limit)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new ArrayList<>(entry.songs.subList(0, Math.min(limit, entry.songs.size())));
+    }
+
+    /**
+     * Read before computing recommendations and pass to {@link #put}
+     */
+    public synchronized long currentVersion(String userId) {
+        return stamp;
+    }
+
+    public synchronized void put(String userId, long version, int limit, List<Song> songs) {
+        if (version < invalidatedAt.getOrDefault(userId, floor)) {
+            return; // User changed while we were computing
+        }
+        entries.put(userId, new Entry(new ArrayList<>(songs), limit, clock.millis()));
+    }
+
+    public synchronized void invalidate(String userId) {
+        invalidatedAt.put(userId, ++stamp);
+        if (entries.remove(userId) != null) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        floor = ++stamp;
+        invalidatedAt.clear();
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, expirations, invalidations, entries.size());
+    }
+
+    /**
+     * Entries tracked for stale-put detection, for tests
+     */
+    synchronized int trackedUsers() {
+        return invalidatedAt.size();
+    }
+
+    private void dropStamp(String userId) {
+        Long dropped = invalidatedAt.remove(userId);
+        if (dropped != null) {
+            floor = Math.max(floor, dropped);
+        }
+    }
+
+    private static class Entry {
+        private final List<Song> songs;
+        private final int limit;
+        private final long createdAt;
+
+        Entry(List<Song> songs, int limit, long createdAt) {
+            this.songs = songs;
+            this.limit = limit;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public static class CacheStats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long expirations;
+        public final long invalidations;
+        public final int size;
+
+        public CacheStats(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{hitRate=%.1f%%, hits=%d, misses=%d, evictions=%d, expirations=%d, invalidations=%d, size=%d}",
+                    getHitRate() * 100, hits, misses, evictions, expirations, invalidations, size);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package lld.musicstreaming;
+
+import java.util.*;
+
+/**
+ * Features computed once per recommendation request instead of once per candidate song:
+ * catalog-wide maxima, the user's exclusion set and snapshots of the user's preferences.
+ */
+public class RecommendationContext {
+    private final User user;
+    private final Set<Song> excludedSongs;
+    private final Set<String> favoriteGenres;
+    private final Map<String, Integer> artistPlayCount;
+    private final int maxPlayCount;
+    private final double inverseMaxPlayCount;
+
+    private RecommendationContext(User user, Set<Song> excludedSongs, Set<String> favoriteGenres,
+                                  Map<String, Integer> artistPlayCount, int maxPlayCount) {
+        this.user = user;
+        this.excludedSongs = excludedSongs;
+        this.favoriteGenres = favoriteGenres;
+        this.artistPlayCount = artistPlayCount;
+        this.maxPlayCount = maxPlayCount;
+        this.inverseMaxPlayCount = 1.0 / Math.max(maxPlayCount, 1);
+    }
+
+    public static RecommendationContext of(User user, List<Song> allSongs) {
+        int maxPlayCount = 0;
+        for (Song song : allSongs) {
+            maxPlayCount = Math.max(maxPlayCount, song.getPlayCount());
+        }
+        return of(user, maxPlayCount);
+    }
+
+    public static RecommendationContext of(User user, int maxPlayCount) {
+        // Liked and recently played songs are never recommended; a hash set makes the check O(1)
+        Set<Song> excluded = new HashSet<>(user.getLikedSongs());
+        excluded.addAll(user.getRecentlyPlayed());
+        return new RecommendationContext(user, excluded, user.getFavoriteGenres(),
+                user.getArtistPlayCount(), maxPlayCount);
+    }
+
+    public boolean isExcluded(Song song) {
+        return excludedSongs.contains(song);
+    }
+
+    public boolean isFavoriteGenre(String genre) {
+        return favoriteGenres.contains(genre);
+    }
+
+    public int getArtistPlayCount(String artist) {
+        return artistPlayCount.getOrDefault(artist, 0);
+    }
+
+    // Play count scaled to [0, 1] against the most played song in the catalog
+    public double normalizedPlayCount(Song song) {
+        return song.getPlayCount() * inverseMaxPlayCount;
+    }
+
+    public static double normalizedRating(Song song) {
+        return song.getRating() / 5.0;
+    }
+
+    // Getters
+    public User getUser() { return user; }
+    public int getMaxPlayCount() { return maxPlayCount; }
+}
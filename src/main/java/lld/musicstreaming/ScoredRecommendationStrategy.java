@@ -0,0 +1,29 @@
+package lld.musicstreaming;
+
+import java.util.List;
+
+/**
+ * Recommendation strategy expressed as a per-song scoring function, so the same
+ * strategy can be run sequentially or by {@link ParallelRecommendationStrategy}.
+ */
+public interface ScoredRecommendationStrategy extends RecommendationStrategy {
+
+    /**
+     * Precompute everything the strategy needs about the user and catalog
+     * and return a scorer that rates a single song ({@link SongScorer#NOT_ELIGIBLE} to skip it)
+     */
+    SongScorer createScorer(User user, List<Song> allSongs);
+
+    @Override
+    default List<Song> recommend(User user, List<Song> allSongs, int limit) {
+        SongScorer scorer = createScorer(user, allSongs);
+        TopKSongs topK = new TopKSongs(limit);
+        for (Song song : allSongs) {
+            double score = scorer.score(song);
+            if (score != SongScorer.NOT_ELIGIBLE) {
+                topK.offer(song, score);
+            }
+        }
+        return topK.toSortedList();
+    }
+}
@@ -1,6 +1,8 @@
 package lld.musicstreaming;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Song {
     private String id;
@@ -9,8 +11,9 @@ public class Song {
     private String album;
     private Duration duration;
     private String genre;
-    private int playCount;
-    private double rating;
+    private volatile int playCount;
+    private volatile double rating;
+    private final List<SongObserver> observers = new CopyOnWriteArrayList<>();
 
     public Song(String id, String title, String artist, String album, Duration duration, String genre) {
         this.id = id;
@@ -24,7 +27,28 @@ public class Song {
     }
 
     public void incrementPlayCount() {
-        this.playCount++;
+        addPlays(1);
+    }
+
+    // Applies a batch of aggregated plays with a single observer notification
+    public synchronized void addPlays(long plays) {
+        if (plays <= 0) {
+            return;
+        }
+        int previous = playCount;
+        playCount = (int) Math.min(Integer.MAX_VALUE, previous + plays);
+        // Notified under the song's lock so observers see play counts in order
+        for (SongObserver observer : observers) {
+            observer.onPlayCountChanged(this, previous);
+        }
+    }
+
+    public void addObserver(SongObserver observer) {
+        observers.add(observer);
+    }
+
+    public void removeObserver(SongObserver observer) {
+        observers.remove(observer);
     }
 
     public void setRating(double rating) {
@@ -0,0 +1,176 @@
+package lld.musicstreaming;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Incrementally maintained read indexes over the song catalog.
+ * - Token index: sorted token -> song ids, so a query token matches every indexed token it prefixes
+ * - Genre / artist indexes: case-insensitive hash buckets
+ * - Trending: songs ordered by play count, kept current through {@link SongObserver}
+ * Queries cost O(matches) instead of a full catalog scan.
+ */
+public class SongCatalogIndex implements SongObserver {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<String, Song> songsById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<String>> tokenIndex = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Song>> genreIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<Song>> artistIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<TrendingEntry> trending = new ConcurrentSkipListSet<>();
+
+    public void add(Song song) {
+        songsById.put(song.getId(), song);
+        for (String token : tokenize(song)) {
+            tokenIndex.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(song.getId());
+        }
+        genreIndex.computeIfAbsent(key(song.getGenre()), k -> ConcurrentHashMap.newKeySet()).add(song);
+        artistIndex.computeIfAbsent(key(song.getArtist()), k -> ConcurrentHashMap.newKeySet()).add(song);
+
+        synchronized (song) {
+            trending.add(new TrendingEntry(song, song.getPlayCount()));
+            song.addObserver(this);
+        }
+    }
+
+    public void remove(Song song) {
+        synchronized (song) {
+            song.removeObserver(this);
+            trending.remove(new TrendingEntry(song, song.getPlayCount()));
+        }
+        for (String token : tokenize(song)) {
+            Set<String> ids = tokenIndex.get(token);
+            if (ids != null) {
+                ids.remove(song.getId());
+            }
+        }
+        removeFromBucket(genreIndex, key(song.getGenre()), song);
+        removeFromBucket(artistIndex, key(song.getArtist()), song);
+        songsById.remove(song.getId(), song);
+    }
+
+    @Override
+    public void onPlayCountChanged(Song song, int previousPlayCount) {
+        trending.remove(new TrendingEntry(song, previousPlayCount));
+        trending.add(new TrendingEntry(song, song.getPlayCount()));
+    }
+
+    /**
+     * Every query token must prefix at least one title/artist/album/genre token of the song.
+     * A query without tokens matches the whole catalog.
+     */
+    public List<Song> search(String query) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>(songsById.values());
+        }
+
+        // Start from the most selective token and intersect the rest
+        List<Set<String>> candidates = new ArrayList<>();
+        for (String token : queryTokens) {
+            Set<String> ids = idsWithPrefix(token);
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            candidates.add(ids);
+        }
+        candidates.sort(Comparator.comparingInt(Set::size));
+
+        List<Song> results = new ArrayList<>();
+        for (String id : candidates.get(0)) {
+            boolean matchesAll = true;
+            for (int i = 1; i < candidates.size() && matchesAll; i++) {
+                matchesAll = candidates.get(i).contains(id);
+            }
+            Song song = songsById.get(id);
+            if (matchesAll && song != null) {
+                results.add(song);
+            }
+        }
+        return results;
+    }
+
+    public List<Song> getByGenre(String genre) {
+        return new ArrayList<>(genreIndex.getOrDefault(key(genre), Collections.emptySet()));
+    }
+
+    public List<Song> getByArtist(String artist) {
+        return new ArrayList<>(artistIndex.getOrDefault(key(artist), Collections.emptySet()));
+    }
+
+    public List<Song> getTrending(int limit) {
+        List<Song> results = new ArrayList<>(Math.max(0, limit));
+        Iterator<TrendingEntry> iterator = trending.iterator();
+        while (results.size() < limit && iterator.hasNext()) {
+            results.add(iterator.next().song);
+        }
+        return results;
+    }
+
+    private Set<String> idsWithPrefix(String prefix) {
+        ConcurrentNavigableMap<String, Set<String>> range =
+                tokenIndex.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.values().iterator().next();
+        }
+        Set<String> ids = new HashSet<>();
+        for (Set<String> bucket : range.values()) {
+            ids.addAll(bucket);
+        }
+        return ids;
+    }
+
+    private static void removeFromBucket(Map<String, Set<Song>> index, String key, Song song) {
+        Set<Song> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(song);
+        }
+    }
+
+    private static Set<String> tokenize(Song song) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(song.getTitle()));
+        tokens.addAll(tokenize(song.getArtist()));
+        tokens.addAll(tokenize(song.getAlbum()));
+        tokens.addAll(tokenize(song.getGenre()));
+        return tokens;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    // Ordered by play count descending, then id for a stable total order
+    private static class TrendingEntry implements Comparable<TrendingEntry> {
+        private final Song song;
+        private final int playCount;
+
+        TrendingEntry(Song song, int playCount) {
+            this.song = song;
+            this.playCount = playCount;
+        }
+
+        @Override
+        public int compareTo(TrendingEntry other) {
+            int byCount = Integer.compare(other.playCount, playCount);
+            return byCount != 0 ? byCount : song.getId().compareTo(other.song.getId());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package lld.musicstreaming;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Dense, L2-normalized song vectors stored off-heap in one contiguous FloatBuffer (row-major).
+ * Vectors are built with signed feature hashing from genre, artist and co-play statistics:
+ * every user who liked or recently played a song contributes a hashed "user" component,
+ * so songs with overlapping audiences end up close together.
+ * Cosine similarity is a plain dot product because rows are normalized.
+ */
+public class SongEmbeddings {
+    private static final float GENRE_WEIGHT = 1.0f;
+    private static final float ARTIST_WEIGHT = 0.8f;
+    private static final float CO_PLAY_WEIGHT = 0.5f;
+
+    private final int dimension;
+    private final Song[] songs;
+    private final Map<String, Integer> rowsBySongId;
+    private final FloatBuffer vectors;
+
+    private SongEmbeddings(int dimension, Song[] songs, Map<String, Integer> rowsBySongId, FloatBuffer vectors) {
+        this.dimension = dimension;
+        this.songs = songs;
+        this.rowsBySongId = rowsBySongId;
+        this.vectors = vectors;
+    }
+
+    public static SongEmbeddings build(Collection<Song> catalog, Collection<User> users, int dimension) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        Song[] songs = catalog.toArray(new Song[0]);
+        long bytes = (long) songs.length * dimension * Float.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            // A single direct buffer is int-indexed; lower the dimension for larger catalogs
+            throw new IllegalArgumentException("Embedding matrix exceeds 2GB: " + bytes + " bytes");
+        }
+        Map<String, Integer> rows = new HashMap<>(songs.length * 2);
+        FloatBuffer vectors = ByteBuffer.allocateDirect((int) bytes)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+
+        for (int row = 0; row < songs.length; row++) {
+            rows.put(songs[row].getId(), row);
+            addHashed(vectors, row, dimension, "genre:" + songs[row].getGenre(), GENRE_WEIGHT);
+            addHashed(vectors, row, dimension, "artist:" + songs[row].getArtist(), ARTIST_WEIGHT);
+        }
+
+        for (User user : users) {
+            Set<Song> history = new HashSet<>(user.getLikedSongs());
+            history.addAll(user.getRecentlyPlayed());
+            String userFeature = "user:" + user.getId();
+            for (Song song : history) {
+                Integer row = rows.get(song.getId());
+                if (row != null) {
+                    addHashed(vectors, row, dimension, userFeature, CO_PLAY_WEIGHT);
+                }
+            }
+        }
+
+        for (int row = 0; row < songs.length; row++) {
+            normalize(vectors, row * dimension, dimension);
+        }
+        return new SongEmbeddings(dimension, songs, rows, vectors);
+    }
+
+    /**
+     * Mean of the user's liked and recently played song vectors, or null for a user without history
+     */
+    public float[] userProfile(User user) {
+        float[] profile = new float[dimension];
+        int count = 0;
+        Set<Song> history = new HashSet<>(user.getLikedSongs());
+        history.addAll(user.getRecentlyPlayed());
+        for (Song song : history) {
+            int row = rowOf(song);
+            if (row >= 0) {
+                int offset = row * dimension;
+                for (int d = 0; d < dimension; d++) {
+                    profile[d] += vectors.get(offset + d);
+                }
+                count++;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        float norm = norm(profile);
+        for (int d = 0; d < dimension; d++) {
+            profile[d] /= norm;
+        }
+        return profile;
+    }
+
+    public float[] vectorOf(Song song) {
+        int row = rowOf(song);
+        if (row < 0) {
+            return null;
+        }
+        float[] vector = new float[dimension];
+        vectors.get(row * dimension, vector);
+        return vector;
+    }
+
+    public float dot(int row, float[] query) {
+        int offset = row * dimension;
+        float sum = 0;
+        for (int d = 0; d < dimension; d++) {
+            sum += vectors.get(offset + d) * query[d];
+        }
+        return sum;
+    }
+
+    /**
+     * Exact nearest neighbours by scanning every row; the baseline for approximate indexes
+     */
+    public TopKSongs bruteForceSearch(float[] query, int k, Predicate<Song> excluded) {
+        TopKSongs topK = new TopKSongs(k);
+        for (int row = 0; row < songs.length; row++) {
+            if (!excluded.test(songs[row])) {
+                topK.offer(songs[row], dot(row, query));
+            }
+        }
+        return topK;
+    }
+
+    public int rowOf(Song song) {
+        Integer row = rowsBySongId.get(song.getId());
+        return row == null ? -1 : row;
+    }
+
+    // Getters
+    public int getDimension() { return dimension; }
+    public int size() { return songs.length; }
+    public Song songAt(int row) { return songs[row]; }
+
+    // Signed feature hashing: one bucket per feature, random sign to cancel collision bias
+    private static void addHashed(FloatBuffer vectors, int row, int dimension, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        int bucket = (hash >>> 1) % dimension;
+        float sign = (hash & 1) == 0 ? 1f : -1f;
+        int index = row * dimension + bucket;
+        vectors.put(index, vectors.get(index) + sign * weight);
+    }
+
+    // MurmurHash3 finalizer spreads String.hashCode bits across the whole int
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static void normalize(FloatBuffer vectors, int offset, int dimension) {
+        float sumSquares = 0;
+        for (int d = 0; d < dimension; d++) {
+            float value = vectors.get(offset + d);
+            sumSquares += value * value;
+        }
+        if (sumSquares == 0) {
+            return;
+        }
+        float scale = (float) (1.0 / Math.sqrt(sumSquares));
+        for (int d = 0; d < dimension; d++) {
+            vectors.put(offset + d, vectors.get(offset + d) * scale);
+        }
+    }
+
+    static float norm(float[] vector) {
+        float sumSquares = 0;
+        for (float value : vector) {
+            sumSquares += value * value;
+        }
+        return sumSquares == 0 ? 1f : (float) Math.sqrt(sumSquares);
+    }
+}
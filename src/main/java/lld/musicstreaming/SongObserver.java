@@ -0,0 +1,5 @@
+package lld.musicstreaming;
+
+public interface SongObserver {
+    void onPlayCountChanged(Song song, int previousPlayCount);
+}
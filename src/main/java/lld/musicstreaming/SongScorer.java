@@ -0,0 +1,12 @@
+package lld.musicstreaming;
+
+/**
+ * Scores one candidate song for one user; higher is better.
+ * Scorers are created per request and must be safe to call from several threads.
+ */
+@FunctionalInterface
+public interface SongScorer {
+    double NOT_ELIGIBLE = Double.NEGATIVE_INFINITY;
+
+    double score(Song song);
+}
@@ -0,0 +1,115 @@
+package lld.musicstreaming;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded min-heap keeping the K highest scoring songs.
+ * Backed by parallel arrays so offering a candidate allocates nothing: O(log K) per accepted song.
+ * The arrays grow with the number of songs kept, so a huge K costs no more than the candidates offered.
+ */
+public class TopKSongs {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int capacity;
+    private Song[] songs;
+    private double[] scores;
+    private int size;
+
+    public TopKSongs(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.songs = new Song[Math.min(this.capacity, INITIAL_CAPACITY)];
+        this.scores = new double[songs.length];
+    }
+
+    public void offer(Song song, double score) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            if (size == songs.length) {
+                int grown = (int) Math.min(capacity, 2L * size);
+                songs = Arrays.copyOf(songs, grown);
+                scores = Arrays.copyOf(scores, grown);
+            }
+            songs[size] = song;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            songs[0] = song;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public void addAll(TopKSongs other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.songs[i], other.scores[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Lowest score currently kept, or negative infinity while the heap is not full
+    public double threshold() {
+        return size < capacity ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * Songs ordered from highest to lowest score
+     */
+    public List<Song> toSortedList() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        List<Song> result = new ArrayList<>(size);
+        for (int index : order) {
+            result.add(songs[index]);
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                break;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && scores[right] < scores[left]) {
+                smallest = right;
+            }
+            if (scores[index] <= scores[smallest]) {
+                break;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Song song = songs[a];
+        songs[a] = songs[b];
+        songs[b] = song;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
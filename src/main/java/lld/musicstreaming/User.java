@@ -7,9 +7,10 @@ public class User {
     private String name;
     private String email;
     private Set<String> favoriteGenres;
-    private List<Song> likedSongs;
+    private Set<Song> likedSongs;
     private Map<String, Integer> artistPlayCount;
-    private List<Song> recentlyPlayed;
+    // Insertion ordered (oldest first): re-playing a song moves it to the end in O(1)
+    private LinkedHashSet<Song> recentlyPlayed;
     private static final int MAX_RECENT_SONGS = 50;
 
     public User(String id, String name, String email) {
@@ -17,36 +18,36 @@ public class User {
         this.name = name;
         this.email = email;
         this.favoriteGenres = new HashSet<>();
-        this.likedSongs = new ArrayList<>();
+        this.likedSongs = new LinkedHashSet<>();
         this.artistPlayCount = new HashMap<>();
-        this.recentlyPlayed = new ArrayList<>();
+        this.recentlyPlayed = new LinkedHashSet<>();
     }
 
-    public void addFavoriteGenre(String genre) {
+    public synchronized void addFavoriteGenre(String genre) {
         favoriteGenres.add(genre);
     }
 
-    public void likeSong(Song song) {
-        if (!likedSongs.contains(song)) {
-            likedSongs.add(song);
-        }
+    public synchronized void likeSong(Song song) {
+        likedSongs.add(song);
     }
 
-    public void playedSong(Song song) {
+    public synchronized void playedSong(Song song) {
         // Update artist play count
         artistPlayCount.merge(song.getArtist(), 1, Integer::sum);
         
         // Add to recently played (remove if already exists to avoid duplicates)
         recentlyPlayed.remove(song);
-        recentlyPlayed.add(0, song);
+        recentlyPlayed.add(song);
         
         // Keep only the most recent songs
         if (recentlyPlayed.size() > MAX_RECENT_SONGS) {
-            recentlyPlayed.remove(recentlyPlayed.size() - 1);
+            Iterator<Song> oldest = recentlyPlayed.iterator();
+            oldest.next();
+            oldest.remove();
         }
     }
 
-    public Set<String> getTopArtists(int limit) {
+    public synchronized Set<String> getTopArtists(int limit) {
         return artistPlayCount.entrySet().stream()
                 .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
                 .limit(limit)
@@ -58,10 +59,16 @@ public class User {
     public String getId() { return id; }
     public String getName() { return name; }
     public String getEmail() { return email; }
-    public Set<String> getFavoriteGenres() { return new HashSet<>(favoriteGenres); }
-    public List<Song> getLikedSongs() { return new ArrayList<>(likedSongs); }
-    public Map<String, Integer> getArtistPlayCount() { return new HashMap<>(artistPlayCount); }
-    public List<Song> getRecentlyPlayed() { return new ArrayList<>(recentlyPlayed); }
+    public synchronized Set<String> getFavoriteGenres() { return new HashSet<>(favoriteGenres); }
+    public synchronized List<Song> getLikedSongs() { return new ArrayList<>(likedSongs); }
+    public synchronized Map<String, Integer> getArtistPlayCount() { return new HashMap<>(artistPlayCount); }
+
+    // Most recent first
+    public synchronized List<Song> getRecentlyPlayed() {
+        List<Song> songs = new ArrayList<>(recentlyPlayed);
+        Collections.reverse(songs);
+        return songs;
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,288 @@
+package lld.scorecard;
+
+import java.util.*;
+
+/**
+ * Primitive scoring plan for a scorecard.
+ * Every question gets a dense index (questions of a section are contiguous), and weights and
+ * normalization constants live in double arrays. Responses are encoded once into typed arrays
+ * ({@link EncodedResponses}); scoring them afterwards does no hashing, boxing or type dispatch.
+ * Results are identical to {@link Scorecard#calculateScore} on the original maps.
+ */
+public class CompiledScorecard {
+    static final byte ABSENT = 0;
+    static final byte VALID = 1;
+    static final byte INVALID = 2; // answered, but fails validation: scores 0 with full weight
+
+    private final String scorecardId;
+    private final String[] sectionIds;
+    private final double[] sectionWeights;
+    private final int[] sectionStart; // questions of section s are [sectionStart[s], sectionStart[s + 1])
+    private final Question[] questions;
+    private final String[] questionIds;
+    private final double[] questionWeights;
+    private final double[] offsets; // score = (value - offset) / range
+    private final double[] ranges;
+    private final boolean[] mandatory;
+    private final Map<String, Integer> sectionIndex = new HashMap<>();
+
+    CompiledScorecard(Scorecard scorecard) {
+        List<Section> sections = scorecard.getSections();
+        List<Question> all = new ArrayList<>();
+        this.scorecardId = scorecard.getScorecardId();
+        this.sectionIds = new String[sections.size()];
+        this.sectionWeights = new double[sections.size()];
+        this.sectionStart = new int[sections.size() + 1];
+        for (int s = 0; s < sections.size(); s++) {
+            Section section = sections.get(s);
+            sectionIds[s] = section.getSectionId();
+            sectionWeights[s] = section.getWeight();
+            sectionStart[s] = all.size();
+            sectionIndex.put(section.getSectionId(), s);
+            all.addAll(section.getQuestions());
+        }
+        sectionStart[sections.size()] = all.size();
+
+        int count = all.size();
+        this.questions = all.toArray(new Question[0]);
+        this.questionIds = new String[count];
+        this.questionWeights = new double[count];
+        this.offsets = new double[count];
+        this.ranges = new double[count];
+        this.mandatory = new boolean[count];
+        for (int q = 0; q < count; q++) {
+            Question question = questions[q];
+            questionIds[q] = question.getQuestionId();
+            questionWeights[q] = question.getWeight();
+            mandatory[q] = question.isMandatory();
+            compileNormalization(q, question);
+        }
+    }
+
+    // Mirrors Question.calculateScore for each response type
+    private void compileNormalization(int q, Question question) {
+        switch (question.getResponseType()) {
+            case NUMERIC:
+                Map<String, Object> constraints = question.getConstraints();
+                double min = constraints.containsKey("min") ? ((Number) constraints.get("min")).doubleValue() : 0;
+                double max = constraints.containsKey("max") ? ((Number) constraints.get("max")).doubleValue() : 10;
+                offsets[q] = min;
+                ranges[q] = max - min;
+                break;
+            case RATING:
+                offsets[q] = 1;
+                ranges[q] = 4.0;
+                break;
+            case PERCENTAGE:
+                offsets[q] = 0;
+                ranges[q] = 100.0;
+                break;
+            default:
+                // BOOLEAN encodes as 1/0; TEXT and MULTIPLE_CHOICE encode as 1 when valid
+                offsets[q] = 0;
+                ranges[q] = 1;
+        }
+    }
+
+    /**
+     * Validate and convert nested responses (sectionId -> questionId -> value) once
+     */
+    public EncodedResponses encode(Map<String, Map<String, Object>> responses) {
+        EncodedResponses encoded = new EncodedResponses(questions.length);
+        for (int s = 0; s < sectionIds.length; s++) {
+            Map<String, Object> sectionResponses = responses.get(sectionIds[s]);
+            if (sectionResponses == null || sectionResponses.isEmpty()) {
+                continue;
+            }
+            for (int q = sectionStart[s]; q < sectionStart[s + 1]; q++) {
+                Object response = sectionResponses.get(questionIds[q]);
+                if (response != null) {
+                    encodeValue(q, response, encoded);
+                }
+            }
+        }
+        return encoded;
+    }
+
+    private void encodeValue(int q, Object response, EncodedResponses encoded) {
+        Question question = questions[q];
+        if (!question.validateResponse(response).isValid()) {
+            encoded.status[q] = INVALID;
+            return;
+        }
+        encoded.status[q] = VALID;
+        switch (question.getResponseType()) {
+            case NUMERIC:
+            case PERCENTAGE:
+                encoded.values[q] = ((Number) response).doubleValue();
+                break;
+            case RATING:
+                encoded.values[q] = ((Number) response).intValue();
+                break;
+            case BOOLEAN:
+                encoded.values[q] = (Boolean) response ? 1.0 : 0.0;
+                break;
+            default:
+                encoded.values[q] = 1.0;
+        }
+    }
+
+    /**
+     * Same verdict as {@link Scorecard#validateResponses}: no invalid answer and every
+     * mandatory question answered
+     */
+    public boolean isValid(EncodedResponses responses) {
+        for (int q = 0; q < questions.length; q++) {
+            byte status = responses.status[q];
+            if (status == INVALID || (status == ABSENT && mandatory[q])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Overall weighted score without building per-section result objects
+     */
+    public double overallScore(EncodedResponses responses) {
+        double totalWeightedScore = 0.0;
+        double totalWeight = 0.0;
+        for (int s = 0; s < sectionIds.length; s++) {
+            totalWeightedScore += sectionScore(responses, s) * sectionWeights[s];
+            totalWeight += sectionWeights[s];
+        }
+        return totalWeight > 0 ? totalWeightedScore / totalWeight : 0.0;
+    }
+
+    /**
+     * Overall score, also writing every section's score into sectionScores (by dense index)
+     */
+    public double overallScore(EncodedResponses responses, double[] sectionScores) {
+        double totalWeightedScore = 0.0;
+        double totalWeight = 0.0;
+        for (int s = 0; s < sectionIds.length; s++) {
+            sectionScores[s] = sectionScore(responses, s);
+            totalWeightedScore += sectionScores[s] * sectionWeights[s];
+            totalWeight += sectionWeights[s];
+        }
+        return totalWeight > 0 ? totalWeightedScore / totalWeight : 0.0;
+    }
+
+    /**
+     * Score of one section (by dense index)
+     */
+    public double sectionScore(EncodedResponses responses, int section) {
+        byte[] status = responses.status;
+        double[] values = responses.values;
+        double totalWeightedScore = 0.0;
+        double totalWeight = 0.0;
+        for (int q = sectionStart[section]; q < sectionStart[section + 1]; q++) {
+            if (status[q] == ABSENT) {
+                continue;
+            }
+            double score = status[q] == VALID ? (values[q] - offsets[q]) / ranges[q] : 0.0;
+            totalWeightedScore += score * questionWeights[q];
+            totalWeight += questionWeights[q];
+        }
+        return totalWeight > 0 ? totalWeightedScore / totalWeight : 0.0;
+    }
+
+    /**
+     * Overall scores of many evaluations
+     */
+    public double[] overallScores(List<EncodedResponses> evaluations) {
+        double[] scores = new double[evaluations.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = overallScore(evaluations.get(i));
+        }
+        return scores;
+    }
+
+    /**
+     * Full score breakdown, same shape as {@link Scorecard#calculateScore}
+     */
+    public Scorecard.ScorecardScore score(EncodedResponses responses) {
+        double totalWeightedScore = 0.0;
+        double totalWeight = 0.0;
+        Map<String, Section.SectionScore> sectionScores = new HashMap<>();
+
+        for (int s = 0; s < sectionIds.length; s++) {
+            int answered = 0;
+            Map<String, Double> questionScores = new HashMap<>();
+            for (int q = sectionStart[s]; q < sectionStart[s + 1]; q++) {
+                if (responses.status[q] != ABSENT) {
+                    answered++;
+                    questionScores.put(questionIds[q], questionScore(responses, q));
+                }
+            }
+            int total = sectionStart[s + 1] - sectionStart[s];
+            double score = sectionScore(responses, s);
+            double completionRate = total > 0 ? (double) answered / total : 0.0;
+            sectionScores.put(sectionIds[s], new Section.SectionScore(score, completionRate, questionScores,
+                    answered, total));
+
+            totalWeightedScore += score * sectionWeights[s];
+            totalWeight += sectionWeights[s];
+        }
+
+        double overallScore = totalWeight > 0 ? totalWeightedScore / totalWeight : 0.0;
+        return new Scorecard.ScorecardScore(overallScore, sectionScores);
+    }
+
+    /**
+     * Normalized score of one question, 0 when unanswered or invalid
+     */
+    public double questionScore(EncodedResponses responses, int question) {
+        return responses.status[question] == VALID
+                ? (responses.values[question] - offsets[question]) / ranges[question] : 0.0;
+    }
+
+    // Plan arrays for column-wise scoring (EvaluationStore)
+    int sectionStart(int section) { return sectionStart[section]; }
+    double sectionWeight(int section) { return sectionWeights[section]; }
+    double questionWeight(int question) { return questionWeights[question]; }
+    double offset(int question) { return offsets[question]; }
+    double range(int question) { return ranges[question]; }
+
+    // Getters
+    public String getScorecardId() { return scorecardId; }
+    public int getSectionCount() { return sectionIds.length; }
+    public int getQuestionCount() { return questions.length; }
+    public String getSectionId(int section) { return sectionIds[section]; }
+    public String getQuestionId(int question) { return questionIds[question]; }
+
+    /**
+     * @return dense section index, or -1
+     */
+    public int getSectionIndex(String sectionId) {
+        return sectionIndex.getOrDefault(sectionId, -1);
+    }
+
+    /**
+     * One evaluation's responses by dense question index: a status per question and the
+     * response as a double (rating as its int value, boolean as 1/0, text and choice as 1)
+     */
+    public static class EncodedResponses {
+        final byte[] status;
+        final double[] values;
+
+        EncodedResponses(int questions) {
+            this.status = new byte[questions];
+            this.values = new double[questions];
+        }
+
+        public int getAnsweredCount() {
+            int answered = 0;
+            for (byte s : status) {
+                if (s != ABSENT) {
+                    answered++;
+                }
+            }
+            return answered;
+        }
+
+        public boolean isAnswered(int question) { return status[question] != ABSENT; }
+        public boolean isValid(int question) { return status[question] == VALID; }
+        public double getValue(int question) { return values[question]; }
+    }
+}
@@ -0,0 +1,268 @@
+package lld.scorecard;
+
+import java.util.*;
+
+/**
+ * Columnar store of one scorecard's encoded evaluations: per question, a status column and a
+ * value column indexed by row, plus the evaluator of each row. Scoring walks whole columns
+ * instead of chasing a map per evaluation.
+ *
+ * Rows are only ever appended; a resubmission appends a new row and retires the old one by
+ * recording the replacing row. A row was live at a row count n if it is below n and was not
+ * replaced by a row below n, so a {@link Snapshot} (row count, column references) stays
+ * consistent without copying anything per row. Retired rows are dropped by rebuilding the
+ * columns once they outnumber the live ones.
+ *
+ * Running {@link ScoreAggregates} over the live rows are updated on every put (the replaced
+ * row's scores are recomputed from its columns and removed), so reading them costs
+ * O(sections) however many evaluations there are.
+ */
+public class EvaluationStore {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MIN_RETIRED_FOR_COMPACTION = 1024;
+    private static final int NOT_REPLACED = Integer.MAX_VALUE;
+
+    private final CompiledScorecard plan;
+    private final Map<String, Integer> rowsByEvaluator = new HashMap<>();
+    private String[] evaluators = new String[INITIAL_CAPACITY];
+    private byte[][] status;    // [question][row]
+    private double[][] values;  // [question][row]
+    private int[] replacedBy = newReplacedBy(INITIAL_CAPACITY); // row that retired each row, or NOT_REPLACED
+    private int rows;
+    private ScoreAggregates aggregates;
+    private final double[] sectionScores; // scratch for updating the aggregates
+
+    public EvaluationStore(CompiledScorecard plan) {
+        this.plan = plan;
+        this.status = new byte[plan.getQuestionCount()][INITIAL_CAPACITY];
+        this.values = new double[plan.getQuestionCount()][INITIAL_CAPACITY];
+        this.aggregates = new ScoreAggregates(plan.getSectionCount());
+        this.sectionScores = new double[plan.getSectionCount()];
+    }
+
+    /**
+     * Store an evaluator's responses, replacing their previous ones
+     *
+     * @return the replaced responses' row, or -1
+     */
+    public synchronized int put(String evaluatorId, CompiledScorecard.EncodedResponses responses) {
+        if (rows == evaluators.length) {
+            grow();
+        }
+        int row = rows++;
+        evaluators[row] = evaluatorId;
+        for (int q = 0; q < status.length; q++) {
+            status[q][row] = responses.status[q];
+            values[q][row] = responses.values[q];
+        }
+        accumulate(responses, true);
+        Integer previous = rowsByEvaluator.put(evaluatorId, row);
+        if (previous != null) {
+            replacedBy[previous] = row;
+            accumulate(readRow(previous), false);
+            compactIfNeeded();
+        }
+        return previous == null ? -1 : previous;
+    }
+
+    /**
+     * Copy of the running aggregates over every evaluator's current responses
+     */
+    public synchronized ScoreAggregates getAggregates() {
+        return aggregates.copy();
+    }
+
+    /**
+     * An evaluator's current responses, or null
+     */
+    public synchronized CompiledScorecard.EncodedResponses get(String evaluatorId) {
+        Integer row = rowsByEvaluator.get(evaluatorId);
+        return row == null ? null : readRow(row);
+    }
+
+    /**
+     * O(questions + sections): shares the columns, copies only their outer arrays and the aggregates
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(plan, rows, rowsByEvaluator.size(), replacedBy, evaluators, status, values,
+                aggregates.copy());
+    }
+
+    public synchronized int size() {
+        return rowsByEvaluator.size();
+    }
+
+    public CompiledScorecard getPlan() { return plan; }
+
+    private CompiledScorecard.EncodedResponses readRow(int row) {
+        CompiledScorecard.EncodedResponses responses = new CompiledScorecard.EncodedResponses(status.length);
+        for (int q = 0; q < status.length; q++) {
+            responses.status[q] = status[q][row];
+            responses.values[q] = values[q][row];
+        }
+        return responses;
+    }
+
+    // Scoring is deterministic, so removing recomputes exactly the values that were added
+    private void accumulate(CompiledScorecard.EncodedResponses responses, boolean add) {
+        double overall = plan.overallScore(responses, sectionScores);
+        if (add) {
+            aggregates.add(overall);
+        } else {
+            aggregates.remove(overall);
+        }
+        for (int s = 0; s < sectionScores.length; s++) {
+            if (add) {
+                aggregates.addSection(s, sectionScores[s]);
+            } else {
+                aggregates.removeSection(s, sectionScores[s]);
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = evaluators.length * 2;
+        evaluators = Arrays.copyOf(evaluators, capacity);
+        replacedBy = Arrays.copyOf(replacedBy, capacity);
+        Arrays.fill(replacedBy, rows, capacity, NOT_REPLACED);
+        for (int q = 0; q < status.length; q++) {
+            status[q] = Arrays.copyOf(status[q], capacity);
+            values[q] = Arrays.copyOf(values[q], capacity);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int liveRows = rowsByEvaluator.size();
+        if (rows - liveRows < Math.max(MIN_RETIRED_FOR_COMPACTION, liveRows)) {
+            return;
+        }
+        int capacity = Math.max(INITIAL_CAPACITY, liveRows * 2);
+        String[] newEvaluators = new String[capacity];
+        byte[][] newStatus = new byte[status.length][capacity];
+        double[][] newValues = new double[status.length][capacity];
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            if (replacedBy[row] != NOT_REPLACED) {
+                continue;
+            }
+            newEvaluators[next] = evaluators[row];
+            for (int q = 0; q < status.length; q++) {
+                newStatus[q][next] = status[q][row];
+                newValues[q][next] = values[q][row];
+            }
+            rowsByEvaluator.put(evaluators[row], next++);
+        }
+        evaluators = newEvaluators;
+        status = newStatus;
+        values = newValues;
+        replacedBy = newReplacedBy(capacity); // snapshots keep the old array
+        rows = next;
+
+        // Start the running sums afresh so add/remove rounding does not build up
+        aggregates = new ScoreAggregates(plan.getSectionCount());
+        for (int row = 0; row < rows; row++) {
+            accumulate(readRow(row), true);
+        }
+    }
+
+    private static int[] newReplacedBy(int capacity) {
+        int[] rows = new int[capacity];
+        Arrays.fill(rows, NOT_REPLACED);
+        return rows;
+    }
+
+    /**
+     * Immutable view of the rows present when it was taken, with the running aggregates over
+     * exactly those rows
+     */
+    public static class Snapshot {
+        private final CompiledScorecard plan;
+        private final int rows;
+        private final int liveCount;
+        private final int[] replacedBy; // entries written after the snapshot are all >= rows
+        private final String[] evaluators;
+        private final byte[][] status;
+        private final double[][] values;
+        private final ScoreAggregates aggregates;
+
+        Snapshot(CompiledScorecard plan, int rows, int liveCount, int[] replacedBy, String[] evaluators,
+                 byte[][] status, double[][] values, ScoreAggregates aggregates) {
+            this.plan = plan;
+            this.rows = rows;
+            this.liveCount = liveCount;
+            this.replacedBy = replacedBy;
+            this.evaluators = evaluators;
+            this.status = status.clone(); // grow() replaces columns in the store's outer arrays
+            this.values = values.clone();
+            this.aggregates = aggregates;
+        }
+
+        /**
+         * Rows to iterate over; check {@link #isLive} for each
+         */
+        public int getRowCount() { return rows; }
+        public int getLiveCount() { return liveCount; }
+        public boolean isLive(int row) { return row < rows && replacedBy[row] >= rows; }
+        public String getEvaluatorId(int row) { return evaluators[row]; }
+        public CompiledScorecard getPlan() { return plan; }
+
+        /**
+         * Copy of the running aggregates at the time of the snapshot
+         */
+        public ScoreAggregates getAggregates() { return aggregates.copy(); }
+
+        public CompiledScorecard.EncodedResponses row(int row) {
+            CompiledScorecard.EncodedResponses responses = new CompiledScorecard.EncodedResponses(status.length);
+            for (int q = 0; q < status.length; q++) {
+                responses.status[q] = status[q][row];
+                responses.values[q] = values[q][row];
+            }
+            return responses;
+        }
+
+        /**
+         * Score rows [from, to) column by column. Writes overall[i] and sections[s][i] for row
+         * from + i, with the same arithmetic as {@link CompiledScorecard#overallScore}.
+         */
+        public void scoreRows(int from, int to, double[] overall, double[][] sections) {
+            int n = to - from;
+            double[] weighted = new double[n];
+            double[] weights = new double[n];
+            Arrays.fill(overall, 0, n, 0.0);
+            double totalSectionWeight = 0.0;
+
+            for (int s = 0; s < plan.getSectionCount(); s++) {
+                Arrays.fill(weighted, 0.0);
+                Arrays.fill(weights, 0.0);
+                for (int q = plan.sectionStart(s); q < plan.sectionStart(s + 1); q++) {
+                    byte[] questionStatus = status[q];
+                    double[] questionValues = values[q];
+                    double offset = plan.offset(q);
+                    double range = plan.range(q);
+                    double weight = plan.questionWeight(q);
+                    for (int i = 0; i < n; i++) {
+                        byte st = questionStatus[from + i];
+                        if (st == CompiledScorecard.ABSENT) {
+                            continue;
+                        }
+                        double score = st == CompiledScorecard.VALID ? (questionValues[from + i] - offset) / range : 0.0;
+                        weighted[i] += score * weight;
+                        weights[i] += weight;
+                    }
+                }
+                double sectionWeight = plan.sectionWeight(s);
+                double[] sectionScores = sections[s];
+                for (int i = 0; i < n; i++) {
+                    double score = weights[i] > 0 ? weighted[i] / weights[i] : 0.0;
+                    sectionScores[i] = score;
+                    overall[i] += score * sectionWeight;
+                }
+                totalSectionWeight += sectionWeight;
+            }
+
+            for (int i = 0; i < n; i++) {
+                overall[i] = totalSectionWeight > 0 ? overall[i] / totalSectionWeight : 0.0;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package lld.scorecard;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores every live row of an evaluation snapshot with fork/join: the row range is split in
+ * halves down to blocks that are scored column-wise, each block builds partial
+ * {@link ScoreAggregates} and the partials are merged on the way back up.
+ */
+public class ReportAggregator {
+    private static final int BLOCK_ROWS = 2048;
+
+    private final ForkJoinPool pool;
+
+    public ReportAggregator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ReportAggregator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Result aggregate(EvaluationStore.Snapshot snapshot) {
+        double[] overall = new double[snapshot.getRowCount()];
+        ScoreAggregates aggregates = pool.invoke(new AggregationTask(snapshot, overall, 0, snapshot.getRowCount()));
+
+        // Percentiles need the sorted live scores
+        double[] sorted = new double[snapshot.getLiveCount()];
+        int next = 0;
+        for (int row = 0; row < overall.length; row++) {
+            if (snapshot.isLive(row)) {
+                sorted[next++] = overall[row];
+            }
+        }
+        Arrays.parallelSort(sorted);
+        return new Result(aggregates, overall, sorted);
+    }
+
+    private static class AggregationTask extends RecursiveTask<ScoreAggregates> {
+        private static final long serialVersionUID = 1L;
+
+        private final EvaluationStore.Snapshot snapshot;
+        private final double[] overall;
+        private final int from;
+        private final int to;
+
+        AggregationTask(EvaluationStore.Snapshot snapshot, double[] overall, int from, int to) {
+            this.snapshot = snapshot;
+            this.overall = overall;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreAggregates compute() {
+            if (to - from <= BLOCK_ROWS) {
+                return scoreBlock();
+            }
+            int middle = (from + to) >>> 1;
+            AggregationTask left = new AggregationTask(snapshot, overall, from, middle);
+            left.fork();
+            ScoreAggregates right = new AggregationTask(snapshot, overall, middle, to).compute();
+            ScoreAggregates merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+
+        private ScoreAggregates scoreBlock() {
+            int sections = snapshot.getPlan().getSectionCount();
+            int n = to - from;
+            double[] blockOverall = new double[n];
+            double[][] blockSections = new double[sections][n];
+            snapshot.scoreRows(from, to, blockOverall, blockSections);
+
+            ScoreAggregates aggregates = new ScoreAggregates(sections);
+            for (int i = 0; i < n; i++) {
+                if (!snapshot.isLive(from + i)) {
+                    continue;
+                }
+                overall[from + i] = blockOverall[i];
+                aggregates.add(blockOverall[i]);
+                for (int s = 0; s < sections; s++) {
+                    aggregates.addSection(s, blockSections[s][i]);
+                }
+            }
+            return aggregates;
+        }
+    }
+
+    /**
+     * Aggregates, each row's overall score (by snapshot row) and the sorted live scores
+     */
+    public static class Result {
+        public final ScoreAggregates aggregates;
+        private final double[] overallByRow;
+        private final double[] sortedScores;
+
+        Result(ScoreAggregates aggregates, double[] overallByRow, double[] sortedScores) {
+            this.aggregates = aggregates;
+            this.overallByRow = overallByRow;
+            this.sortedScores = sortedScores;
+        }
+
+        public double getOverallScore(int row) { return overallByRow[row]; }
+
+        /**
+         * Nearest-rank percentile of the overall scores, p in [0, 100]
+         */
+        public double getPercentile(double p) {
+            return percentile(sortedScores, p);
+        }
+    }
+
+    static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
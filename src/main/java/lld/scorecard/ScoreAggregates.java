@@ -0,0 +1,108 @@
+package lld.scorecard;
+
+/**
+ * Mergeable summary of many evaluations' scores: count, sum and sum of squares of the overall
+ * score, per-section sums, and fixed-width histograms over [0, 1] for the overall and every
+ * section score (values outside the range land in the first/last bucket).
+ * Scores can also be removed again, so a summary can be kept up to date as evaluations change.
+ */
+public class ScoreAggregates {
+    public static final int BUCKETS = 10;
+
+    private long count;
+    private double sum;
+    private double sumSquares;
+    private final long[] histogram = new long[BUCKETS];
+    private final double[] sectionSums;
+    private final long[][] sectionHistograms;
+
+    public ScoreAggregates(int sections) {
+        this.sectionSums = new double[sections];
+        this.sectionHistograms = new long[sections][BUCKETS];
+    }
+
+    /**
+     * Count one evaluation's overall score; its section scores go through {@link #addSection}
+     */
+    public void add(double overallScore) {
+        count++;
+        sum += overallScore;
+        sumSquares += overallScore * overallScore;
+        histogram[bucket(overallScore)]++;
+    }
+
+    public void addSection(int section, double score) {
+        sectionSums[section] += score;
+        sectionHistograms[section][bucket(score)]++;
+    }
+
+    /**
+     * Undo {@link #add} for a score added earlier; its section scores go through {@link #removeSection}
+     */
+    public void remove(double overallScore) {
+        count--;
+        sum -= overallScore;
+        sumSquares -= overallScore * overallScore;
+        histogram[bucket(overallScore)]--;
+    }
+
+    public void removeSection(int section, double score) {
+        sectionSums[section] -= score;
+        sectionHistograms[section][bucket(score)]--;
+    }
+
+    public ScoreAggregates copy() {
+        ScoreAggregates copy = new ScoreAggregates(sectionSums.length);
+        copy.merge(this);
+        return copy;
+    }
+
+    public void merge(ScoreAggregates other) {
+        count += other.count;
+        sum += other.sum;
+        sumSquares += other.sumSquares;
+        for (int b = 0; b < BUCKETS; b++) {
+            histogram[b] += other.histogram[b];
+        }
+        for (int s = 0; s < sectionSums.length; s++) {
+            sectionSums[s] += other.sectionSums[s];
+            for (int b = 0; b < BUCKETS; b++) {
+                sectionHistograms[s][b] += other.sectionHistograms[s][b];
+            }
+        }
+    }
+
+    public long getCount() { return count; }
+    public double getSum() { return sum; }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getStandardDeviation() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(0.0, sumSquares / count - mean * mean));
+    }
+
+    public double getSectionMean(int section) {
+        return count == 0 ? 0.0 : sectionSums[section] / count;
+    }
+
+    public long[] getHistogram() { return histogram.clone(); }
+    public long[] getSectionHistogram(int section) { return sectionHistograms[section].clone(); }
+    public int getSectionCount() { return sectionSums.length; }
+
+    private static int bucket(double score) {
+        int bucket = (int) (score * BUCKETS);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScoreAggregates{count=%d, mean=%.3f, stdDev=%.3f}",
+                count, getMean(), getStandardDeviation());
+    }
+}
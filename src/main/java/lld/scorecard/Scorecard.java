@@ -2,6 +2,7 @@ package lld.scorecard;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Main scorecard entity representing an evaluation template
@@ -19,6 +20,8 @@ public class Scorecard {
     private final Set<String> assignedEvaluators;
     private String targetUserId;
     private final Map<String, Object> metadata;
+    private volatile CompiledScorecard compiledPlan; // cached once out of DRAFT
+    private final List<ScorecardListener> listeners = new CopyOnWriteArrayList<>();
     
     public Scorecard(String scorecardId, String title, String description, String createdBy) {
         this.scorecardId = scorecardId;
@@ -33,6 +36,14 @@ public class Scorecard {
         this.metadata = new HashMap<>();
     }
     
+    public void addListener(ScorecardListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(ScorecardListener listener) {
+        listeners.remove(listener);
+    }
+    
     /**
      * Add section to scorecard
      */
@@ -74,6 +85,7 @@ public class Scorecard {
         boolean added = assignedEvaluators.add(evaluatorId);
         if (added) {
             updateTimestamp();
+            listeners.forEach(listener -> listener.onEvaluatorAssigned(this, evaluatorId));
         }
         return added;
     }
@@ -85,6 +97,7 @@ public class Scorecard {
         boolean removed = assignedEvaluators.remove(evaluatorId);
         if (removed) {
             updateTimestamp();
+            listeners.forEach(listener -> listener.onEvaluatorRemoved(this, evaluatorId));
         }
         return removed;
     }
@@ -93,8 +106,10 @@ public class Scorecard {
      * Set target user for evaluation
      */
     public synchronized void setTargetUser(String userId) {
+        String previous = this.targetUserId;
         this.targetUserId = userId;
         updateTimestamp();
+        listeners.forEach(listener -> listener.onTargetUserChanged(this, previous));
     }
     
     /**
@@ -105,8 +120,10 @@ public class Scorecard {
             return false;
         }
         
+        ScorecardState previous = this.state;
         this.state = newState;
         updateTimestamp();
+        listeners.forEach(listener -> listener.onStateChanged(this, previous));
         return true;
     }
     
@@ -153,23 +170,27 @@ public class Scorecard {
      * Calculate overall scorecard score
      */
     public ScorecardScore calculateScore(Map<String, Map<String, Object>> responses) {
-        double totalWeightedScore = 0.0;
-        double totalWeight = 0.0;
-        Map<String, Section.SectionScore> sectionScores = new HashMap<>();
-        
-        for (Section section : sections) {
-            Map<String, Object> sectionResponses = responses.getOrDefault(section.getSectionId(), new HashMap<>());
-            Section.SectionScore sectionScore = section.calculateScore(sectionResponses);
-            sectionScores.put(section.getSectionId(), sectionScore);
-            
-            double weightedScore = sectionScore.getScore() * section.getWeight();
-            totalWeightedScore += weightedScore;
-            totalWeight += section.getWeight();
+        CompiledScorecard plan = compile();
+        return plan.score(plan.encode(responses));
+    }
+    
+    /**
+     * Primitive scoring plan for this scorecard. Sections can only be added in DRAFT, so from
+     * the first submission on the structure is fixed and the plan is built once and reused;
+     * while in DRAFT a fresh plan is built on every call.
+     */
+    public CompiledScorecard compile() {
+        CompiledScorecard plan = compiledPlan;
+        if (plan != null) {
+            return plan;
+        }
+        synchronized (this) {
+            plan = new CompiledScorecard(this);
+            if (state != ScorecardState.DRAFT) {
+                compiledPlan = plan;
+            }
+            return plan;
         }
-        
-        double overallScore = totalWeight > 0 ? totalWeightedScore / totalWeight : 0.0;
-        
-        return new ScorecardScore(overallScore, sectionScores);
     }
     
     /**
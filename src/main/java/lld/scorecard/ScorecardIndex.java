@@ -0,0 +1,139 @@
+package lld.scorecard;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary indexes over scorecard ids: by creator, assigned evaluator, target user and state,
+ * plus a trigram index over the lower-cased title and description. Kept current through
+ * {@link ScorecardListener}.
+ *
+ * Lookups return candidate ids; callers still check the real predicates, so a candidate set
+ * only has to contain every match. A text query shares all of its trigrams with any title or
+ * description that contains it, which makes the trigram intersection such a superset.
+ */
+public class ScorecardIndex implements ScorecardListener {
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<String>> byCreator = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byEvaluator = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byTarget = new ConcurrentHashMap<>();
+    private final Map<ScorecardState, Set<String>> byState = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byTrigram = new ConcurrentHashMap<>();
+
+    /**
+     * Index a scorecard and start following its changes
+     */
+    public void add(Scorecard scorecard) {
+        String id = scorecard.getScorecardId();
+        synchronized (scorecard) {
+            put(byCreator, scorecard.getCreatedBy(), id);
+            put(byState, scorecard.getState(), id);
+            if (scorecard.getTargetUserId() != null) {
+                put(byTarget, scorecard.getTargetUserId(), id);
+            }
+            for (String evaluatorId : scorecard.getAssignedEvaluators()) {
+                put(byEvaluator, evaluatorId, id);
+            }
+            scorecard.addListener(this);
+        }
+        // Title and description never change
+        for (String gram : trigrams(scorecard.getTitle().toLowerCase())) {
+            put(byTrigram, gram, id);
+        }
+        for (String gram : trigrams(scorecard.getDescription().toLowerCase())) {
+            put(byTrigram, gram, id);
+        }
+    }
+
+    public Set<String> getByCreator(String userId) { return get(byCreator, userId); }
+    public Set<String> getByEvaluator(String userId) { return get(byEvaluator, userId); }
+    public Set<String> getByTarget(String userId) { return get(byTarget, userId); }
+    public Set<String> getByState(ScorecardState state) { return get(byState, state); }
+
+    /**
+     * Ids of scorecards the user created, evaluates or is the target of (a superset of those
+     * they may view)
+     */
+    public Set<String> getRelatedTo(String userId) {
+        Set<String> related = new HashSet<>(getByCreator(userId));
+        related.addAll(getByEvaluator(userId));
+        related.addAll(getByTarget(userId));
+        return related;
+    }
+
+    /**
+     * Ids whose title or description may contain the lower-cased query, or null if the query
+     * is too short to narrow anything down
+     */
+    public Set<String> getTextCandidates(String lowerQuery) {
+        Set<String> grams = trigrams(lowerQuery);
+        if (grams.isEmpty()) {
+            return null;
+        }
+        List<Set<String>> postings = new ArrayList<>();
+        for (String gram : grams) {
+            Set<String> posting = byTrigram.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<String> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    @Override
+    public void onEvaluatorAssigned(Scorecard scorecard, String evaluatorId) {
+        put(byEvaluator, evaluatorId, scorecard.getScorecardId());
+    }
+
+    @Override
+    public void onEvaluatorRemoved(Scorecard scorecard, String evaluatorId) {
+        remove(byEvaluator, evaluatorId, scorecard.getScorecardId());
+    }
+
+    @Override
+    public void onTargetUserChanged(Scorecard scorecard, String previousTargetUserId) {
+        if (previousTargetUserId != null) {
+            remove(byTarget, previousTargetUserId, scorecard.getScorecardId());
+        }
+        if (scorecard.getTargetUserId() != null) {
+            put(byTarget, scorecard.getTargetUserId(), scorecard.getScorecardId());
+        }
+    }
+
+    @Override
+    public void onStateChanged(Scorecard scorecard, ScorecardState previousState) {
+        remove(byState, previousState, scorecard.getScorecardId());
+        put(byState, scorecard.getState(), scorecard.getScorecardId());
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static <K> void put(Map<K, Set<String>> index, K key, String id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static <K> void remove(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    private static <K> Set<String> get(Map<K, Set<String>> index, K key) {
+        Set<String> ids = key == null ? null : index.get(key);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+}
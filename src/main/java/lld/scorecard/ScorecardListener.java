@@ -0,0 +1,18 @@
+package lld.scorecard;
+
+/**
+ * Callbacks for scorecard changes that affect who can see it or how it is found.
+ * Invoked while the scorecard's lock is held, right after the change.
+ */
+public interface ScorecardListener {
+    default void onEvaluatorAssigned(Scorecard scorecard, String evaluatorId) {}
+
+    default void onEvaluatorRemoved(Scorecard scorecard, String evaluatorId) {}
+
+    /**
+     * @param previousTargetUserId null if no target was set
+     */
+    default void onTargetUserChanged(Scorecard scorecard, String previousTargetUserId) {}
+
+    default void onStateChanged(Scorecard scorecard, ScorecardState previousState) {}
+}
@@ -3,6 +3,7 @@ package lld.scorecard;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Main service class for scorecard management system
@@ -11,13 +12,17 @@ import java.util.stream.Collectors;
 public class ScorecardService {
     private final Map<String, Scorecard> scorecards;
     private final Map<String, User> users;
-    private final Map<String, Map<String, Map<String, Map<String, Object>>>> evaluations; // scorecardId -> evaluatorId -> (sectionId -> responses)
+    private final Map<String, EvaluationStore> evaluationStores; // scorecardId -> encoded evaluations (columnar)
+    private final ReportAggregator reportAggregator;
+    private final ScorecardIndex index;
     private final NotificationService notificationService;
     
     public ScorecardService() {
         this.scorecards = new ConcurrentHashMap<>();
         this.users = new ConcurrentHashMap<>();
-        this.evaluations = new ConcurrentHashMap<>();
+        this.evaluationStores = new ConcurrentHashMap<>();
+        this.reportAggregator = new ReportAggregator();
+        this.index = new ScorecardIndex();
         this.notificationService = new NotificationService();
     }
     
@@ -46,6 +51,7 @@ public class ScorecardService {
         String scorecardId = generateScorecardId();
         Scorecard scorecard = new Scorecard(scorecardId, title, description, createdBy);
         scorecards.put(scorecardId, scorecard);
+        index.add(scorecard);
         
         return scorecardId;
     }
@@ -99,16 +105,83 @@ public class ScorecardService {
             return false;
         }
         
-        // Validate responses
-        Scorecard.ScorecardValidationResult validation = scorecard.validateResponses(responses);
-        if (!validation.isValid()) {
+        // Validate responses (encoding validates every answer once)
+        CompiledScorecard plan = scoringPlan(scorecard);
+        CompiledScorecard.EncodedResponses encoded = plan.encode(responses);
+        if (!plan.isValid(encoded)) {
             return false;
         }
         
-        // Store evaluation
-        evaluations.computeIfAbsent(scorecardId, k -> new ConcurrentHashMap<>())
-                   .put(evaluatorId, responses);
+        storeEvaluation(scorecard, evaluatorId, plan, encoded);
+        markSubmitted(scorecard, evaluatorId);
+        return true;
+    }
+    
+    /**
+     * Import many evaluations at once. Permission checks, validation and encoding run in
+     * parallel; accepted evaluations are then stored in submission order, and each scorecard
+     * changes state and notifies its admin at most once.
+     */
+    public BulkImportResult importEvaluations(List<EvaluationSubmission> submissions) {
+        Map<String, CompiledScorecard> plans = new ConcurrentHashMap<>();
+        List<PreparedEvaluation> prepared = IntStream.range(0, submissions.size())
+                .parallel()
+                .mapToObj(i -> prepareEvaluation(i, submissions.get(i), plans))
+                .collect(Collectors.toList());
         
+        List<BulkImportResult.Rejection> rejections = new ArrayList<>();
+        Map<Scorecard, String> submittedBy = new LinkedHashMap<>(); // first evaluator per scorecard
+        int accepted = 0;
+        for (PreparedEvaluation evaluation : prepared) {
+            if (evaluation.errors != null) {
+                rejections.add(new BulkImportResult.Rejection(evaluation.index, evaluation.submission, evaluation.errors));
+                continue;
+            }
+            EvaluationSubmission submission = evaluation.submission;
+            storeEvaluation(evaluation.scorecard, submission.evaluatorId, plans.get(submission.scorecardId),
+                    evaluation.encoded);
+            submittedBy.putIfAbsent(evaluation.scorecard, submission.evaluatorId);
+            accepted++;
+        }
+        submittedBy.forEach(this::markSubmitted);
+        
+        return new BulkImportResult(accepted, rejections);
+    }
+    
+    private PreparedEvaluation prepareEvaluation(int index, EvaluationSubmission submission,
+                                                 Map<String, CompiledScorecard> plans) {
+        Scorecard scorecard = scorecards.get(submission.scorecardId);
+        if (scorecard == null) {
+            return PreparedEvaluation.rejected(index, submission, "Scorecard not found: " + submission.scorecardId);
+        }
+        if (!scorecard.hasPermission(submission.evaluatorId, "evaluate")) {
+            return PreparedEvaluation.rejected(index, submission, "Evaluator not allowed: " + submission.evaluatorId);
+        }
+        
+        CompiledScorecard plan = plans.computeIfAbsent(scorecard.getScorecardId(), id -> scoringPlan(scorecard));
+        CompiledScorecard.EncodedResponses encoded = plan.encode(submission.responses);
+        if (!plan.isValid(encoded)) {
+            // Rare path: rerun map-based validation for the error messages
+            List<String> errors = scorecard.validateResponses(submission.responses).getErrors();
+            return PreparedEvaluation.rejected(index, submission, errors);
+        }
+        return new PreparedEvaluation(index, submission, scorecard, encoded, null);
+    }
+    
+    // The plan the scorecard's evaluations are stored under
+    private CompiledScorecard scoringPlan(Scorecard scorecard) {
+        EvaluationStore store = evaluationStores.get(scorecard.getScorecardId());
+        return store != null ? store.getPlan() : scorecard.compile();
+    }
+    
+    // plan is the one the responses were encoded with; it becomes the store's plan for a new store
+    private void storeEvaluation(Scorecard scorecard, String evaluatorId, CompiledScorecard plan,
+                                 CompiledScorecard.EncodedResponses encoded) {
+        evaluationStores.computeIfAbsent(scorecard.getScorecardId(), k -> new EvaluationStore(plan))
+                        .put(evaluatorId, encoded);
+    }
+    
+    private void markSubmitted(Scorecard scorecard, String evaluatorId) {
         // Change state to submitted if not already
         if (scorecard.getState() == ScorecardState.DRAFT) {
             scorecard.changeState(ScorecardState.SUBMITTED, evaluatorId);
@@ -117,8 +190,6 @@ public class ScorecardService {
             notificationService.sendNotification(scorecard.getCreatedBy(),
                 "Scorecard evaluation submitted: " + scorecard.getTitle());
         }
-        
-        return true;
     }
     
     /**
@@ -162,8 +233,10 @@ public class ScorecardService {
         
         List<ScorecardSummary> summaries = new ArrayList<>();
         
-        for (Scorecard scorecard : scorecards.values()) {
-            if (scorecard.hasPermission(userId, "view")) {
+        // Only scorecards the user is related to can be visible to them
+        for (String scorecardId : index.getRelatedTo(userId)) {
+            Scorecard scorecard = scorecards.get(scorecardId);
+            if (scorecard != null && scorecard.hasPermission(userId, "view")) {
                 summaries.add(new ScorecardSummary(scorecard, userId));
             }
         }
@@ -180,11 +253,12 @@ public class ScorecardService {
             return null;
         }
         
-        Map<String, Map<String, Object>> responses = 
-            evaluations.getOrDefault(scorecardId, Collections.emptyMap())
-                      .getOrDefault(evaluatorId, Collections.emptyMap());
-        
-        return scorecard.calculateScore(responses);
+        EvaluationStore store = evaluationStores.get(scorecardId);
+        CompiledScorecard.EncodedResponses responses = store == null ? null : store.get(evaluatorId);
+        if (responses == null) {
+            return scorecard.calculateScore(Collections.emptyMap());
+        }
+        return store.getPlan().score(responses);
     }
     
     /**
@@ -196,17 +270,13 @@ public class ScorecardService {
             return null;
         }
         
-        Map<String, Scorecard.ScorecardScore> evaluatorScores = new HashMap<>();
-        Map<String, Map<String, Map<String, Object>>> allEvaluations = 
-            evaluations.getOrDefault(scorecardId, Collections.emptyMap());
-        
-        for (Map.Entry<String, Map<String, Map<String, Object>>> entry : allEvaluations.entrySet()) {
-            String evaluatorId = entry.getKey();
-            Scorecard.ScorecardScore score = scorecard.calculateScore(entry.getValue());
-            evaluatorScores.put(evaluatorId, score);
+        EvaluationStore store = evaluationStores.get(scorecardId);
+        if (store == null) {
+            return new ScorecardReport(scorecard, Collections.emptyMap());
         }
         
-        return new ScorecardReport(scorecard, evaluatorScores);
+        // One snapshot (no per-row copy) backs the whole report; percentiles and breakdowns are computed on demand
+        return new ScorecardReport(scorecard, store, reportAggregator);
     }
     
     /**
@@ -219,7 +289,24 @@ public class ScorecardService {
             return Collections.emptyList();
         }
         
-        return scorecards.values().stream()
+        // Scan the smallest candidate set the indexes give; the filters below stay authoritative
+        Collection<String> candidates = index.getRelatedTo(userId);
+        if (state != null && index.getByState(state).size() < candidates.size()) {
+            candidates = index.getByState(state);
+        }
+        if (createdBy != null && index.getByCreator(createdBy).size() < candidates.size()) {
+            candidates = index.getByCreator(createdBy);
+        }
+        if (query != null && !query.trim().isEmpty()) {
+            Set<String> textCandidates = index.getTextCandidates(query.toLowerCase());
+            if (textCandidates != null && textCandidates.size() < candidates.size()) {
+                candidates = textCandidates;
+            }
+        }
+        
+        return candidates.stream()
+                        .map(scorecards::get)
+                        .filter(Objects::nonNull)
                         .filter(scorecard -> scorecard.hasPermission(userId, "view"))
                         .filter(scorecard -> matchesQuery(scorecard, query))
                         .filter(scorecard -> state == null || scorecard.getState() == state)
@@ -287,26 +374,161 @@ public class ScorecardService {
         }
     }
     
+    /**
+     * Everything in a report describes the same evaluations: the store's snapshot taken when the
+     * report was created. Summary statistics come from the running aggregates captured with it;
+     * percentiles and per-evaluator scores need every evaluation, so the first call to either
+     * aggregates that snapshot with fork/join.
+     */
     public static class ScorecardReport {
         private final Scorecard scorecard;
-        private final Map<String, Scorecard.ScorecardScore> evaluatorScores;
+        private Map<String, Scorecard.ScorecardScore> evaluatorScores; // built lazily from the snapshot
+        private final ScoreAggregates statistics;
+        private final EvaluationStore.Snapshot evaluations;
+        private final ReportAggregator aggregator;
+        private ReportAggregator.Result aggregation;
         
         public ScorecardReport(Scorecard scorecard, Map<String, Scorecard.ScorecardScore> evaluatorScores) {
             this.scorecard = scorecard;
             this.evaluatorScores = new HashMap<>(evaluatorScores);
+            this.statistics = null;
+            this.evaluations = null;
+            this.aggregator = null;
+        }
+        
+        public ScorecardReport(Scorecard scorecard, EvaluationStore store, ReportAggregator aggregator) {
+            this.scorecard = scorecard;
+            this.evaluations = store.snapshot();
+            this.statistics = evaluations.getAggregates();
+            this.aggregator = aggregator;
         }
         
         public Scorecard getScorecard() { return scorecard; }
-        public Map<String, Scorecard.ScorecardScore> getEvaluatorScores() { 
+        
+        public synchronized Map<String, Scorecard.ScorecardScore> getEvaluatorScores() {
+            if (evaluatorScores == null) {
+                CompiledScorecard plan = evaluations.getPlan();
+                evaluatorScores = new HashMap<>();
+                for (int row = 0; row < evaluations.getRowCount(); row++) {
+                    if (evaluations.isLive(row)) {
+                        evaluatorScores.put(evaluations.getEvaluatorId(row), plan.score(evaluations.row(row)));
+                    }
+                }
+            }
             return new HashMap<>(evaluatorScores); 
         }
         
         public double getAverageScore() {
+            if (statistics != null) {
+                return statistics.getMean();
+            }
             return evaluatorScores.values().stream()
                                  .mapToDouble(Scorecard.ScorecardScore::getOverallScore)
                                  .average()
                                  .orElse(0.0);
         }
+        
+        /**
+         * Count, mean, standard deviation and per-section distributions, or null for an
+         * empty report
+         */
+        public ScoreAggregates getStatistics() {
+            return statistics;
+        }
+        
+        /**
+         * Nearest-rank percentile of the evaluators' overall scores, p in [0, 100]
+         */
+        public synchronized double getPercentile(double p) {
+            if (evaluations != null) {
+                return aggregate().getPercentile(p);
+            }
+            double[] sorted = evaluatorScores.values().stream()
+                                             .mapToDouble(Scorecard.ScorecardScore::getOverallScore)
+                                             .sorted()
+                                             .toArray();
+            return ReportAggregator.percentile(sorted, p);
+        }
+        
+        /**
+         * Histogram of a section's scores over [0, 1] ({@link ScoreAggregates#BUCKETS} buckets)
+         */
+        public long[] getSectionDistribution(String sectionId) {
+            int section = evaluations != null ? evaluations.getPlan().getSectionIndex(sectionId) : -1;
+            return section < 0 ? new long[ScoreAggregates.BUCKETS] : statistics.getSectionHistogram(section);
+        }
+        
+        private ReportAggregator.Result aggregate() {
+            if (aggregation == null) {
+                aggregation = aggregator.aggregate(evaluations);
+            }
+            return aggregation;
+        }
+    }
+    
+    public static class EvaluationSubmission {
+        public final String scorecardId;
+        public final String evaluatorId;
+        public final Map<String, Map<String, Object>> responses;
+        
+        public EvaluationSubmission(String scorecardId, String evaluatorId,
+                                    Map<String, Map<String, Object>> responses) {
+            this.scorecardId = scorecardId;
+            this.evaluatorId = evaluatorId;
+            this.responses = responses;
+        }
+    }
+    
+    public static class BulkImportResult {
+        public final int accepted;
+        public final List<Rejection> rejections;
+        
+        public BulkImportResult(int accepted, List<Rejection> rejections) {
+            this.accepted = accepted;
+            this.rejections = Collections.unmodifiableList(new ArrayList<>(rejections));
+        }
+        
+        public static class Rejection {
+            public final int index; // position in the submitted list
+            public final EvaluationSubmission submission;
+            public final List<String> errors;
+            
+            public Rejection(int index, EvaluationSubmission submission, List<String> errors) {
+                this.index = index;
+                this.submission = submission;
+                this.errors = errors;
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("BulkImportResult{accepted=%d, rejected=%d}", accepted, rejections.size());
+        }
+    }
+    
+    private static class PreparedEvaluation {
+        private final int index;
+        private final EvaluationSubmission submission;
+        private final Scorecard scorecard;
+        private final CompiledScorecard.EncodedResponses encoded;
+        private final List<String> errors; // null when accepted
+        
+        PreparedEvaluation(int index, EvaluationSubmission submission, Scorecard scorecard,
+                           CompiledScorecard.EncodedResponses encoded, List<String> errors) {
+            this.index = index;
+            this.submission = submission;
+            this.scorecard = scorecard;
+            this.encoded = encoded;
+            this.errors = errors;
+        }
+        
+        static PreparedEvaluation rejected(int index, EvaluationSubmission submission, String error) {
+            return rejected(index, submission, Collections.singletonList(error));
+        }
+        
+        static PreparedEvaluation rejected(int index, EvaluationSubmission submission, List<String> errors) {
+            return new PreparedEvaluation(index, submission, null, null, errors);
+        }
     }
     
     // Simple notification service
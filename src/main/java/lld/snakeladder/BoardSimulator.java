@@ -0,0 +1,372 @@
+package lld.snakeladder;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless Monte-Carlo analysis of a board.
+ * The board is compiled once into a destination per square and an element index per square;
+ * games then run with the same rules as {@link GameEngine} (overshooting 100 skips the turn,
+ * one snake or ladder per landing, first to reach 100 wins) on a primitive position array,
+ * without players, events or statistics objects.
+ *
+ * Games are split into fixed-size blocks run on a fork/join pool. Every block gets its own
+ * {@link SplittableRandom}, split off the seeded root in block order, so a seed gives the
+ * same report whatever the parallelism. Partial tallies are merged on the way back up.
+ */
+public class BoardSimulator {
+    private static final int BOARD_SIZE = 100;
+    private static final int DICE_FACES = 6;
+    private static final int GAMES_PER_BLOCK = 16_384;
+    private static final int DEFAULT_MAX_ROLLS = 10_000;
+    private static final int NO_ELEMENT = -1;
+
+    private final int[] destination = new int[BOARD_SIZE + 1];
+    private final int[] elementAt = new int[BOARD_SIZE + 1];
+    private final int[] elementStarts;
+    private final boolean[] isSnake;
+    private final int diceCount;
+    private final int maxRolls;
+    private final ForkJoinPool pool;
+
+    public BoardSimulator(GameBoard board) {
+        this(board, 1, DEFAULT_MAX_ROLLS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param diceCount six-sided dice summed per roll (1 as {@link StandardDice}, 2 as {@link DoubleDice})
+     * @param maxRolls  rolls after which a game is abandoned without a winner
+     */
+    public BoardSimulator(GameBoard board, int diceCount, int maxRolls, ForkJoinPool pool) {
+        if (diceCount < 1) {
+            throw new IllegalArgumentException("At least one dice is required");
+        }
+        if (maxRolls < 1) {
+            throw new IllegalArgumentException("Max rolls must be positive");
+        }
+        this.diceCount = diceCount;
+        this.maxRolls = maxRolls;
+        this.pool = pool;
+
+        List<BoardElement> elements = new ArrayList<>();
+        boolean[] snakeStarts = new boolean[BOARD_SIZE + 1];
+        for (BoardElement snake : board.getSnakes()) {
+            elements.add(snake);
+            snakeStarts[snake.getStartPosition()] = true;
+        }
+        elements.addAll(board.getLadders());
+        elements.sort(Comparator.comparingInt(BoardElement::getStartPosition));
+        this.elementStarts = new int[elements.size()];
+        this.isSnake = new boolean[elements.size()];
+        Arrays.fill(elementAt, NO_ELEMENT);
+        for (int square = 0; square <= BOARD_SIZE; square++) {
+            destination[square] = board.getFinalPosition(square);
+        }
+        for (int e = 0; e < elements.size(); e++) {
+            BoardElement element = elements.get(e);
+            elementStarts[e] = element.getStartPosition();
+            isSnake[e] = snakeStarts[element.getStartPosition()];
+            elementAt[element.getStartPosition()] = e;
+        }
+    }
+
+    /**
+     * Play the given number of games between players seated in turn order
+     */
+    public SimulationReport simulate(int players, long games, long seed) {
+        if (players < 1) {
+            throw new IllegalArgumentException("At least one player is required");
+        }
+        if (games < 1) {
+            throw new IllegalArgumentException("Game count must be positive");
+        }
+        int blocks = (int) ((games + GAMES_PER_BLOCK - 1) / GAMES_PER_BLOCK);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            randoms[b] = root.split();
+        }
+
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new SimulationTask(players, games, randoms, 0, blocks));
+        long elapsedNanos = System.nanoTime() - start;
+        return new SimulationReport(this, players, tally, elapsedNanos);
+    }
+
+    private void playGames(int players, long games, SplittableRandom random, Tally tally) {
+        int[] positions = new int[players];
+        long[] lengths = tally.lengths;
+        long[] hits = tally.elementHits;
+        long skipped = 0;
+        for (long game = 0; game < games; game++) {
+            Arrays.fill(positions, 0);
+            int seat = 0;
+            int rolls = 0;
+            int winner = -1;
+            while (rolls < maxRolls) {
+                int roll = 0;
+                for (int d = 0; d < diceCount; d++) {
+                    roll += random.nextInt(DICE_FACES) + 1;
+                }
+                rolls++;
+                int next = positions[seat] + roll;
+                if (next > BOARD_SIZE) {
+                    skipped++;
+                } else {
+                    int element = elementAt[next];
+                    if (element != NO_ELEMENT) {
+                        hits[element]++;
+                    }
+                    next = destination[next];
+                    positions[seat] = next;
+                    if (next == BOARD_SIZE) {
+                        winner = seat;
+                        break;
+                    }
+                }
+                if (++seat == players) {
+                    seat = 0;
+                }
+            }
+            if (winner >= 0) {
+                lengths[rolls]++;
+                tally.wins[winner]++;
+            } else {
+                tally.unfinished++;
+            }
+            tally.rolls += rolls;
+        }
+        tally.games += games;
+        tally.skippedRolls += skipped;
+    }
+
+    private class SimulationTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final int players;
+        private final long games;
+        private final SplittableRandom[] randoms;
+        private final int from;
+        private final int to;
+
+        SimulationTask(int players, long games, SplittableRandom[] randoms, int from, int to) {
+            this.players = players;
+            this.games = games;
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from == 1) {
+                Tally tally = new Tally(players, elementStarts.length, maxRolls);
+                long first = (long) from * GAMES_PER_BLOCK;
+                playGames(players, Math.min(GAMES_PER_BLOCK, games - first), randoms[from], tally);
+                return tally;
+            }
+            int middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(players, games, randoms, from, middle);
+            left.fork();
+            Tally right = new SimulationTask(players, games, randoms, middle, to).compute();
+            Tally merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    private static class Tally {
+        final long[] lengths;     // finished games by total rolls
+        final long[] wins;        // by seat
+        final long[] elementHits; // by element index
+        long games;
+        long unfinished;
+        long rolls;
+        long skippedRolls;
+
+        Tally(int players, int elements, int maxRolls) {
+            this.lengths = new long[maxRolls + 1];
+            this.wins = new long[players];
+            this.elementHits = new long[elements];
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] += other.lengths[i];
+            }
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+            }
+            for (int i = 0; i < elementHits.length; i++) {
+                elementHits[i] += other.elementHits[i];
+            }
+            games += other.games;
+            unfinished += other.unfinished;
+            rolls += other.rolls;
+            skippedRolls += other.skippedRolls;
+        }
+    }
+
+    /**
+     * Distributions over all simulated games. Game length is the total number of rolls of all
+     * players up to the winning one, skipped (overshooting) rolls included; {@link #getMovesPerGame}
+     * leaves those out like {@link GameStatus#getTotalTurns}. Games abandoned at the roll limit
+     * are counted separately and left out of the length statistics.
+     */
+    public static class SimulationReport {
+        public final int players;
+        public final long games;
+        public final long unfinishedGames;
+        public final long totalRolls;
+        public final long skippedRolls;
+        public final double meanLength;
+        public final double lengthStdDev;
+        public final int minLength;
+        public final int maxLength;
+        public final long elapsedMillis;
+        private final long[] lengthHistogram;
+        private final long[] wins;
+        private final Map<Integer, Long> snakeHits = new TreeMap<>();
+        private final Map<Integer, Long> ladderHits = new TreeMap<>();
+        private final long totalSnakeHits;
+        private final long totalLadderHits;
+
+        SimulationReport(BoardSimulator simulator, int players, Tally tally, long elapsedNanos) {
+            this.players = players;
+            this.games = tally.games;
+            this.unfinishedGames = tally.unfinished;
+            this.totalRolls = tally.rolls;
+            this.skippedRolls = tally.skippedRolls;
+            this.elapsedMillis = elapsedNanos / 1_000_000;
+            this.lengthHistogram = tally.lengths;
+            this.wins = tally.wins;
+
+            long finished = 0;
+            double sum = 0;
+            double sumSquares = 0;
+            int min = 0;
+            int max = 0;
+            for (int length = 0; length < lengthHistogram.length; length++) {
+                long count = lengthHistogram[length];
+                if (count == 0) {
+                    continue;
+                }
+                if (finished == 0) {
+                    min = length;
+                }
+                max = length;
+                finished += count;
+                sum += (double) length * count;
+                sumSquares += (double) length * length * count;
+            }
+            this.minLength = min;
+            this.maxLength = max;
+            this.meanLength = finished == 0 ? 0.0 : sum / finished;
+            this.lengthStdDev = finished == 0 ? 0.0
+                    : Math.sqrt(Math.max(0.0, sumSquares / finished - meanLength * meanLength));
+
+            long snakes = 0;
+            long ladders = 0;
+            for (int e = 0; e < simulator.elementStarts.length; e++) {
+                long hits = tally.elementHits[e];
+                if (simulator.isSnake[e]) {
+                    snakeHits.put(simulator.elementStarts[e], hits);
+                    snakes += hits;
+                } else {
+                    ladderHits.put(simulator.elementStarts[e], hits);
+                    ladders += hits;
+                }
+            }
+            this.totalSnakeHits = snakes;
+            this.totalLadderHits = ladders;
+        }
+
+        public long getFinishedGames() { return games - unfinishedGames; }
+
+        /**
+         * Nearest-rank percentile of the length of finished games, p in [0, 100]
+         */
+        public int getLengthPercentile(double p) {
+            long finished = getFinishedGames();
+            if (finished == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * finished));
+            long seen = 0;
+            for (int length = 0; length < lengthHistogram.length; length++) {
+                seen += lengthHistogram[length];
+                if (seen >= rank) {
+                    return length;
+                }
+            }
+            return maxLength;
+        }
+
+        /**
+         * Finished games by length: index = total rolls
+         */
+        public long[] getLengthHistogram() {
+            return Arrays.copyOf(lengthHistogram, maxLength + 1);
+        }
+
+        /**
+         * Share of all games won by each seat (seat 0 rolls first)
+         */
+        public double[] getWinProbabilityBySeat() {
+            double[] probability = new double[wins.length];
+            for (int seat = 0; seat < wins.length; seat++) {
+                probability[seat] = (double) wins[seat] / games;
+            }
+            return probability;
+        }
+
+        /**
+         * Average times each snake (by head square) is hit per game
+         */
+        public Map<Integer, Double> getSnakeHitRates() {
+            return perGame(snakeHits);
+        }
+
+        /**
+         * Average times each ladder (by bottom square) is climbed per game
+         */
+        public Map<Integer, Double> getLadderHitRates() {
+            return perGame(ladderHits);
+        }
+
+        public double getMovesPerGame() { return (double) (totalRolls - skippedRolls) / games; }
+        public double getSnakeHitsPerGame() { return (double) totalSnakeHits / games; }
+        public double getLadderHitsPerGame() { return (double) totalLadderHits / games; }
+        public double getSnakeHitsPerRoll() { return totalRolls == 0 ? 0.0 : (double) totalSnakeHits / totalRolls; }
+        public double getLadderHitsPerRoll() { return totalRolls == 0 ? 0.0 : (double) totalLadderHits / totalRolls; }
+
+        public double getGamesPerSecond() {
+            return elapsedMillis == 0 ? 0.0 : games * 1000.0 / elapsedMillis;
+        }
+
+        private Map<Integer, Double> perGame(Map<Integer, Long> hits) {
+            Map<Integer, Double> rates = new LinkedHashMap<>();
+            hits.forEach((square, count) -> rates.put(square, (double) count / games));
+            return rates;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SimulationReport{games=%d, players=%d, unfinished=%d, meanLength=%.2f, " +
+                            "stdDev=%.2f, p50=%d, p90=%d, p99=%d, snakesPerGame=%.3f, laddersPerGame=%.3f, " +
+                            "winBySeat=%s, elapsed=%dms}",
+                    games, players, unfinishedGames, meanLength, lengthStdDev, getLengthPercentile(50),
+                    getLengthPercentile(90), getLengthPercentile(99), getSnakeHitsPerGame(),
+                    getLadderHitsPerGame(), formatProbabilities(getWinProbabilityBySeat()), elapsedMillis);
+        }
+
+        private static String formatProbabilities(double[] probabilities) {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            for (double probability : probabilities) {
+                joiner.add(String.format("%.4f", probability));
+            }
+            return joiner.toString();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package lld.taskmanagement;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for an external notification service (email gateway, Slack API): forwards
+ * to a delegate after a fixed latency and fails a given fraction of calls.
+ */
+public class SimulatedSinkObserver implements TaskObserver {
+    private final TaskObserver delegate;
+    private final long latencyMillis;
+    private final double failureRate;
+
+    public SimulatedSinkObserver(TaskObserver delegate, long latencyMillis, double failureRate) {
+        this.delegate = delegate;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        call();
+        delegate.onTaskCreated(task);
+    }
+
+    @Override
+    public void onTaskStatusChanged(Task task, TaskStatus oldStatus, TaskStatus newStatus) {
+        call();
+        delegate.onTaskStatusChanged(task, oldStatus, newStatus);
+    }
+
+    @Override
+    public void onTaskAssigned(Task task, String oldAssigneeId, String newAssigneeId) {
+        call();
+        delegate.onTaskAssigned(task, oldAssigneeId, newAssigneeId);
+    }
+
+    @Override
+    public void onTaskPriorityChanged(Task task, TaskPriority oldPriority, TaskPriority newPriority) {
+        call();
+        delegate.onTaskPriorityChanged(task, oldPriority, newPriority);
+    }
+
+    private void call() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Sink unavailable");
+        }
+    }
+}
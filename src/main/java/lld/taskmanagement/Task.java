@@ -25,6 +25,20 @@ public class Task {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Rebuilds a task from persisted state (TaskEventStore)
+    Task(String id, String title, String description, TaskStatus status, TaskPriority priority, String assigneeId,
+         LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime dueDate) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.assigneeId = assigneeId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.dueDate = dueDate;
+    }
+
     public void updateStatus(TaskStatus newStatus) {
         this.status = newStatus;
         this.updatedAt = LocalDateTime.now();
@@ -45,6 +59,11 @@ public class Task {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Replayed changes keep their original modification time
+    void restoreUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     // Getters
     public String getId() { return id; }
     public String getTitle() { return title; }
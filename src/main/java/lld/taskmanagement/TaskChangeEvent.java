@@ -0,0 +1,208 @@
+package lld.taskmanagement;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One persisted task change, plus its binary encoding.
+ * Every change stores the changed field's new value (not a diff) and the task's updatedAt, so
+ * applying a task's changes in order always ends in the same state, whatever state it starts
+ * from. Encoding: type, sequence, task id (UUID as two longs), updatedAt, then the value;
+ * CREATED carries the full task, which is also the snapshot record format.
+ */
+final class TaskChangeEvent {
+    enum Type { CREATED, STATUS_CHANGED, ASSIGNED, PRIORITY_CHANGED, DUE_DATE_CHANGED }
+
+    private static final Type[] TYPES = Type.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    final Type type;
+    final long sequence;
+    final String taskId;
+    final LocalDateTime updatedAt;
+    final Task task; // CREATED only
+    final TaskStatus status;
+    final TaskPriority priority;
+    final String assigneeId;
+    final LocalDateTime dueDate;
+
+    private TaskChangeEvent(Type type, long sequence, String taskId, LocalDateTime updatedAt, Task task,
+                            TaskStatus status, TaskPriority priority, String assigneeId, LocalDateTime dueDate) {
+        this.type = type;
+        this.sequence = sequence;
+        this.taskId = taskId;
+        this.updatedAt = updatedAt;
+        this.task = task;
+        this.status = status;
+        this.priority = priority;
+        this.assigneeId = assigneeId;
+        this.dueDate = dueDate;
+    }
+
+    /**
+     * Apply to a task in the map (CREATED puts a new one)
+     */
+    void applyTo(Map<String, Task> tasks) {
+        if (type == Type.CREATED) {
+            tasks.put(taskId, task);
+            return;
+        }
+        Task target = tasks.get(taskId);
+        if (target == null) {
+            return;
+        }
+        switch (type) {
+            case STATUS_CHANGED:
+                target.updateStatus(status);
+                break;
+            case ASSIGNED:
+                target.assignTo(assigneeId);
+                break;
+            case PRIORITY_CHANGED:
+                target.updatePriority(priority);
+                break;
+            case DUE_DATE_CHANGED:
+                target.setDueDate(dueDate);
+                break;
+            default:
+                break;
+        }
+        target.restoreUpdatedAt(updatedAt);
+    }
+
+    /**
+     * Encode a change from the task's current state (call while holding the task's lock)
+     */
+    static void write(DataOutput out, Type type, long sequence, Task task) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeLong(sequence);
+        if (type == Type.CREATED) {
+            writeTask(out, task);
+            return;
+        }
+        writeId(out, task.getId());
+        writeTime(out, task.getUpdatedAt());
+        switch (type) {
+            case STATUS_CHANGED:
+                out.writeByte(task.getStatus().ordinal());
+                break;
+            case ASSIGNED:
+                writeString(out, task.getAssigneeId());
+                break;
+            case PRIORITY_CHANGED:
+                out.writeByte(task.getPriority().ordinal());
+                break;
+            case DUE_DATE_CHANGED:
+                writeNullableTime(out, task.getDueDate());
+                break;
+            default:
+                break;
+        }
+    }
+
+    static TaskChangeEvent read(ByteBuffer in) {
+        Type type = TYPES[in.get()];
+        long sequence = in.getLong();
+        if (type == Type.CREATED) {
+            Task task = readTask(in);
+            return new TaskChangeEvent(type, sequence, task.getId(), task.getUpdatedAt(), task, null, null, null, null);
+        }
+        String taskId = readId(in);
+        LocalDateTime updatedAt = readTime(in);
+        switch (type) {
+            case STATUS_CHANGED:
+                return new TaskChangeEvent(type, sequence, taskId, updatedAt, null, STATUSES[in.get()], null, null, null);
+            case ASSIGNED:
+                return new TaskChangeEvent(type, sequence, taskId, updatedAt, null, null, null, readString(in), null);
+            case PRIORITY_CHANGED:
+                return new TaskChangeEvent(type, sequence, taskId, updatedAt, null, null, PRIORITIES[in.get()], null, null);
+            default:
+                return new TaskChangeEvent(type, sequence, taskId, updatedAt, null, null, null, null, readNullableTime(in));
+        }
+    }
+
+    static void writeTask(DataOutput out, Task task) throws IOException {
+        writeId(out, task.getId());
+        writeTime(out, task.getUpdatedAt());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getStatus().ordinal());
+        out.writeByte(task.getPriority().ordinal());
+        writeString(out, task.getAssigneeId());
+        writeTime(out, task.getCreatedAt());
+        writeNullableTime(out, task.getDueDate());
+    }
+
+    static Task readTask(ByteBuffer in) {
+        String id = readId(in);
+        LocalDateTime updatedAt = readTime(in);
+        String title = readString(in);
+        String description = readString(in);
+        TaskStatus status = STATUSES[in.get()];
+        TaskPriority priority = PRIORITIES[in.get()];
+        String assigneeId = readString(in);
+        LocalDateTime createdAt = readTime(in);
+        LocalDateTime dueDate = readNullableTime(in);
+        return new Task(id, title, description, status, priority, assigneeId, createdAt, updatedAt, dueDate);
+    }
+
+    // Task ids are random UUIDs: 16 bytes instead of 36 characters
+    private static void writeId(DataOutput out, String id) throws IOException {
+        UUID uuid = UUID.fromString(id);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static String readId(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong()).toString();
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNullableTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            writeTime(out, time);
+        }
+    }
+
+    private static LocalDateTime readNullableTime(ByteBuffer in) {
+        return in.get() != 0 ? readTime(in) : null;
+    }
+
+    // Length-prefixed UTF-8, -1 for null (writeUTF is limited to 64 KB)
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,409 @@
+package lld.taskmanagement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of {@link TaskChangeEvent}s, split into segment files named after the
+ * sequence of their first event. Records are [length][CRC32][payload].
+ *
+ * Appends only encode into an in-memory buffer and take the next sequence number. A syncer
+ * thread swaps the buffer out every sync interval, writes it to the current segment and fsyncs
+ * once for the whole batch (group commit); {@link #sync} does the same on demand and returns
+ * when everything appended so far is durable. Segments roll over at batch boundaries once they
+ * exceed the size limit.
+ *
+ * A failed write or fsync puts the batch back in front of the buffered records and truncates the
+ * segment to its last synced size, so the next sync retries it and no partial record is left
+ * between valid ones. The failure is thrown by {@link #sync} and kept in {@link #getSyncFailure}
+ * until a sync succeeds; if the segment cannot be truncated either, every later sync fails.
+ */
+public class TaskEventLog implements Closeable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final long syncIntervalMillis;
+    private final SegmentOpener opener;
+
+    // Appending; guarded by appendLock
+    private final Object appendLock = new Object();
+    private final RecordBuffer scratch = new RecordBuffer();
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+    private final CRC32 crc = new CRC32();
+    private RecordBuffer pending = new RecordBuffer();
+    private long pendingFirstSequence;
+    private long lastSequence;
+
+    // Writing; guarded by flushLock
+    private final Object flushLock = new Object();
+    private RecordBuffer spare = new RecordBuffer();
+    private final TreeMap<Long, Path> segments = new TreeMap<>(); // first sequence -> file
+    private FileChannel current;
+    private long currentSize;
+    private volatile long durableSequence;
+    private long bytesWritten;
+    private long syncs;
+    private long failedSyncs;
+    private volatile IOException syncFailure;
+    private IOException brokenBy; // a failed write that could not be rolled back
+
+    private ScheduledExecutorService syncer;
+
+    public TaskEventLog(Path directory, long maxSegmentBytes, long syncIntervalMillis) throws IOException {
+        this(directory, maxSegmentBytes, syncIntervalMillis, file -> FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    TaskEventLog(Path directory, long maxSegmentBytes, long syncIntervalMillis, SegmentOpener opener)
+            throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.opener = opener;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                segments.put(firstSequenceOf(file), file);
+            }
+        }
+    }
+
+    /**
+     * Existing segments, oldest first
+     */
+    public List<Path> getSegments() {
+        synchronized (flushLock) {
+            return new ArrayList<>(segments.values());
+        }
+    }
+
+    /**
+     * Start a new segment after the last recovered event and begin periodic syncing
+     */
+    public void startAppending(long lastRecoveredSequence) throws IOException {
+        synchronized (flushLock) {
+            synchronized (appendLock) {
+                lastSequence = lastRecoveredSequence;
+                pendingFirstSequence = lastRecoveredSequence + 1;
+            }
+            durableSequence = lastRecoveredSequence;
+            openSegment(lastRecoveredSequence + 1);
+        }
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-log-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::syncSafely, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer a change to the task (call while holding the task's lock, so the log order of a
+     * task's changes matches the order they were made in)
+     *
+     * @return the change's sequence number
+     */
+    long append(TaskChangeEvent.Type type, Task task) {
+        synchronized (appendLock) {
+            long sequence = ++lastSequence;
+            try {
+                scratch.reset();
+                TaskChangeEvent.write(scratchOut, type, sequence, task);
+                crc.reset();
+                crc.update(scratch.array(), 0, scratch.size());
+                pending.writeInt(scratch.size());
+                pending.writeInt((int) crc.getValue());
+                pending.write(scratch.array(), 0, scratch.size());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot encode task change", e); // in-memory streams don't throw
+            }
+            return sequence;
+        }
+    }
+
+    /**
+     * Write and fsync everything appended so far
+     *
+     * @throws IOException if the batch could not be made durable; it stays buffered for the next sync
+     */
+    public void sync() throws IOException {
+        synchronized (flushLock) {
+            if (brokenBy != null) {
+                throw new IOException("Task log cannot be written after an unrecoverable failure", brokenBy);
+            }
+            RecordBuffer batch;
+            long firstSequence;
+            long upTo;
+            synchronized (appendLock) {
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                spare = null; // until the write succeeds, batch is not free for reuse
+                firstSequence = pendingFirstSequence;
+                upTo = lastSequence;
+                pendingFirstSequence = upTo + 1;
+            }
+            try {
+                if (currentSize >= maxSegmentBytes) {
+                    current.close();
+                    openSegment(firstSequence);
+                }
+                ByteBuffer bytes = batch.view();
+                while (bytes.hasRemaining()) {
+                    current.write(bytes);
+                }
+                current.force(false);
+            } catch (IOException e) {
+                restore(batch, firstSequence);
+                rollBack(e);
+                throw e;
+            }
+            currentSize += batch.size();
+            bytesWritten += batch.size();
+            syncs++;
+            batch.reset();
+            spare = batch;
+            durableSequence = upTo;
+            syncFailure = null;
+        }
+    }
+
+    // Caller holds flushLock: put a failed batch back in front of what was appended meanwhile
+    private void restore(RecordBuffer batch, long firstSequence) {
+        synchronized (appendLock) {
+            RecordBuffer appended = pending;
+            batch.write(appended.array(), 0, appended.size());
+            pending = batch;
+            pendingFirstSequence = firstSequence;
+            appended.reset();
+            spare = appended;
+        }
+    }
+
+    // Caller holds flushLock: cut off whatever part of the batch reached the segment (made durable
+    // by the next successful sync's fsync, which rewrites the batch over it)
+    private void rollBack(IOException failure) {
+        failedSyncs++;
+        syncFailure = failure;
+        try {
+            if (current == null || !current.isOpen()) {
+                return; // rolling over failed; the next sync opens the segment again
+            }
+            current.truncate(currentSize);
+            current.position(currentSize);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            brokenBy = failure;
+        }
+    }
+
+    public long getLastSequence() {
+        synchronized (appendLock) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * Sequence of the last event known to be on disk; it does not advance while syncs fail
+     */
+    public long getDurableSequence() { return durableSequence; }
+
+    /**
+     * The failure of the last sync (including the background ones), or null once a sync succeeded
+     */
+    public IOException getSyncFailure() { return syncFailure; }
+
+    /**
+     * Delete segments holding only events up to the given sequence (covered by a snapshot);
+     * the segment being written is kept
+     */
+    public void deleteSegmentsThrough(long sequence) throws IOException {
+        synchronized (flushLock) {
+            Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Path> segment = it.next();
+                Long next = segments.higherKey(segment.getKey());
+                if (next == null || next > sequence + 1) {
+                    return;
+                }
+                Files.deleteIfExists(segment.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public LogStats getStats() {
+        synchronized (flushLock) {
+            return new LogStats(segments.size(), getLastSequence(), durableSequence, bytesWritten, syncs, failedSyncs);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (flushLock) {
+            if (current != null) {
+                try {
+                    sync();
+                } finally {
+                    current.close();
+                    current = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode a segment's valid records, dealing each event into partitions by task id. Reading
+     * stops at the first incomplete or corrupt record (a torn write at the tail).
+     */
+    public static SegmentContents read(Path segment, int partitions) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(segment));
+        CRC32 crc = new CRC32();
+        List<List<TaskChangeEvent>> byPartition = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            byPartition.add(new ArrayList<>());
+        }
+        long lastSequence = 0;
+        int events = 0;
+        int valid = 0;
+        while (in.remaining() >= HEADER_BYTES) {
+            int length = in.getInt(valid);
+            int checksum = in.getInt(valid + 4);
+            int start = valid + HEADER_BYTES;
+            if (length <= 0 || length > in.limit() - start) {
+                break;
+            }
+            crc.reset();
+            crc.update(in.array(), start, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            in.position(start);
+            TaskChangeEvent event = TaskChangeEvent.read(in);
+            byPartition.get(partitionOf(event.taskId, partitions)).add(event);
+            lastSequence = event.sequence;
+            events++;
+            valid = start + length;
+            in.position(valid);
+        }
+        return new SegmentContents(segment, byPartition, events, lastSequence, valid, valid < in.limit());
+    }
+
+    public static int partitionOf(String taskId, int partitions) {
+        return Math.floorMod(taskId.hashCode(), partitions);
+    }
+
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (IOException e) {
+            // Kept in syncFailure; the batch is retried on the next run
+        }
+    }
+
+    // Caller holds flushLock
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        current = opener.open(file);
+        currentSize = 0;
+        segments.put(firstSequence, file);
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    interface SegmentOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    // ByteArrayOutputStream with direct access to its bytes
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(64 * 1024);
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    public static class SegmentContents {
+        public final Path segment;
+        final List<List<TaskChangeEvent>> eventsByPartition;
+        public final int events;
+        public final long lastSequence; // 0 if empty
+        public final long validBytes;
+        public final boolean torn;
+
+        SegmentContents(Path segment, List<List<TaskChangeEvent>> eventsByPartition, int events, long lastSequence,
+                        long validBytes, boolean torn) {
+            this.segment = segment;
+            this.eventsByPartition = eventsByPartition;
+            this.events = events;
+            this.lastSequence = lastSequence;
+            this.validBytes = validBytes;
+            this.torn = torn;
+        }
+    }
+
+    public static class LogStats {
+        public final int segments;
+        public final long lastSequence;
+        public final long durableSequence;
+        public final long bytesWritten;
+        public final long syncs;
+        public final long failedSyncs;
+
+        public LogStats(int segments, long lastSequence, long durableSequence, long bytesWritten, long syncs,
+                        long failedSyncs) {
+            this.segments = segments;
+            this.lastSequence = lastSequence;
+            this.durableSequence = durableSequence;
+            this.bytesWritten = bytesWritten;
+            this.syncs = syncs;
+            this.failedSyncs = failedSyncs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LogStats{segments=%d, lastSequence=%d, durable=%d, bytesWritten=%d, syncs=%d, " +
+                    "failedSyncs=%d}", segments, lastSequence, durableSequence, bytesWritten, syncs, failedSyncs);
+        }
+    }
+}
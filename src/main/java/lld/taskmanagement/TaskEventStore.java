@@ -0,0 +1,337 @@
+package lld.taskmanagement;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Event-sourced persistence for {@link TaskManagementSystem}: every task change goes to a
+ * {@link TaskEventLog}, and snapshots of all tasks are taken every so many events so recovery
+ * only replays the log's tail.
+ *
+ * Snapshots are fuzzy: the snapshot's sequence is read first, then tasks are copied one at a
+ * time while changes continue. A copy may already include changes logged after that sequence,
+ * but those are replayed on top anyway, and since changes carry absolute values each task
+ * still ends in its last logged state. Log segments covered by a snapshot are deleted.
+ *
+ * Recovery loads snapshot parts in parallel, decodes log segments in parallel with events
+ * dealt into partitions by task id, and then replays the partitions in parallel (a task's
+ * changes stay in order within its partition).
+ */
+public class TaskEventStore implements Closeable {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PART_PREFIX = "part-";
+    private static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 20;
+    private static final long DEFAULT_SNAPSHOT_EVERY_EVENTS = 1_000_000;
+    private static final int TASKS_PER_SNAPSHOT_PART = 100_000;
+
+    private final Path directory;
+    private final TaskEventLog log;
+    private final long snapshotEveryEvents;
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+    private final AtomicLong eventsSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Supplier<Collection<Task>> tasks;
+    private volatile RecoveryStats lastRecovery;
+    private volatile long lastSnapshotSequence;
+
+    public TaskEventStore(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_EVERY_EVENTS);
+    }
+
+    public TaskEventStore(Path directory, long maxSegmentBytes, long syncIntervalMillis, long snapshotEveryEvents)
+            throws IOException {
+        this.directory = directory;
+        this.log = new TaskEventLog(directory.resolve("log"), maxSegmentBytes, syncIntervalMillis);
+        this.snapshotEveryEvents = snapshotEveryEvents;
+    }
+
+    /**
+     * Rebuild all tasks from the latest snapshot and the log after it, then open the log for
+     * appending. Call once, before any change is recorded.
+     */
+    public ConcurrentHashMap<String, Task> recover() throws IOException {
+        long start = System.nanoTime();
+        ConcurrentHashMap<String, Task> recovered = new ConcurrentHashMap<>();
+        Path snapshot = latestSnapshot();
+        long snapshotSequence = snapshot == null ? 0 : sequenceOf(snapshot);
+        if (snapshot != null) {
+            loadSnapshot(snapshot, recovered);
+        }
+        long snapshotNanos = System.nanoTime() - start;
+
+        List<TaskEventLog.SegmentContents> segments = readSegments();
+        long lastSequence = snapshotSequence;
+        for (TaskEventLog.SegmentContents segment : segments) {
+            lastSequence = Math.max(lastSequence, segment.lastSequence);
+        }
+        long replayed = IntStream.range(0, parallelism).parallel()
+                .mapToLong(p -> replayPartition(segments, p, snapshotSequence, recovered))
+                .sum();
+
+        log.startAppending(lastSequence);
+        lastSnapshotSequence = snapshotSequence;
+        lastRecovery = new RecoveryStats(recovered.size(), snapshotSequence, segments.size(), replayed,
+                snapshotNanos / 1e6, (System.nanoTime() - start) / 1e6);
+        return recovered;
+    }
+
+    /**
+     * Source of the tasks to snapshot; snapshots start once this is set
+     */
+    public void attach(Supplier<Collection<Task>> tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Record a change to the task (call while holding the task's lock)
+     */
+    void append(TaskChangeEvent.Type type, Task task) {
+        log.append(type, task);
+        if (eventsSinceSnapshot.incrementAndGet() >= snapshotEveryEvents && tasks != null
+                && snapshotRunning.compareAndSet(false, true)) {
+            snapshotter.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException | UncheckedIOException e) {
+                    System.err.println("Task snapshot failed: " + e.getMessage());
+                } finally {
+                    snapshotRunning.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Block until every recorded change is on disk
+     */
+    public void sync() throws IOException {
+        log.sync();
+    }
+
+    /**
+     * Write a snapshot of all tasks now and drop the log segments it covers
+     */
+    public synchronized void snapshot() throws IOException {
+        Supplier<Collection<Task>> source = tasks;
+        if (source == null) {
+            throw new IllegalStateException("No tasks attached");
+        }
+        // Every change up to this sequence is already applied in memory
+        long sequence = log.getLastSequence();
+        eventsSinceSnapshot.set(0);
+        List<Task> all = new ArrayList<>(source.get());
+
+        Path temp = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, TEMP_SUFFIX));
+        deleteRecursively(temp);
+        Files.createDirectories(temp);
+        int parts = Math.max(1, (all.size() + TASKS_PER_SNAPSHOT_PART - 1) / TASKS_PER_SNAPSHOT_PART);
+        IntStream.range(0, parts).parallel().forEach(part -> {
+            List<Task> slice = all.subList(part * all.size() / parts, (part + 1) * all.size() / parts);
+            writePart(temp.resolve(PART_PREFIX + part), slice);
+        });
+        Path finished = directory.resolve(String.format("%s%020d", SNAPSHOT_PREFIX, sequence));
+        deleteRecursively(finished);
+        Files.move(temp, finished, StandardCopyOption.ATOMIC_MOVE);
+
+        for (Path old : listSnapshots()) {
+            if (sequenceOf(old) < sequence) {
+                deleteRecursively(old);
+            }
+        }
+        log.deleteSegmentsThrough(sequence);
+        lastSnapshotSequence = sequence;
+    }
+
+    public RecoveryStats getLastRecovery() { return lastRecovery; }
+
+    public long getLastSnapshotSequence() { return lastSnapshotSequence; }
+
+    public TaskEventLog.LogStats getLogStats() { return log.getStats(); }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private List<TaskEventLog.SegmentContents> readSegments() throws IOException {
+        List<Path> files = log.getSegments();
+        List<TaskEventLog.SegmentContents> segments;
+        try {
+            segments = files.parallelStream().map(file -> {
+                try {
+                    return TaskEventLog.read(file, parallelism);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // Only the tail of the last segment can be torn; cut it off so new segments follow valid data
+        for (int i = 0; i < segments.size(); i++) {
+            TaskEventLog.SegmentContents segment = segments.get(i);
+            if (segment.torn) {
+                if (i < segments.size() - 1) {
+                    throw new IOException("Corrupt record inside " + segment.segment);
+                }
+                try (FileChannel channel = FileChannel.open(segment.segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(segment.validBytes);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static long replayPartition(List<TaskEventLog.SegmentContents> segments, int partition,
+                                        long afterSequence, Map<String, Task> tasks) {
+        long replayed = 0;
+        for (TaskEventLog.SegmentContents segment : segments) {
+            for (TaskChangeEvent event : segment.eventsByPartition.get(partition)) {
+                if (event.sequence > afterSequence) {
+                    event.applyTo(tasks);
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    private static void writePart(Path file, List<Task> slice) {
+        try (FileOutputStream stream = new FileOutputStream(file.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(slice.size());
+            for (Task task : slice) {
+                synchronized (task) {
+                    TaskChangeEvent.writeTask(out, task);
+                }
+            }
+            out.flush();
+            stream.getChannel().force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void loadSnapshot(Path snapshot, Map<String, Task> tasks) throws IOException {
+        List<Path> parts;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(snapshot, PART_PREFIX + "*")) {
+            parts = new ArrayList<>();
+            files.forEach(parts::add);
+        }
+        try {
+            parts.parallelStream().forEach(part -> {
+                try {
+                    ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(part));
+                    for (int count = in.getInt(); count > 0; count--) {
+                        Task task = TaskChangeEvent.readTask(in);
+                        tasks.put(task.getId(), task);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Newest complete snapshot; leftovers of interrupted snapshots are removed
+    private Path latestSnapshot() throws IOException {
+        Path latest = null;
+        for (Path snapshot : listSnapshots()) {
+            if (latest == null || sequenceOf(snapshot) > sequenceOf(latest)) {
+                latest = snapshot;
+            }
+        }
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (Path temp : temps) {
+                deleteRecursively(temp);
+            }
+        }
+        return latest;
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    snapshots.add(file);
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        return Long.parseLong(snapshot.getFileName().toString().substring(SNAPSHOT_PREFIX.length()));
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+
+    public static class RecoveryStats {
+        public final int tasks;
+        public final long snapshotSequence;
+        public final int segments;
+        public final long eventsReplayed;
+        public final double snapshotLoadMillis;
+        public final double totalMillis;
+
+        public RecoveryStats(int tasks, long snapshotSequence, int segments, long eventsReplayed,
+                             double snapshotLoadMillis, double totalMillis) {
+            this.tasks = tasks;
+            this.snapshotSequence = snapshotSequence;
+            this.segments = segments;
+            this.eventsReplayed = eventsReplayed;
+            this.snapshotLoadMillis = snapshotLoadMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RecoveryStats{tasks=%d, snapshotSequence=%d, segments=%d, replayed=%d, " +
+                            "snapshotLoad=%.0fms, total=%.0fms}",
+                    tasks, snapshotSequence, segments, eventsReplayed, snapshotLoadMillis, totalMillis);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package lld.taskmanagement;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes over task ids: by assignee, status and priority, plus a skip list of open
+ * (not DONE) tasks ordered by due date, so overdue tasks are a prefix of it.
+ * {@link TaskManagementSystem} updates these while holding the task's lock, right after
+ * changing the task, so every index agrees with the task's latest state.
+ */
+public class TaskIndex {
+    private final Map<String, Set<String>> byAssignee = new ConcurrentHashMap<>();
+    private final Map<TaskStatus, Set<String>> byStatus = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskPriority, Set<String>> byPriority = new EnumMap<>(TaskPriority.class);
+    private final ConcurrentSkipListSet<DueEntry> openByDueDate = new ConcurrentSkipListSet<>();
+
+    public TaskIndex() {
+        // Fully populated up front, so the enum maps are only ever read concurrently
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public void add(Task task) {
+        addAssignee(task.getAssigneeId(), task.getId());
+        byStatus.get(task.getStatus()).add(task.getId());
+        byPriority.get(task.getPriority()).add(task.getId());
+        if (isOpen(task.getStatus()) && task.getDueDate() != null) {
+            openByDueDate.add(new DueEntry(task.getDueDate(), task.getId()));
+        }
+    }
+
+    public void onAssigned(Task task, String oldAssigneeId) {
+        if (oldAssigneeId != null) {
+            Set<String> ids = byAssignee.get(oldAssigneeId);
+            if (ids != null) {
+                ids.remove(task.getId());
+            }
+        }
+        addAssignee(task.getAssigneeId(), task.getId());
+    }
+
+    public void onStatusChanged(Task task, TaskStatus oldStatus) {
+        byStatus.get(oldStatus).remove(task.getId());
+        byStatus.get(task.getStatus()).add(task.getId());
+        if (task.getDueDate() != null && isOpen(oldStatus) != isOpen(task.getStatus())) {
+            DueEntry entry = new DueEntry(task.getDueDate(), task.getId());
+            if (isOpen(task.getStatus())) {
+                openByDueDate.add(entry);
+            } else {
+                openByDueDate.remove(entry);
+            }
+        }
+    }
+
+    public void onPriorityChanged(Task task, TaskPriority oldPriority) {
+        byPriority.get(oldPriority).remove(task.getId());
+        byPriority.get(task.getPriority()).add(task.getId());
+    }
+
+    public void onDueDateChanged(Task task, LocalDateTime oldDueDate) {
+        if (!isOpen(task.getStatus())) {
+            return;
+        }
+        if (oldDueDate != null) {
+            openByDueDate.remove(new DueEntry(oldDueDate, task.getId()));
+        }
+        if (task.getDueDate() != null) {
+            openByDueDate.add(new DueEntry(task.getDueDate(), task.getId()));
+        }
+    }
+
+    public Set<String> getByAssignee(String assigneeId) {
+        Set<String> ids = assigneeId == null ? null : byAssignee.get(assigneeId);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    public Set<String> getByStatus(TaskStatus status) {
+        return Collections.unmodifiableSet(byStatus.get(status));
+    }
+
+    public Set<String> getByPriority(TaskPriority priority) {
+        return Collections.unmodifiableSet(byPriority.get(priority));
+    }
+
+    /**
+     * Ids of open tasks due before the given time, earliest first
+     */
+    public List<String> getOverdue(LocalDateTime now) {
+        List<String> ids = new ArrayList<>();
+        for (DueEntry entry : openByDueDate.headSet(new DueEntry(now, ""))) {
+            ids.add(entry.taskId);
+        }
+        return ids;
+    }
+
+    public Map<TaskStatus, Long> countByStatus() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        byStatus.forEach((status, ids) -> {
+            if (!ids.isEmpty()) {
+                counts.put(status, (long) ids.size());
+            }
+        });
+        return counts;
+    }
+
+    public Map<TaskPriority, Long> countByPriority() {
+        Map<TaskPriority, Long> counts = new EnumMap<>(TaskPriority.class);
+        byPriority.forEach((priority, ids) -> {
+            if (!ids.isEmpty()) {
+                counts.put(priority, (long) ids.size());
+            }
+        });
+        return counts;
+    }
+
+    private void addAssignee(String assigneeId, String taskId) {
+        if (assigneeId != null) {
+            byAssignee.computeIfAbsent(assigneeId, id -> ConcurrentHashMap.newKeySet()).add(taskId);
+        }
+    }
+
+    private static boolean isOpen(TaskStatus status) {
+        return status != TaskStatus.DONE;
+    }
+
+    private static class DueEntry implements Comparable<DueEntry> {
+        private final LocalDateTime dueDate;
+        private final String taskId;
+
+        DueEntry(LocalDateTime dueDate, String taskId) {
+            this.dueDate = dueDate;
+            this.taskId = taskId;
+        }
+
+        @Override
+        public int compareTo(DueEntry other) {
+            int byDate = dueDate.compareTo(other.dueDate);
+            return byDate != 0 ? byDate : taskId.compareTo(other.taskId);
+        }
+    }
+}
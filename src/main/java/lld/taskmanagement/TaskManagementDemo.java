@@ -57,8 +57,8 @@ public class TaskManagementDemo {
         System.out.println("\n5. Setting due dates...\n");
 
         // Set due dates
-        task1.setDueDate(LocalDateTime.now().plusDays(3));
-        task2.setDueDate(LocalDateTime.now().minusDays(1)); // Overdue task
+        tms.setDueDate(task1.getId(), LocalDateTime.now().plusDays(3));
+        tms.setDueDate(task2.getId(), LocalDateTime.now().minusDays(1)); // Overdue task
 
         System.out.println("\n6. Generating reports...\n");
 
@@ -1,17 +1,35 @@
 package lld.taskmanagement;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TaskManagementSystem {
     private Map<String, Task> tasks;
     private List<TaskObserver> observers;
+    private final TaskIndex index;
+    private final TaskEventStore store; // null when not persistent
 
     public TaskManagementSystem() {
         this.tasks = new ConcurrentHashMap<>();
-        this.observers = new ArrayList<>();
+        this.observers = new CopyOnWriteArrayList<>(); // observers may be added while tasks change
+        this.index = new TaskIndex();
+        this.store = null;
+    }
+
+    /**
+     * Persistent system: recovers the store's tasks (and rebuilds the indexes from them), then
+     * records every change in it
+     */
+    public TaskManagementSystem(TaskEventStore store) throws IOException {
+        this.tasks = store.recover();
+        this.observers = new CopyOnWriteArrayList<>();
+        this.index = new TaskIndex();
+        this.store = store;
+        tasks.values().parallelStream().forEach(index::add);
+        store.attach(tasks::values);
     }
 
     public void addObserver(TaskObserver observer) {
@@ -24,7 +42,11 @@ public class TaskManagementSystem {
 
     public Task createTask(String title, String description, TaskPriority priority, String assigneeId) {
         Task task = new Task(title, description, priority, assigneeId);
-        tasks.put(task.getId(), task);
+        synchronized (task) {
+            tasks.put(task.getId(), task);
+            index.add(task);
+            record(TaskChangeEvent.Type.CREATED, task);
+        }
         
         // Notify observers
         for (TaskObserver observer : observers) {
@@ -40,8 +62,13 @@ public class TaskManagementSystem {
             return false;
         }
 
-        TaskStatus oldStatus = task.getStatus();
-        task.updateStatus(newStatus);
+        TaskStatus oldStatus;
+        synchronized (task) {
+            oldStatus = task.getStatus();
+            task.updateStatus(newStatus);
+            index.onStatusChanged(task, oldStatus);
+            record(TaskChangeEvent.Type.STATUS_CHANGED, task);
+        }
         
         // Notify observers
         for (TaskObserver observer : observers) {
@@ -57,8 +84,13 @@ public class TaskManagementSystem {
             return false;
         }
 
-        String oldAssigneeId = task.getAssigneeId();
-        task.assignTo(newAssigneeId);
+        String oldAssigneeId;
+        synchronized (task) {
+            oldAssigneeId = task.getAssigneeId();
+            task.assignTo(newAssigneeId);
+            index.onAssigned(task, oldAssigneeId);
+            record(TaskChangeEvent.Type.ASSIGNED, task);
+        }
         
         // Notify observers
         for (TaskObserver observer : observers) {
@@ -74,8 +106,13 @@ public class TaskManagementSystem {
             return false;
         }
 
-        TaskPriority oldPriority = task.getPriority();
-        task.updatePriority(newPriority);
+        TaskPriority oldPriority;
+        synchronized (task) {
+            oldPriority = task.getPriority();
+            task.updatePriority(newPriority);
+            index.onPriorityChanged(task, oldPriority);
+            record(TaskChangeEvent.Type.PRIORITY_CHANGED, task);
+        }
         
         // Notify observers
         for (TaskObserver observer : observers) {
@@ -85,35 +122,64 @@ public class TaskManagementSystem {
         return true;
     }
 
+    /**
+     * Set or clear (null) a task's due date. Change due dates through here rather than on the
+     * task, so the overdue index sees them.
+     */
+    public boolean setDueDate(String taskId, LocalDateTime dueDate) {
+        Task task = tasks.get(taskId);
+        if (task == null) {
+            return false;
+        }
+
+        synchronized (task) {
+            LocalDateTime oldDueDate = task.getDueDate();
+            task.setDueDate(dueDate);
+            index.onDueDateChanged(task, oldDueDate);
+            record(TaskChangeEvent.Type.DUE_DATE_CHANGED, task);
+        }
+        return true;
+    }
+
+    // Caller holds the task's lock
+    private void record(TaskChangeEvent.Type type, Task task) {
+        if (store != null) {
+            store.append(type, task);
+        }
+    }
+
     public Task getTask(String taskId) {
         return tasks.get(taskId);
     }
 
     public List<Task> getTasksByAssignee(String assigneeId) {
-        return tasks.values().stream()
-                .filter(task -> assigneeId.equals(task.getAssigneeId()))
-                .collect(Collectors.toList());
+        return resolve(index.getByAssignee(assigneeId));
     }
 
     public List<Task> getTasksByStatus(TaskStatus status) {
-        return tasks.values().stream()
-                .filter(task -> status.equals(task.getStatus()))
-                .collect(Collectors.toList());
+        return resolve(index.getByStatus(status));
     }
 
     public List<Task> getTasksByPriority(TaskPriority priority) {
-        return tasks.values().stream()
-                .filter(task -> priority.equals(task.getPriority()))
-                .collect(Collectors.toList());
+        return resolve(index.getByPriority(priority));
     }
 
+    /**
+     * Open tasks past their due date, earliest due first
+     */
     public List<Task> getOverdueTasks() {
-        LocalDateTime now = LocalDateTime.now();
-        return tasks.values().stream()
-                .filter(task -> task.getDueDate() != null && 
-                              task.getDueDate().isBefore(now) && 
-                              task.getStatus() != TaskStatus.DONE)
-                .collect(Collectors.toList());
+        return resolve(index.getOverdue(LocalDateTime.now()));
+    }
+
+    private List<Task> resolve(Collection<String> taskIds) {
+        List<Task> result = new ArrayList<>(taskIds.size());
+        for (String taskId : taskIds) {
+            Task task = tasks.get(taskId);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
     }
 
     public List<Task> getAllTasks() {
@@ -121,12 +187,10 @@ public class TaskManagementSystem {
     }
 
     public Map<TaskStatus, Long> getTaskStatusReport() {
-        return tasks.values().stream()
-                .collect(Collectors.groupingBy(Task::getStatus, Collectors.counting()));
+        return index.countByStatus();
     }
 
     public Map<TaskPriority, Long> getTaskPriorityReport() {
-        return tasks.values().stream()
-                .collect(Collectors.groupingBy(Task::getPriority, Collectors.counting()));
+        return index.countByPriority();
     }
 }
\ No newline at end of file
@@ -0,0 +1,383 @@
+package lld.taskmanagement;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous delivery of task notifications to slow observers.
+ * Register the pipeline itself as an observer of {@link TaskManagementSystem}; it hands each
+ * event to a bounded queue per downstream observer and returns at once. A worker thread per
+ * observer collects events for a batching window, coalesces consecutive changes of the same
+ * kind to the same task (first old value, last new value; net no-ops are dropped) and delivers
+ * them, retrying failed calls with exponential backoff. Only a run of same-kind changes with no
+ * other change to that task in between is merged, so each task's events are still delivered in
+ * the order they happened; a merged run is delivered where the run started.
+ *
+ * When an observer's queue stays full for longer than the offer timeout the event is dropped
+ * and counted, so a stuck sink cannot stall task updates.
+ */
+public class TaskNotificationPipeline implements TaskObserver {
+    private static final long DEFAULT_WINDOW_MILLIS = 100;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final long OFFER_TIMEOUT_MILLIS = 10;
+    private static final int MAX_BATCH = 1_000;
+
+    private final long windowMillis;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final int maxBatch; // a batch never holds more than a full queue
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    public TaskNotificationPipeline() {
+        this(DEFAULT_WINDOW_MILLIS, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS);
+    }
+
+    public TaskNotificationPipeline(long windowMillis, int queueCapacity, int maxAttempts, long initialBackoffMillis) {
+        if (queueCapacity <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Queue capacity and attempts must be positive");
+        }
+        this.windowMillis = windowMillis;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBatch = Math.min(MAX_BATCH, queueCapacity);
+    }
+
+    public void addObserver(TaskObserver observer) {
+        if (!running) {
+            throw new IllegalStateException("Pipeline is shut down");
+        }
+        Channel channel = new Channel(observer, channels.size());
+        channels.add(channel);
+        channel.worker.start();
+    }
+
+    public void removeObserver(TaskObserver observer) {
+        for (Channel channel : channels) {
+            if (channel.observer == observer) {
+                channels.remove(channel);
+                channel.worker.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        publish(new TaskEvent(EventType.CREATED, task, null, null));
+    }
+
+    @Override
+    public void onTaskStatusChanged(Task task, TaskStatus oldStatus, TaskStatus newStatus) {
+        publish(new TaskEvent(EventType.STATUS_CHANGED, task, oldStatus, newStatus));
+    }
+
+    @Override
+    public void onTaskAssigned(Task task, String oldAssigneeId, String newAssigneeId) {
+        publish(new TaskEvent(EventType.ASSIGNED, task, oldAssigneeId, newAssigneeId));
+    }
+
+    @Override
+    public void onTaskPriorityChanged(Task task, TaskPriority oldPriority, TaskPriority newPriority) {
+        publish(new TaskEvent(EventType.PRIORITY_CHANGED, task, oldPriority, newPriority));
+    }
+
+    /**
+     * Wait until every queued event has been delivered or given up on
+     *
+     * @return false if that did not happen within the timeout
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Channel channel : channels) {
+            synchronized (channel) {
+                while (channel.pending > 0) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    channel.wait(remaining);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting events, deliver what is queued and stop the workers
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        running = false;
+        awaitIdle(timeout, unit);
+        for (Channel channel : channels) {
+            channel.worker.interrupt();
+        }
+        for (Channel channel : channels) {
+            channel.worker.join(unit.toMillis(timeout));
+        }
+    }
+
+    public List<ChannelStats> getStats() {
+        List<ChannelStats> stats = new ArrayList<>();
+        for (Channel channel : channels) {
+            stats.add(channel.stats());
+        }
+        return stats;
+    }
+
+    private void publish(TaskEvent event) {
+        if (!running) {
+            return;
+        }
+        for (Channel channel : channels) {
+            channel.offer(event);
+        }
+    }
+
+    private enum EventType { CREATED, STATUS_CHANGED, ASSIGNED, PRIORITY_CHANGED }
+
+    private static class TaskEvent {
+        private final EventType type;
+        private final Task task;
+        private final Object oldValue;
+        private final Object newValue;
+        private final long createdNanos;
+
+        TaskEvent(EventType type, Task task, Object oldValue, Object newValue) {
+            this(type, task, oldValue, newValue, System.nanoTime());
+        }
+
+        TaskEvent(EventType type, Task task, Object oldValue, Object newValue, long createdNanos) {
+            this.type = type;
+            this.task = task;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+            this.createdNanos = createdNanos;
+        }
+
+        // A later change of the same kind to the same task folded into this one
+        TaskEvent mergedWith(TaskEvent later) {
+            return new TaskEvent(type, task, oldValue, later.newValue, createdNanos);
+        }
+
+        boolean isNoOp() {
+            return type != EventType.CREATED && Objects.equals(oldValue, newValue);
+        }
+    }
+
+    private class Channel {
+        private final TaskObserver observer;
+        private final BlockingQueue<TaskEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread worker;
+        private int pending; // queued or in a batch being delivered; guarded by this
+
+        private long enqueued;
+        private long dropped;
+        private long coalesced;
+        private long delivered;
+        private long retries;
+        private long failed;
+        private long totalLagNanos;
+        private long maxLagNanos;
+
+        Channel(TaskObserver observer, int number) {
+            this.observer = observer;
+            this.worker = new Thread(this::run, "task-notify-" + number);
+            worker.setDaemon(true);
+        }
+
+        void offer(TaskEvent event) {
+            synchronized (this) {
+                pending++;
+            }
+            boolean accepted;
+            try {
+                accepted = queue.offer(event, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+            synchronized (this) {
+                if (accepted) {
+                    enqueued++;
+                } else {
+                    dropped++;
+                    done(1);
+                }
+            }
+        }
+
+        private void run() {
+            List<TaskEvent> batch = new ArrayList<>();
+            boolean stopping = false;
+            while (!stopping || !queue.isEmpty()) {
+                try {
+                    if (stopping) {
+                        queue.drainTo(batch, maxBatch);
+                    } else {
+                        collect(batch);
+                    }
+                } catch (InterruptedException e) {
+                    stopping = true; // deliver what was collected, then drain the queue and stop
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                deliverBatch(batch);
+                int size = batch.size();
+                batch.clear();
+                synchronized (this) {
+                    done(size);
+                }
+            }
+        }
+
+        // First event blocks; the rest are whatever arrives within the window
+        private void collect(List<TaskEvent> batch) throws InterruptedException {
+            batch.add(queue.take());
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+            while (batch.size() < maxBatch) {
+                TaskEvent next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+
+        private void deliverBatch(List<TaskEvent> batch) {
+            List<TaskEvent> merged = new ArrayList<>(batch.size());
+            Map<String, Integer> lastByTask = new HashMap<>(); // taskId -> index of its latest event in merged
+            for (TaskEvent event : batch) {
+                Integer last = lastByTask.get(event.task.getId());
+                if (last != null && merged.get(last).type == event.type) {
+                    merged.set(last, merged.get(last).mergedWith(event));
+                } else {
+                    lastByTask.put(event.task.getId(), merged.size());
+                    merged.add(event);
+                }
+            }
+            synchronized (this) {
+                coalesced += batch.size() - merged.size();
+            }
+            for (TaskEvent event : merged) {
+                if (event.isNoOp()) {
+                    synchronized (this) {
+                        coalesced++;
+                    }
+                    continue;
+                }
+                boolean ok = deliverWithRetry(event);
+                long lag = System.nanoTime() - event.createdNanos;
+                synchronized (this) {
+                    if (ok) {
+                        delivered++;
+                        totalLagNanos += lag;
+                        maxLagNanos = Math.max(maxLagNanos, lag);
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+        }
+
+        private boolean deliverWithRetry(TaskEvent event) {
+            long backoff = initialBackoffMillis;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    dispatch(event);
+                    return true;
+                } catch (RuntimeException e) {
+                    if (attempt >= maxAttempts) {
+                        System.err.println("Giving up on task notification after " + attempt + " attempts: " + e.getMessage());
+                        return false;
+                    }
+                }
+                synchronized (this) {
+                    retries++;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    // Shutting down: keep retrying without sleeping so queued events are not lost
+                    Thread.currentThread().interrupt();
+                    backoff = 0;
+                }
+                backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+            }
+        }
+
+        private void dispatch(TaskEvent event) {
+            switch (event.type) {
+                case CREATED:
+                    observer.onTaskCreated(event.task);
+                    break;
+                case STATUS_CHANGED:
+                    observer.onTaskStatusChanged(event.task, (TaskStatus) event.oldValue, (TaskStatus) event.newValue);
+                    break;
+                case ASSIGNED:
+                    observer.onTaskAssigned(event.task, (String) event.oldValue, (String) event.newValue);
+                    break;
+                case PRIORITY_CHANGED:
+                    observer.onTaskPriorityChanged(event.task, (TaskPriority) event.oldValue, (TaskPriority) event.newValue);
+                    break;
+            }
+        }
+
+        // Caller holds the lock
+        private void done(int events) {
+            pending -= events;
+            if (pending == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized ChannelStats stats() {
+            return new ChannelStats(observer.getClass().getSimpleName(), queue.size(), enqueued, dropped, coalesced,
+                    delivered, retries, failed,
+                    delivered == 0 ? 0.0 : totalLagNanos / 1e6 / delivered, maxLagNanos / 1e6);
+        }
+    }
+
+    public static class ChannelStats {
+        public final String observer;
+        public final int queueDepth;
+        public final long enqueued;
+        public final long dropped;
+        public final long coalesced;
+        public final long delivered;
+        public final long retries;
+        public final long failed;
+        public final double averageLagMillis;
+        public final double maxLagMillis;
+
+        public ChannelStats(String observer, int queueDepth, long enqueued, long dropped, long coalesced,
+                            long delivered, long retries, long failed, double averageLagMillis, double maxLagMillis) {
+            this.observer = observer;
+            this.queueDepth = queueDepth;
+            this.enqueued = enqueued;
+            this.dropped = dropped;
+            this.coalesced = coalesced;
+            this.delivered = delivered;
+            this.retries = retries;
+            this.failed = failed;
+            this.averageLagMillis = averageLagMillis;
+            this.maxLagMillis = maxLagMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ChannelStats{observer=%s, queued=%d, enqueued=%d, dropped=%d, coalesced=%d, " +
+                            "delivered=%d, retries=%d, failed=%d, avgLag=%.1fms, maxLag=%.1fms}",
+                    observer, queueDepth, enqueued, dropped, coalesced, delivered, retries, failed,
+                    averageLagMillis, maxLagMillis);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package lld.taskmanagement;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes work attached to tasks.
+ * A job is ready once all tasks it depends on have finished; ready jobs are ordered by
+ * {@link TaskPriority} (highest first), then due date (earliest first, none last), then
+ * submission order. The scheduler keeps at most `parallelism` jobs on the work-stealing pool,
+ * always starting the best ready job, and runs at most `maxPerAssignee` jobs of one assignee
+ * at a time (the others wait, still in priority order, for a slot).
+ *
+ * Running a job moves its task to IN_PROGRESS, then DONE, or BLOCKED if the work throws; jobs
+ * depending on a failed job are cancelled and their tasks marked BLOCKED too. Dependencies
+ * must be submitted before their dependents, so the graph can't have cycles.
+ *
+ * A job is dropped as soon as it finishes (its dependents are made ready or cancelled at that
+ * point); only its task id and outcome are kept, for later submissions that depend on it. The
+ * most recent outcomes are kept (100K by default); a later job cannot depend on an older one.
+ * Futures are always completed outside the scheduler's lock.
+ *
+ * Status updates notify the system's observers inline. An observer that throws is reported
+ * and otherwise ignored: the job's outcome, its future and its dependents do not depend on it.
+ */
+public class TaskScheduler {
+    private static final Comparator<Job> READY_ORDER = Comparator
+            .comparingInt((Job job) -> -job.priority.getLevel())
+            .thenComparing(job -> job.dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(job -> job.sequence);
+    private static final int DEFAULT_RETAINED_OUTCOMES = 100_000;
+
+    private final TaskManagementSystem system;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int parallelism;
+    private final int maxPerAssignee;
+
+    private final PriorityBlockingQueue<Job> ready = new PriorityBlockingQueue<>(64, READY_ORDER);
+    private final Map<String, Job> jobs = new HashMap<>(); // unfinished, by task id; guarded by this
+    private final Map<String, JobState> finished; // task id -> DONE, FAILED or CANCELLED, oldest evicted
+    private final Map<String, Integer> runningByAssignee = new HashMap<>();
+    private final Map<String, PriorityQueue<Job>> waitingForAssignee = new HashMap<>();
+    private long nextSequence;
+    private int submitted;
+    private int running;
+    private int unfinished;
+    private boolean shutdown;
+
+    private final long startNanos = System.nanoTime();
+    private long completed;
+    private long failed;
+    private long cancelled;
+    private long totalQueueNanos;
+    private long maxQueueNanos;
+
+    public TaskScheduler(TaskManagementSystem system, int parallelism, int maxPerAssignee) {
+        this(system, new ForkJoinPool(parallelism), true, parallelism, maxPerAssignee, DEFAULT_RETAINED_OUTCOMES);
+    }
+
+    /**
+     * Run jobs on a caller-supplied pool, which {@link #shutdown} leaves running
+     */
+    public TaskScheduler(TaskManagementSystem system, ForkJoinPool pool, int parallelism, int maxPerAssignee) {
+        this(system, pool, false, parallelism, maxPerAssignee, DEFAULT_RETAINED_OUTCOMES);
+    }
+
+    TaskScheduler(TaskManagementSystem system, ForkJoinPool pool, boolean ownsPool, int parallelism,
+                  int maxPerAssignee, int retainedOutcomes) {
+        if (parallelism <= 0 || maxPerAssignee <= 0) {
+            throw new IllegalArgumentException("Parallelism and per-assignee limit must be positive");
+        }
+        this.system = system;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.parallelism = parallelism;
+        this.maxPerAssignee = maxPerAssignee;
+        this.finished = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JobState> eldest) {
+                return size() > retainedOutcomes;
+            }
+        };
+    }
+
+    public CompletableFuture<Void> submit(Task task, Runnable work) {
+        return submit(task, work, Collections.emptyList());
+    }
+
+    /**
+     * Schedule work for a task, to run after the given tasks' jobs have finished
+     *
+     * @throws IllegalArgumentException if the task already has a job, or a dependency has none or
+     *                                  finished too long ago for its outcome to be kept
+     */
+    public CompletableFuture<Void> submit(Task task, Runnable work, Collection<String> dependsOnTaskIds) {
+        Job job;
+        synchronized (this) {
+            if (shutdown) {
+                throw new IllegalStateException("Scheduler is shut down");
+            }
+            if (jobs.containsKey(task.getId()) || finished.containsKey(task.getId())) {
+                throw new IllegalArgumentException("Task already scheduled: " + task.getId());
+            }
+            List<Job> dependencies = new ArrayList<>();
+            boolean dependencyFailed = false;
+            for (String dependencyId : dependsOnTaskIds) {
+                Job dependency = jobs.get(dependencyId);
+                JobState outcome = finished.get(dependencyId);
+                if (dependency != null) {
+                    dependencies.add(dependency);
+                } else if (outcome == null) {
+                    throw new IllegalArgumentException("Dependency not scheduled: " + dependencyId);
+                } else if (outcome != JobState.DONE) {
+                    dependencyFailed = true;
+                }
+            }
+
+            job = new Job(task, work, nextSequence++);
+            submitted++;
+            unfinished++;
+            if (!dependencyFailed) {
+                jobs.put(task.getId(), job);
+                for (Job dependency : dependencies) {
+                    dependency.dependents.add(job);
+                    job.pendingDependencies++;
+                }
+                if (job.pendingDependencies == 0) {
+                    makeReady(job);
+                    dispatch();
+                }
+                return job.future;
+            }
+            cancel(job);
+        }
+        updateStatus(task, TaskStatus.BLOCKED);
+        completeCancelled(job);
+        return job.future;
+    }
+
+    /**
+     * Wait until every submitted job has finished
+     *
+     * @return false on timeout
+     */
+    public synchronized boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (unfinished > 0) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting jobs and wait for the submitted ones to finish; then release the pool if the
+     * scheduler created it
+     *
+     * @return false on timeout (the pool is kept so the remaining jobs can still start)
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        synchronized (this) {
+            shutdown = true;
+        }
+        if (!awaitCompletion(timeout, unit)) {
+            return false;
+        }
+        if (ownsPool) {
+            pool.shutdown();
+        }
+        return true;
+    }
+
+    public synchronized SchedulerStats getStats() {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        long started = completed + failed;
+        return new SchedulerStats(submitted, completed, failed, cancelled, running, ready.size(),
+                unfinished - running - ready.size(),
+                started == 0 ? 0.0 : totalQueueNanos / 1e6 / started, maxQueueNanos / 1e6,
+                elapsedSeconds > 0 ? completed / elapsedSeconds : 0.0);
+    }
+
+    // Caller holds the lock
+    private void makeReady(Job job) {
+        job.state = JobState.READY;
+        job.priority = job.task.getPriority();
+        job.dueDate = job.task.getDueDate();
+        job.assigneeId = job.task.getAssigneeId();
+        job.readyNanos = System.nanoTime();
+        ready.add(job);
+    }
+
+    // Caller holds the lock
+    private void dispatch() {
+        while (running < parallelism) {
+            Job job = ready.poll();
+            if (job == null) {
+                return;
+            }
+            if (job.assigneeId != null && runningByAssignee.getOrDefault(job.assigneeId, 0) >= maxPerAssignee) {
+                waitingForAssignee.computeIfAbsent(job.assigneeId, id -> new PriorityQueue<>(READY_ORDER)).add(job);
+                continue;
+            }
+            start(job);
+        }
+    }
+
+    // Caller holds the lock
+    private void start(Job job) {
+        job.state = JobState.RUNNING;
+        running++;
+        if (job.assigneeId != null) {
+            runningByAssignee.merge(job.assigneeId, 1, Integer::sum);
+        }
+        long queued = System.nanoTime() - job.readyNanos;
+        totalQueueNanos += queued;
+        maxQueueNanos = Math.max(maxQueueNanos, queued);
+        pool.execute(() -> run(job));
+    }
+
+    private void run(Job job) {
+        Throwable error = null;
+        try {
+            updateStatus(job.task, TaskStatus.IN_PROGRESS);
+            job.work.run();
+        } catch (RuntimeException | Error e) {
+            error = e;
+        } finally {
+            try {
+                updateStatus(job.task, error == null ? TaskStatus.DONE : TaskStatus.BLOCKED);
+            } finally {
+                finish(job, error);
+            }
+        }
+    }
+
+    private void updateStatus(Task task, TaskStatus status) {
+        try {
+            system.updateTaskStatus(task.getId(), status);
+        } catch (RuntimeException e) {
+            System.err.println("Status update of task " + task.getId() + " to " + status + " failed: " + e);
+        }
+    }
+
+    private void finish(Job job, Throwable error) {
+        List<Job> cancelledJobs = new ArrayList<>();
+        synchronized (this) {
+            running--;
+            if (job.assigneeId != null) {
+                runningByAssignee.merge(job.assigneeId, -1, Integer::sum);
+                PriorityQueue<Job> waiting = waitingForAssignee.get(job.assigneeId);
+                if (waiting != null && !waiting.isEmpty()) {
+                    ready.add(waiting.poll()); // keeps its original ready time
+                }
+            }
+            jobs.remove(job.task.getId());
+            if (error == null) {
+                job.state = JobState.DONE;
+                completed++;
+                for (Job dependent : job.dependents) {
+                    if (--dependent.pendingDependencies == 0 && dependent.state == JobState.WAITING) {
+                        makeReady(dependent);
+                    }
+                }
+            } else {
+                job.state = JobState.FAILED;
+                failed++;
+                cancelDependents(job, cancelledJobs);
+            }
+            finished.put(job.task.getId(), job.state);
+            job.dependents.clear();
+            unfinished--;
+            dispatch();
+            notifyAll();
+        }
+        for (Job cancelledJob : cancelledJobs) {
+            updateStatus(cancelledJob.task, TaskStatus.BLOCKED);
+            completeCancelled(cancelledJob);
+        }
+        if (error == null) {
+            job.future.complete(null);
+        } else {
+            job.future.completeExceptionally(error);
+        }
+    }
+
+    // Caller holds the lock
+    private void cancelDependents(Job job, List<Job> cancelledJobs) {
+        Deque<Job> pending = new ArrayDeque<>(job.dependents);
+        while (!pending.isEmpty()) {
+            Job dependent = pending.poll();
+            if (dependent.state == JobState.WAITING) {
+                cancel(dependent);
+                cancelledJobs.add(dependent);
+                pending.addAll(dependent.dependents);
+                dependent.dependents.clear();
+            }
+        }
+    }
+
+    // Caller holds the lock, and completes the future with completeCancelled once it is released
+    private void cancel(Job job) {
+        job.state = JobState.CANCELLED;
+        jobs.remove(job.task.getId());
+        finished.put(job.task.getId(), JobState.CANCELLED);
+        cancelled++;
+        unfinished--;
+        notifyAll();
+    }
+
+    private static void completeCancelled(Job job) {
+        job.future.completeExceptionally(new IllegalStateException("Dependency failed for task " + job.task.getId()));
+    }
+
+    private enum JobState { WAITING, READY, RUNNING, DONE, FAILED, CANCELLED }
+
+    private static class Job {
+        private final Task task;
+        private final Runnable work;
+        private final long sequence;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final List<Job> dependents = new ArrayList<>();
+        private int pendingDependencies;
+        private JobState state = JobState.WAITING;
+        // Ordering keys, captured when the job becomes ready
+        private TaskPriority priority;
+        private LocalDateTime dueDate;
+        private String assigneeId;
+        private long readyNanos;
+
+        Job(Task task, Runnable work, long sequence) {
+            this.task = task;
+            this.work = work;
+            this.sequence = sequence;
+        }
+    }
+
+    public static class SchedulerStats {
+        public final int submitted;
+        public final long completed;
+        public final long failed;
+        public final long cancelled;
+        public final int running;
+        public final int ready;
+        public final int waiting; // on dependencies or an assignee slot
+        public final double averageQueueMillis;
+        public final double maxQueueMillis;
+        public final double throughputPerSecond;
+
+        public SchedulerStats(int submitted, long completed, long failed, long cancelled, int running, int ready,
+                              int waiting, double averageQueueMillis, double maxQueueMillis,
+                              double throughputPerSecond) {
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.running = running;
+            this.ready = ready;
+            this.waiting = waiting;
+            this.averageQueueMillis = averageQueueMillis;
+            this.maxQueueMillis = maxQueueMillis;
+            this.throughputPerSecond = throughputPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SchedulerStats{submitted=%d, completed=%d, failed=%d, cancelled=%d, running=%d, " +
+                            "ready=%d, waiting=%d, avgQueue=%.2fms, maxQueue=%.2fms, throughput=%.1f/s}",
+                    submitted, completed, failed, cancelled, running, ready, waiting,
+                    averageQueueMillis, maxQueueMillis, throughputPerSecond);
+        }
+    }
+}
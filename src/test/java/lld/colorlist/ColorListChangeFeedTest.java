@@ -0,0 +1,72 @@
+package lld.colorlist;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColorListChangeFeedTest {
+
+    @Test
+    public void testDefaultTransportIsReachable() {
+        ColorListService service = new ColorListService();
+        try {
+            service.registerUser("u1", "Alice", "alice@example.com");
+            String listId = service.createColorList("Warm", "u1", null);
+            assertTrue(service.subscribeToChanges(listId, "u1", "sub1", 0));
+            service.addColorToList(listId, new Color("Red", 255, 0, 0), "u1");
+            service.getChangeFeed().flush();
+
+            InProcessChangeTransport transport = (InProcessChangeTransport) service.getChangeTransport();
+            List<ChangeBatch> batches = transport.drain("sub1");
+            assertEquals(1, batches.size());
+            assertEquals(1, batches.get(0).deltas.size());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueuesAreBoundedAndDroppedAfterClose() {
+        InProcessChangeTransport transport = new InProcessChangeTransport(2, 60_000);
+        ColorListService service = new ColorListService(null, transport);
+        try {
+            service.registerUser("u1", "Alice", "alice@example.com");
+            String listId = service.createColorList("Warm", "u1", null);
+            service.subscribeToChanges(listId, "u1", "slow", 0);
+            for (int i = 0; i < 10; i++) {
+                service.addColorToList(listId, new Color("c" + i, i, 0, 0), "u1");
+                service.getChangeFeed().flush(); // one batch per flush while the queue has room
+            }
+            List<ChangeBatch> batches = transport.drain("slow");
+            assertEquals(2, batches.size());
+            service.getChangeFeed().flush(); // refused batches were kept and are sent now
+            assertEquals(8, transport.drain("slow").get(0).deltas.size());
+
+            service.getChangeFeed().unsubscribe("slow");
+            assertEquals(0, transport.getQueueCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreadBatchesOfClosedSubscriptionExpire() throws InterruptedException {
+        InProcessChangeTransport transport = new InProcessChangeTransport(16, 0);
+        ColorListService service = new ColorListService(null, transport);
+        try {
+            service.registerUser("u1", "Alice", "alice@example.com");
+            String listId = service.createColorList("Warm", "u1", null);
+            service.subscribeToChanges(listId, "u1", "gone", 0);
+            service.addColorToList(listId, new Color("Red", 255, 0, 0), "u1");
+            service.getChangeFeed().flush();
+            service.getChangeFeed().unsubscribe("gone");
+            Thread.sleep(5);
+            transport.onSubscriptionClosed("other"); // any later close expires old ones
+            assertEquals(0, transport.getQueueCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+}
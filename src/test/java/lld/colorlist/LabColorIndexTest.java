@@ -0,0 +1,60 @@
+package lld.colorlist;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LabColorIndexTest {
+
+    @Test
+    public void testRemoveFindsColorsAddedBeforeCacheInstalled() throws IOException {
+        Path cacheFile = Files.createTempFile("lab-cache", ".bin");
+        PackedLabCache previous = ColorSpaceConverter.getLabCache();
+        try {
+            // Small cells so cache rounding would often cross a cell boundary
+            LabColorIndex<Color> index = new LabColorIndex<>(0.5);
+            Random random = new Random(42);
+            List<Color> colors = new ArrayList<>();
+            ColorSpaceConverter.installLabCache(null);
+            for (int i = 0; i < 50_000; i++) {
+                Color color = new Color("c" + i, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+                colors.add(color);
+                index.add(color, color);
+            }
+
+            ColorSpaceConverter.installLabCache(PackedLabCache.open(cacheFile));
+            for (Color color : colors) {
+                assertTrue(index.remove(color, color), "not found: " + color);
+            }
+            assertEquals(0, index.size());
+        } finally {
+            ColorSpaceConverter.installLabCache(previous);
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        LabColorIndex<Color> index = new LabColorIndex<>();
+        Random random = new Random(7);
+        List<Color> colors = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Color color = new Color("c" + i, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+            colors.add(color);
+            index.add(color, color);
+        }
+        Color target = new Color("target", 120, 64, 200);
+        double best = Double.MAX_VALUE;
+        for (Color color : colors) {
+            best = Math.min(best, ColorUtils.calculatePerceptualDistance(color, target));
+        }
+        assertEquals(best, index.nearest(target, 1).get(0).distance, 1e-4);
+    }
+}
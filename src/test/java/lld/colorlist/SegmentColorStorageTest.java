@@ -0,0 +1,205 @@
+package lld.colorlist;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentColorStorageTest {
+
+    private static Color color(int i) {
+        return new Color("color-" + (i % 50), (i >> 16) & 0xFF, (i >> 8) & 0xFF, i & 0xFF);
+    }
+
+    private static int rgb(Color color) {
+        return (color.getRed() << 16) | (color.getGreen() << 8) | color.getBlue();
+    }
+
+    private static void assertSameColors(List<Color> expected, SegmentColorStorage storage) {
+        assertEquals(expected.size(), storage.size());
+        List<Color> actual = storage.snapshot();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getHexCode(), actual.get(i).getHexCode());
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+        }
+    }
+
+    @Test
+    public void testBaseDeltaAndCompactionSurviveReopen() throws IOException {
+        Path directory = Files.createTempDirectory("segment-storage");
+        List<Color> expected = new ArrayList<>();
+        SegmentColorStorage storage = SegmentColorStorage.open(directory, false);
+        try {
+            for (int i = 0; i < 3_000; i++) {
+                expected.add(color(i));
+                assertTrue(storage.add(color(i)));
+            }
+            storage.compact(); // base
+            for (int i = 3_000; i < 3_500; i++) {
+                expected.add(color(i));
+                storage.add(color(i)); // delta over the base
+            }
+            for (int i = 0; i < 3_500; i += 7) {
+                assertTrue(storage.remove(color(i)));
+            }
+            expected.removeIf(c -> rgb(c) % 7 == 0);
+            storage.close();
+
+            storage = SegmentColorStorage.open(directory, false);
+            assertSameColors(expected, storage);
+            int generation = storage.getGeneration();
+            storage.compact();
+            assertEquals(generation + 1, storage.getGeneration());
+            storage.add(color(10_000));
+            expected.add(color(10_000));
+            storage.close();
+
+            storage = SegmentColorStorage.open(directory, false);
+            assertSameColors(expected, storage);
+            assertFalse(storage.contains(color(0)));
+            assertTrue(storage.contains(color(10_000)));
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    @Test
+    public void testPositionalReadsMatchList() throws IOException {
+        Path directory = Files.createTempDirectory("segment-storage");
+        SegmentColorStorage storage = SegmentColorStorage.open(directory, false);
+        try {
+            List<Color> expected = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                expected.add(color(i));
+                storage.add(color(i));
+            }
+            storage.compact();
+            for (int i = 2_000; i < 2_100; i++) {
+                expected.add(color(i));
+                storage.add(color(i));
+            }
+            Random random = new Random(3);
+            for (int round = 0; round < 1_000; round++) {
+                int index = random.nextInt(expected.size());
+                Color removed = storage.remove(index);
+                assertEquals(expected.remove(index).getHexCode(), removed.getHexCode());
+                assertEquals(expected.get(0).getHexCode(), storage.first().getHexCode());
+                if (round % 3 == 0) {
+                    Color added = color(100_000 + round);
+                    expected.add(added);
+                    storage.add(added);
+                }
+            }
+            assertSameColors(expected, storage);
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    // A non-empty directory where compaction writes a temporary file makes that write fail
+    private static Path block(Path directory, String file) throws IOException {
+        Path blocker = directory.resolve(file);
+        Files.createDirectories(blocker.resolve("blocker"));
+        return blocker;
+    }
+
+    private static void unblock(Path blocker) throws IOException {
+        Files.delete(blocker.resolve("blocker"));
+        Files.delete(blocker);
+    }
+
+    @Test
+    public void testFailedCompactionDoesNotFailTheChange() throws IOException {
+        Path directory = Files.createTempDirectory("segment-storage");
+        SegmentColorStorage storage = SegmentColorStorage.open(directory, false);
+        try {
+            Path blocker = block(directory, "base.seg.tmp");
+            for (int i = 0; i < 5_000; i++) {
+                assertTrue(storage.add(color(i))); // compaction is due from 4096 changes on
+            }
+            assertNotNull(storage.getCompactionFailure());
+            assertEquals(0, storage.getGeneration());
+            assertEquals(5_000, storage.size());
+
+            unblock(blocker);
+            for (int i = 5_000; i < 5_300; i++) {
+                assertTrue(storage.add(color(i)));
+            }
+            assertNull(storage.getCompactionFailure());
+            assertEquals(1, storage.getGeneration());
+            storage.close();
+
+            storage = SegmentColorStorage.open(directory, false);
+            assertEquals(5_300, storage.size());
+            assertTrue(storage.contains(color(5_299)));
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    @Test
+    public void testFailedAppendLeavesColorsUnchanged() throws IOException {
+        Path directory = Files.createTempDirectory("segment-storage");
+        SegmentColorStorage storage = SegmentColorStorage.open(directory, false);
+        try {
+            storage.add(color(1));
+            storage.add(color(2));
+            Path blocker = block(directory, "delta.log.tmp");
+            storage.compact(); // committed, but no fresh delta log can be started
+            assertNotNull(storage.getCompactionFailure());
+
+            assertThrows(UncheckedIOException.class, () -> storage.add(color(3)));
+            assertThrows(UncheckedIOException.class, () -> storage.remove(color(1)));
+            assertFalse(storage.contains(color(3)));
+            assertTrue(storage.contains(color(1)));
+            assertEquals(2, storage.size());
+
+            unblock(blocker);
+            assertTrue(storage.add(color(3)));
+            assertTrue(storage.remove(color(1)));
+            storage.close();
+
+            SegmentColorStorage reopened = SegmentColorStorage.open(directory, false);
+            assertSameColors(List.of(color(2), color(3)), reopened);
+            reopened.close();
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    @Test
+    public void testServiceReopensPersistedList() throws IOException {
+        Path root = Files.createTempDirectory("color-lists");
+        ColorListService service = new ColorListService(root);
+        service.registerUser("u1", "Alice", "alice@example.com");
+        String listId = service.createColorList("Warm", "u1", null);
+        service.addColorToList(listId, new Color("Red", 255, 0, 0), "u1");
+        service.addColorToList(listId, new Color("Orange", 255, 165, 0), "u1");
+        service.shutdown();
+
+        ColorListService restarted = new ColorListService(root);
+        try {
+            restarted.registerUser("u1", "Alice", "alice@example.com");
+            assertFalse(restarted.reopenColorList("list_missing", "Missing", "u1"));
+            assertTrue(restarted.reopenColorList(listId, "Warm", "u1"));
+            assertFalse(restarted.reopenColorList(listId, "Warm", "u1"));
+
+            List<Color> colors = restarted.getColorList(listId, "u1").getColors("u1");
+            assertEquals(2, colors.size());
+            assertEquals("Red", colors.get(0).getName());
+            assertEquals("Orange", colors.get(1).getName());
+            assertEquals(1, restarted.getUserColorLists("u1").size());
+        } finally {
+            restarted.deleteColorList(listId, "u1");
+            restarted.shutdown();
+            Files.deleteIfExists(root);
+        }
+    }
+}
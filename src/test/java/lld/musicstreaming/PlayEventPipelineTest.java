@@ -0,0 +1,51 @@
+package lld.musicstreaming;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayEventPipelineTest {
+
+    @Test
+    public void testPublishedSongsAreNotTracked() throws InterruptedException {
+        RecommendationCache cache = new RecommendationCache(100, Duration.ofMinutes(10));
+        PlayEventPipeline pipeline = new PlayEventPipeline(cache, 1);
+        try {
+            User user = new User("u1", "Alice", "alice@example.com");
+            List<Song> songs = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                songs.add(new Song("s" + i, "Song " + i, "Artist", "Album", Duration.ofMinutes(3), "Rock"));
+            }
+
+            // Submitters race the 1 ms publisher; no play may be lost or counted twice
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        pipeline.submit(user, songs.get(i % songs.size()));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            pipeline.flush();
+
+            long plays = 0;
+            for (Song song : songs) {
+                plays += song.getPlayCount();
+            }
+            assertEquals(80_000, plays);
+            assertEquals(0, pipeline.getPendingSongs());
+            assertEquals(0, pipeline.getPendingEvents());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+}
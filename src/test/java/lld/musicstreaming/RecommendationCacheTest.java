@@ -0,0 +1,88 @@
+package lld.musicstreaming;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecommendationCacheTest {
+
+    private static final List<Song> SONGS = List.of(
+            new Song("s1", "Song", "Artist", "Album", Duration.ofMinutes(3), "Rock"));
+
+    @Test
+    public void testInvalidatedUsersAreNotTrackedForever() {
+        RecommendationCache cache = new RecommendationCache(100, Duration.ofMinutes(10));
+        for (int i = 0; i < 10_000; i++) {
+            cache.invalidate("user" + i);
+        }
+        assertTrue(cache.trackedUsers() <= 100);
+
+        // Evicting a user's last entry drops its stamp too
+        for (int i = 0; i < 200; i++) {
+            String userId = "reader" + i;
+            cache.put(userId, cache.currentVersion(userId), 5, SONGS);
+            cache.invalidate(userId);
+            cache.put(userId, cache.currentVersion(userId), 5, SONGS);
+        }
+        assertTrue(cache.trackedUsers() <= 100);
+    }
+
+    @Test
+    public void testStalePutIsRefusedAfterItsStampIsDropped() {
+        RecommendationCache cache = new RecommendationCache(10, Duration.ofMinutes(10));
+        long version = cache.currentVersion("alice");
+        cache.invalidate("alice");
+        for (int i = 0; i < 100; i++) {
+            cache.invalidate("other" + i); // pushes alice's stamp out
+        }
+        cache.put("alice", version, 5, SONGS);
+        assertNull(cache.get("alice", 5));
+
+        cache.put("alice", cache.currentVersion("alice"), 5, SONGS);
+        assertEquals(SONGS, cache.get("alice", 5));
+    }
+
+    @Test
+    public void testExpiryDropsStampWithEntry() {
+        MutableClock clock = new MutableClock(Instant.EPOCH);
+        RecommendationCache cache = new RecommendationCache(10, Duration.ofSeconds(1), clock);
+        cache.invalidate("alice");
+        cache.put("alice", cache.currentVersion("alice"), 5, SONGS);
+        assertEquals(1, cache.trackedUsers());
+
+        clock.now = clock.now.plusSeconds(2);
+        assertNull(cache.get("alice", 5));
+        assertEquals(0, cache.trackedUsers());
+        assertEquals(1, cache.getStats().expirations);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package lld.musicstreaming;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKSongsTest {
+
+    private static Song song(int i) {
+        return new Song("s" + i, "Song " + i, "Artist", "Album", Duration.ofMinutes(3), "Rock");
+    }
+
+    @Test
+    public void testUnboundedLimitOnlyHoldsOfferedSongs() {
+        TopKSongs topK = new TopKSongs(Integer.MAX_VALUE);
+        for (int i = 0; i < 1_000; i++) {
+            topK.offer(song(i), (i * 37) % 1_000);
+        }
+        assertEquals(1_000, topK.size());
+        assertEquals(Double.NEGATIVE_INFINITY, topK.threshold(), 0.0);
+        List<Song> sorted = topK.toSortedList();
+        assertEquals(1_000, sorted.size());
+        assertEquals("s27", sorted.get(0).getId()); // 27 * 37 % 1000 = 999
+    }
+
+    @Test
+    public void testKeepsHighestScores() {
+        TopKSongs topK = new TopKSongs(20);
+        for (int i = 0; i < 500; i++) {
+            topK.offer(song(i), i);
+        }
+        assertEquals(20, topK.size());
+        assertEquals(480.0, topK.threshold(), 0.0);
+        List<Song> sorted = topK.toSortedList();
+        assertEquals("s499", sorted.get(0).getId());
+        assertEquals("s480", sorted.get(19).getId());
+    }
+}
@@ -0,0 +1,101 @@
+package lld.scorecard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScorecardServiceTest {
+
+    private ScorecardService service;
+    private String scorecardId;
+
+    private void createScorecard(int evaluators) {
+        service = new ScorecardService();
+        service.registerUser("admin", "Admin", "admin@example.com", UserRole.ADMIN);
+        scorecardId = service.createScorecard("Review", "Quarterly review", "admin");
+        Section section = new Section("skills", "Skills", "", 2.0);
+        section.addQuestion(new Question.Builder("rating", "Rating", ResponseType.RATING).weight(2.0).build());
+        section.addQuestion(new Question.Builder("percent", "Percent", ResponseType.PERCENTAGE).build());
+        service.addSection(scorecardId, section, "admin");
+        for (int e = 0; e < evaluators; e++) {
+            service.registerUser("e" + e, "Evaluator " + e, "e" + e + "@example.com", UserRole.EVALUATOR);
+            service.assignEvaluator(scorecardId, "e" + e, "admin");
+        }
+    }
+
+    private static Map<String, Map<String, Object>> responses(int rating, double percent) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("rating", rating);
+        answers.put("percent", percent);
+        Map<String, Map<String, Object>> responses = new HashMap<>();
+        responses.put("skills", answers);
+        return responses;
+    }
+
+    @Test
+    public void testCalculateScoreMatchesScorecard() {
+        createScorecard(3);
+        Map<String, Map<String, Object>> first = responses(4, 80.0);
+        Map<String, Map<String, Object>> second = responses(2, 35.5);
+        assertTrue(service.submitEvaluation(scorecardId, "e0", first));
+        assertTrue(service.submitEvaluation(scorecardId, "e1", second));
+
+        Scorecard scorecard = service.getScorecard(scorecardId, "admin");
+        assertEquals(scorecard.calculateScore(first).getOverallScore(),
+                service.calculateScore(scorecardId, "e0").getOverallScore(), 0.0);
+        assertEquals(scorecard.calculateScore(second).getOverallScore(),
+                service.calculateScore(scorecardId, "e1").getOverallScore(), 0.0);
+        assertEquals(0.0, service.calculateScore(scorecardId, "e2").getOverallScore(), 0.0);
+    }
+
+    @Test
+    public void testReportDescribesOnePointInTime() {
+        createScorecard(4);
+        assertTrue(service.submitEvaluation(scorecardId, "e0", responses(1, 10.0)));
+        assertTrue(service.submitEvaluation(scorecardId, "e1", responses(2, 20.0)));
+        ScorecardService.ScorecardReport report = service.generateReport(scorecardId, "admin");
+
+        // Submitted after the report: none of its figures may include these
+        assertTrue(service.submitEvaluation(scorecardId, "e2", responses(5, 100.0)));
+        assertTrue(service.submitEvaluation(scorecardId, "e3", responses(5, 100.0)));
+        assertTrue(service.submitEvaluation(scorecardId, "e0", responses(5, 95.0)));
+
+        assertEquals(2, report.getStatistics().getCount());
+        assertEquals(2, report.getEvaluatorScores().size());
+        Scorecard scorecard = service.getScorecard(scorecardId, "admin");
+        double low = scorecard.calculateScore(responses(1, 10.0)).getOverallScore();
+        double high = scorecard.calculateScore(responses(2, 20.0)).getOverallScore();
+        assertEquals(low, report.getEvaluatorScores().get("e0").getOverallScore(), 0.0);
+        assertEquals(high, report.getPercentile(100), 0.0);
+        assertEquals((low + high) / 2, report.getAverageScore(), 1e-12);
+
+        long counted = 0;
+        for (long bucket : report.getSectionDistribution("skills")) {
+            counted += bucket;
+        }
+        assertEquals(2, counted);
+    }
+
+    @Test
+    public void testReportSurvivesLaterCompaction() {
+        createScorecard(2);
+        assertTrue(service.submitEvaluation(scorecardId, "e0", responses(1, 10.0)));
+        assertTrue(service.submitEvaluation(scorecardId, "e1", responses(2, 20.0)));
+        ScorecardService.ScorecardReport report = service.generateReport(scorecardId, "admin");
+
+        // Enough resubmissions to grow the columns and rebuild them without the retired rows
+        for (int i = 0; i < 3_000; i++) {
+            assertTrue(service.submitEvaluation(scorecardId, "e" + (i % 2), responses(5, i % 100)));
+        }
+
+        Scorecard scorecard = service.getScorecard(scorecardId, "admin");
+        assertEquals(2, report.getEvaluatorScores().size());
+        assertEquals(scorecard.calculateScore(responses(1, 10.0)).getOverallScore(),
+                report.getEvaluatorScores().get("e0").getOverallScore(), 0.0);
+        assertEquals(scorecard.calculateScore(responses(2, 20.0)).getOverallScore(),
+                report.getPercentile(100), 0.0);
+    }
+}
@@ -0,0 +1,186 @@
+package lld.taskmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventLogTest {
+
+    @Test
+    public void testFailedSyncIsRetriedAndRecovered() throws IOException {
+        Path dir = Files.createTempDirectory("task-log");
+        try {
+            FailingChannel[] channel = new FailingChannel[1];
+            TaskEventLog log = new TaskEventLog(dir.resolve("log"), 1 << 20, 60_000, file -> {
+                channel[0] = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+                return channel[0];
+            });
+            log.startAppending(0);
+
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Task task = new Task("Task " + i, "first batch", TaskPriority.LOW, "alice");
+                tasks.add(task);
+                log.append(TaskChangeEvent.Type.CREATED, task);
+            }
+            log.sync();
+            assertEquals(3, log.getDurableSequence());
+
+            // Half of the next batch reaches the file before the write fails
+            Task failed = tasks.get(0);
+            failed.updateStatus(TaskStatus.IN_PROGRESS);
+            log.append(TaskChangeEvent.Type.STATUS_CHANGED, failed);
+            Task created = new Task("Task 3", "failed batch", TaskPriority.HIGH, "bob");
+            tasks.add(created);
+            log.append(TaskChangeEvent.Type.CREATED, created);
+            channel[0].failNextWrite = true;
+            IOException failure = assertThrows(IOException.class, log::sync);
+            assertSame(failure, log.getSyncFailure());
+            assertEquals(3, log.getDurableSequence());
+            assertEquals(1, log.getStats().failedSyncs);
+
+            // Appended after the failure: must follow the failed batch, not replace it
+            Task reassigned = tasks.get(1);
+            reassigned.assignTo("carol");
+            log.append(TaskChangeEvent.Type.ASSIGNED, reassigned);
+            log.sync();
+            assertNull(log.getSyncFailure());
+            assertEquals(6, log.getDurableSequence());
+
+            // A later batch must not reuse the buffer that was being appended to
+            failed.updateStatus(TaskStatus.DONE);
+            log.append(TaskChangeEvent.Type.STATUS_CHANGED, failed);
+            log.close();
+
+            try (TaskEventStore store = new TaskEventStore(dir)) {
+                Map<String, Task> recovered = store.recover();
+                assertEquals(4, recovered.size());
+                assertEquals(7, store.getLastRecovery().eventsReplayed);
+                assertEquals(TaskStatus.DONE, recovered.get(failed.getId()).getStatus());
+                assertEquals("carol", recovered.get(reassigned.getId()).getAssigneeId());
+                assertEquals(TaskPriority.HIGH, recovered.get(created.getId()).getPriority());
+            }
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void testBackgroundSyncFailureIsReported() throws Exception {
+        Path dir = Files.createTempDirectory("task-log");
+        try {
+            FailingChannel[] channel = new FailingChannel[1];
+            TaskEventLog log = new TaskEventLog(dir.resolve("log"), 1 << 20, 5, file -> {
+                channel[0] = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+                return channel[0];
+            });
+            log.startAppending(0);
+            channel[0].failForce = true;
+            log.append(TaskChangeEvent.Type.CREATED, new Task("Task", "", TaskPriority.MEDIUM, "alice"));
+            for (int i = 0; i < 200 && log.getSyncFailure() == null; i++) {
+                Thread.sleep(5);
+            }
+            assertNotNull(log.getSyncFailure());
+            assertEquals(0, log.getDurableSequence());
+
+            channel[0].failForce = false;
+            log.sync();
+            assertEquals(1, log.getDurableSequence());
+            log.close();
+
+            try (TaskEventStore store = new TaskEventStore(dir)) {
+                assertEquals(1, store.recover().size());
+            }
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Delegating channel that can fail a write half way through, or fail fsync
+    private static class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        volatile boolean failNextWrite;
+        volatile boolean failForce;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                delegate.write(half);
+                throw new IOException("Injected write failure");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Injected fsync failure");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException { return delegate.read(dst); }
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException { return delegate.read(dsts, offset, length); }
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException { return delegate.write(srcs, offset, length); }
+        @Override
+        public long position() throws IOException { return delegate.position(); }
+        @Override
+        public FileChannel position(long newPosition) throws IOException { delegate.position(newPosition); return this; }
+        @Override
+        public long size() throws IOException { return delegate.size(); }
+        @Override
+        public FileChannel truncate(long size) throws IOException { delegate.truncate(size); return this; }
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException { return delegate.transferTo(position, count, target); }
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException { return delegate.transferFrom(src, position, count); }
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException { return delegate.read(dst, position); }
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException { return delegate.write(src, position); }
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException { return delegate.map(mode, position, size); }
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException { return delegate.lock(position, size, shared); }
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException { return delegate.tryLock(position, size, shared); }
+        @Override
+        protected void implCloseChannel() throws IOException { delegate.close(); }
+    }
+}
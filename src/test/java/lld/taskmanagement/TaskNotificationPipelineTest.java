@@ -0,0 +1,62 @@
+package lld.taskmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskNotificationPipelineTest {
+
+    private static class RecordingObserver implements TaskObserver {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onTaskCreated(Task task) {
+            received.add(task.getTitle() + " created");
+        }
+
+        @Override
+        public void onTaskStatusChanged(Task task, TaskStatus oldStatus, TaskStatus newStatus) {
+            received.add(task.getTitle() + " status " + oldStatus.name() + "->" + newStatus.name());
+        }
+
+        @Override
+        public void onTaskAssigned(Task task, String oldAssigneeId, String newAssigneeId) {
+            received.add(task.getTitle() + " assigned " + oldAssigneeId + "->" + newAssigneeId);
+        }
+
+        @Override
+        public void onTaskPriorityChanged(Task task, TaskPriority oldPriority, TaskPriority newPriority) {
+            received.add(task.getTitle() + " priority " + oldPriority.name() + "->" + newPriority.name());
+        }
+    }
+
+    @Test
+    public void testTaskEventsKeepTheirOrderWhenCoalesced() throws InterruptedException {
+        TaskNotificationPipeline pipeline = new TaskNotificationPipeline(200, 100, 1, 0);
+        RecordingObserver observer = new RecordingObserver();
+        pipeline.addObserver(observer);
+        Task a = new Task("a", "", TaskPriority.LOW, null);
+        Task b = new Task("b", "", TaskPriority.LOW, null);
+
+        pipeline.onTaskStatusChanged(a, TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        pipeline.onTaskStatusChanged(b, TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        pipeline.onTaskStatusChanged(a, TaskStatus.IN_PROGRESS, TaskStatus.BLOCKED); // same run, b in between
+        pipeline.onTaskAssigned(a, null, "alice");
+        pipeline.onTaskStatusChanged(a, TaskStatus.BLOCKED, TaskStatus.DONE);
+        pipeline.onTaskPriorityChanged(b, TaskPriority.LOW, TaskPriority.HIGH);
+        pipeline.onTaskPriorityChanged(b, TaskPriority.HIGH, TaskPriority.LOW); // net no-op
+        assertTrue(pipeline.awaitIdle(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(
+                "a status TODO->BLOCKED",
+                "b status TODO->IN_PROGRESS",
+                "a assigned null->alice",
+                "a status BLOCKED->DONE"), observer.received);
+        assertEquals(3, pipeline.getStats().get(0).coalesced);
+        pipeline.shutdown(5, TimeUnit.SECONDS);
+    }
+}
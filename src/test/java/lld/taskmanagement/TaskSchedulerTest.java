@@ -0,0 +1,168 @@
+package lld.taskmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSchedulerTest {
+
+    @Test
+    public void testFinishedDependenciesAreRememberedAfterJobsAreDropped() throws InterruptedException {
+        TaskManagementSystem tms = new TaskManagementSystem();
+        TaskScheduler scheduler = new TaskScheduler(tms, 2, 2);
+        Task ok = tms.createTask("ok", "", TaskPriority.HIGH, "alice");
+        Task broken = tms.createTask("broken", "", TaskPriority.HIGH, "alice");
+        scheduler.submit(ok, () -> { });
+        scheduler.submit(broken, () -> { throw new IllegalStateException("boom"); });
+        assertTrue(scheduler.awaitCompletion(5, TimeUnit.SECONDS));
+
+        Task afterOk = tms.createTask("after ok", "", TaskPriority.LOW, "bob");
+        Task afterBroken = tms.createTask("after broken", "", TaskPriority.LOW, "bob");
+        CompletableFuture<Void> runs = scheduler.submit(afterOk, () -> { }, List.of(ok.getId()));
+        CompletableFuture<Void> cancelled = scheduler.submit(afterBroken, () -> { }, List.of(broken.getId()));
+        assertTrue(scheduler.awaitCompletion(5, TimeUnit.SECONDS));
+
+        assertFalse(runs.isCompletedExceptionally());
+        assertTrue(cancelled.isCompletedExceptionally());
+        assertEquals(TaskStatus.DONE, tms.getTask(afterOk.getId()).getStatus());
+        assertEquals(TaskStatus.BLOCKED, tms.getTask(afterBroken.getId()).getStatus());
+        assertThrows(IllegalArgumentException.class, () -> scheduler.submit(ok, () -> { }));
+        assertEquals(4, scheduler.getStats().submitted);
+        assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFinishedJobsAreReleased() throws InterruptedException {
+        TaskManagementSystem tms = new TaskManagementSystem();
+        TaskScheduler scheduler = new TaskScheduler(tms, 2, 2);
+        int[] runs = new int[1];
+        Runnable work = () -> runs[0]++; // capturing, so not a cached singleton
+        WeakReference<Runnable> released = new WeakReference<>(work);
+        scheduler.submit(tms.createTask("t", "", TaskPriority.MEDIUM, "alice"), work);
+        work = null;
+        assertTrue(scheduler.awaitCompletion(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(released.get());
+        assertEquals(1, runs[0]);
+        assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelledFuturesCompleteOutsideTheLock() throws InterruptedException {
+        TaskManagementSystem tms = new TaskManagementSystem();
+        TaskScheduler scheduler = new TaskScheduler(tms, 1, 1);
+        Task failing = tms.createTask("failing", "", TaskPriority.HIGH, null);
+        Task dependent = tms.createTask("dependent", "", TaskPriority.HIGH, null);
+        CountDownLatch callbackAttached = new CountDownLatch(1);
+        AtomicBoolean heldLock = new AtomicBoolean();
+        AtomicBoolean called = new AtomicBoolean();
+
+        scheduler.submit(failing, () -> {
+            try {
+                callbackAttached.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("boom");
+        });
+        scheduler.submit(dependent, () -> { }, List.of(failing.getId()))
+                .whenComplete((result, error) -> {
+                    heldLock.set(Thread.holdsLock(scheduler));
+                    called.set(true);
+                });
+        callbackAttached.countDown();
+        assertTrue(scheduler.awaitCompletion(5, TimeUnit.SECONDS));
+
+        assertTrue(called.get());
+        assertFalse(heldLock.get());
+        assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownLeavesSuppliedPoolRunning() throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TaskManagementSystem tms = new TaskManagementSystem();
+            TaskScheduler scheduler = new TaskScheduler(tms, pool, 2, 2);
+            scheduler.submit(tms.createTask("t", "", TaskPriority.LOW, "alice"), () -> { });
+            assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+            assertFalse(pool.isShutdown());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testThrowingObserverDoesNotStallJobs() throws InterruptedException {
+        TaskManagementSystem tms = new TaskManagementSystem();
+        tms.addObserver(new TaskObserver() {
+            @Override
+            public void onTaskCreated(Task task) { }
+
+            @Override
+            public void onTaskStatusChanged(Task task, TaskStatus oldStatus, TaskStatus newStatus) {
+                throw new IllegalStateException("sink down");
+            }
+
+            @Override
+            public void onTaskAssigned(Task task, String oldAssigneeId, String newAssigneeId) { }
+
+            @Override
+            public void onTaskPriorityChanged(Task task, TaskPriority oldPriority, TaskPriority newPriority) { }
+        });
+        TaskScheduler scheduler = new TaskScheduler(tms, 2, 1);
+        Task first = tms.createTask("first", "", TaskPriority.HIGH, "alice");
+        Task second = tms.createTask("second", "", TaskPriority.HIGH, "alice");
+        Task broken = tms.createTask("broken", "", TaskPriority.HIGH, "bob");
+        Task blocked = tms.createTask("blocked", "", TaskPriority.HIGH, "bob");
+
+        CompletableFuture<Void> firstDone = scheduler.submit(first, () -> { });
+        CompletableFuture<Void> secondDone = scheduler.submit(second, () -> { }, List.of(first.getId()));
+        scheduler.submit(broken, () -> { throw new IllegalStateException("boom"); });
+        CompletableFuture<Void> cancelled = scheduler.submit(blocked, () -> { }, List.of(broken.getId()));
+        assertTrue(scheduler.awaitCompletion(5, TimeUnit.SECONDS));
+
+        assertTrue(firstDone.isDone() && !firstDone.isCompletedExceptionally());
+        assertTrue(secondDone.isDone() && !secondDone.isCompletedExceptionally());
+        assertTrue(cancelled.isCompletedExceptionally());
+        assertEquals(TaskStatus.DONE, tms.getTask(second.getId()).getStatus());
+        assertEquals(TaskStatus.BLOCKED, tms.getTask(blocked.getId()).getStatus());
+        assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOnlyRecentOutcomesAreKept() throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            TaskManagementSystem tms = new TaskManagementSystem();
+            TaskScheduler scheduler = new TaskScheduler(tms, pool, false, 1, 1, 2);
+            Task oldest = tms.createTask("oldest", "", TaskPriority.LOW, null);
+            Task middle = tms.createTask("middle", "", TaskPriority.LOW, null);
+            Task newest = tms.createTask("newest", "", TaskPriority.LOW, null);
+            scheduler.submit(oldest, () -> { });
+            scheduler.submit(middle, () -> { }, List.of(oldest.getId()));
+            scheduler.submit(newest, () -> { }, List.of(middle.getId()));
+            assertTrue(scheduler.awaitCompletion(5, TimeUnit.SECONDS));
+
+            Task late = tms.createTask("late", "", TaskPriority.LOW, null);
+            assertThrows(IllegalArgumentException.class,
+                    () -> scheduler.submit(late, () -> { }, List.of(oldest.getId())));
+            scheduler.submit(late, () -> { }, List.of(newest.getId()));
+            assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+            assertEquals(TaskStatus.DONE, tms.getTask(late.getId()).getStatus());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}